@@ -0,0 +1,39 @@
+package com.alphafinity.alphafinity.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    /**
+     * Pool shared by everything that runs backtests in parallel (sweeps, walk-forward windows), sized to the number of
+     * cores so concurrent requests queue for CPU instead of oversubscribing it.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool backtestPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Workers for submitted backtest jobs, one per core. Jobs beyond the queue capacity are rejected rather than queued
+     * without bound, so a burst of submissions cannot exhaust memory.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor backtestJobExecutor(@Value("${alphafinity.jobs.queue-capacity}") int queueCapacity) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> new Thread(runnable, "backtest-job-" + threads.incrementAndGet());
+
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
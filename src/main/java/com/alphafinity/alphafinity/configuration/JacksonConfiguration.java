@@ -1,6 +1,8 @@
 package com.alphafinity.alphafinity.configuration;
 
+import com.alphafinity.alphafinity.model.TimeSeriesData;
 import com.alphafinity.alphafinity.model.deserializer.LocalDateTimeDeserializer;
+import com.alphafinity.alphafinity.model.deserializer.TimeSeriesDataDeserializer;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -24,6 +26,7 @@ public class JacksonConfiguration {
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
         module.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer());
+        module.addDeserializer(TimeSeriesData.class, new TimeSeriesDataDeserializer());
         mapper.registerModule(module);
 
         return mapper;
@@ -1,13 +1,30 @@
 package com.alphafinity.alphafinity.controller;
 
 import com.alphafinity.alphafinity.model.*;
+import com.alphafinity.alphafinity.service.BacktestJobService;
 import com.alphafinity.alphafinity.service.BacktestService;
+import com.alphafinity.alphafinity.model.enumerations.SweepMetric;
+import com.alphafinity.alphafinity.service.BarFileService;
+import com.alphafinity.alphafinity.service.DashboardService;
+import com.alphafinity.alphafinity.service.DatasetService;
+import com.alphafinity.alphafinity.service.IndicatorCache;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import com.alphafinity.alphafinity.service.MonteCarloService;
+import com.alphafinity.alphafinity.service.MultiAssetBacktestService;
+import com.alphafinity.alphafinity.service.ParameterSweepService;
+import com.alphafinity.alphafinity.service.ReportEncodingService;
 import com.alphafinity.alphafinity.service.Strategy;
+import com.alphafinity.alphafinity.service.WalkForwardService;
 import com.alphafinity.alphafinity.strategy.BuyAndHold;
 import com.alphafinity.alphafinity.strategy.EMAStrategy;
+import com.alphafinity.alphafinity.strategy.RSIRotationStrategy;
 import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import com.alphafinity.alphafinity.utility.BarPeriod;
+import com.alphafinity.alphafinity.utility.BarResampler;
+import com.alphafinity.alphafinity.utility.Downsampling;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,91 +32,376 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 @Controller
 @RequestMapping("/api/v1/backtest")
 public class BacktestController {
 
+    private static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(ReportEncodingService.COLUMNAR_JSON);
+    private static final MediaType COLUMNAR_BINARY = MediaType.parseMediaType(ReportEncodingService.BINARY);
+
     private final BacktestService backtestService;
+    private final BacktestJobService backtestJobService;
     private final BuyAndHold buyAndHold;
     private final EMAStrategy ema;
     private final RSIStrategy rsiStrategy;
+    private final RSIRotationStrategy rsiRotationStrategy;
+    private final BarFileService barFileService;
+    private final DatasetService datasetService;
+    private final DashboardService dashboardService;
+    private final ParameterSweepService parameterSweepService;
+    private final WalkForwardService walkForwardService;
+    private final MonteCarloService monteCarloService;
+    private final MultiAssetBacktestService multiAssetBacktestService;
+    private final IndicatorCache indicatorCache;
+    private final ReportEncodingService reportEncodingService;
     private final ObjectMapper mapper;
 
     public BacktestController(BacktestService backtestService,
+                              BacktestJobService backtestJobService,
+                              BarFileService barFileService,
+                              DatasetService datasetService,
+                              DashboardService dashboardService,
+                              ParameterSweepService parameterSweepService,
+                              WalkForwardService walkForwardService,
+                              MonteCarloService monteCarloService,
+                              MultiAssetBacktestService multiAssetBacktestService,
+                              IndicatorCache indicatorCache,
+                              ReportEncodingService reportEncodingService,
                               BuyAndHold buyAndHold,
                               EMAStrategy ema,
                               RSIStrategy rsiStrategy,
+                              RSIRotationStrategy rsiRotationStrategy,
                               ObjectMapper mapper) {
         this.backtestService = backtestService;
+        this.backtestJobService = backtestJobService;
+        this.barFileService = barFileService;
+        this.datasetService = datasetService;
+        this.dashboardService = dashboardService;
+        this.parameterSweepService = parameterSweepService;
+        this.walkForwardService = walkForwardService;
+        this.monteCarloService = monteCarloService;
+        this.multiAssetBacktestService = multiAssetBacktestService;
+        this.indicatorCache = indicatorCache;
+        this.reportEncodingService = reportEncodingService;
         this.buyAndHold = buyAndHold;
         this.ema = ema;
         this.rsiStrategy = rsiStrategy;
+        this.rsiRotationStrategy = rsiRotationStrategy;
         this.mapper = mapper;
     }
 
-    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> startBacktest(@RequestParam("benchmarkData") MultipartFile benchmark,
-                                           @RequestParam("strategyData") MultipartFile data) throws IOException {
+    @PostMapping
+    public ResponseEntity<?> startBacktest(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                           @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                           @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                           @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                           @RequestParam(value = "period", required = false) String period,
+                                           @RequestParam(value = "resampling", defaultValue = "BOOTSTRAP") ResamplingMethod resampling,
+                                           @RequestParam(value = "seed", required = false) Long seed,
+                                           @RequestParam(value = "points", required = false) Integer points,
+                                           @RequestParam(value = "fields", required = false) String fields,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        checkPoints(points);
         Context context = new Context.Builder()
                 .build();
 
-        List<TimeSeriesEntry> benchmarkEntries = mapper.readValue(benchmark.getInputStream(), new TypeReference<>() {});
-        List<TimeSeriesEntry> strategyEntries = mapper.readValue(data.getInputStream(), new TypeReference<>() {});
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
+
+        Context finalContext = backtestService.executeStrategy(context, rsiStrategy, benchmarkTimeSeriesData, strategyTimeSeriesData);
+        MonteCarloResult monteCarlo = monteCarloService.simulate(finalContext, resampling,
+                seed != null ? seed : ThreadLocalRandom.current().nextLong());
+
+        return report(downsampleStates(new Context.Builder(finalContext)
+                .monteCarlo(monteCarlo)
+                .build(), points), fields, accept);
+    }
+
+    /**
+     * Queues a backtest and returns straight away with the job, poll {@code /jobs/{id}} for its status and fetch the
+     * report from {@code /jobs/{id}/result} once completed.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitBacktestJob(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                               @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                               @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                               @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                               @RequestParam(value = "period", required = false) String period,
+                                               @RequestParam(value = "strategy", defaultValue = "rsi") String strategyName,
+                                               @RequestParam(value = "resampling", defaultValue = "BOOTSTRAP") ResamplingMethod resampling,
+                                               @RequestParam(value = "seed", required = false) Long seed) throws IOException {
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
+
+        try {
+            BacktestJob job = backtestJobService.submit(getStrategy(strategyName), benchmarkTimeSeriesData, strategyTimeSeriesData,
+                    resampling, seed != null ? seed : ThreadLocalRandom.current().nextLong());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).contentType(MediaType.APPLICATION_JSON).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a backtest as a job and streams it as server-sent events: a "progress" event with the job status and a "states"
+     * event with the next batch of states as the run goes, then a "finished" event with the final job status. The states
+     * are not kept, the job result has no states. Closing the stream cancels the job.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBacktest(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                                     @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                                     @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                                     @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                                     @RequestParam(value = "period", required = false) String period,
+                                                     @RequestParam(value = "strategy", defaultValue = "rsi") String strategyName,
+                                                     @RequestParam(value = "resampling", defaultValue = "BOOTSTRAP") ResamplingMethod resampling,
+                                                     @RequestParam(value = "seed", required = false) Long seed) throws IOException {
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
+
+        SseEmitter emitter = new SseEmitter(0L); // No timeout, the stream ends with the job
+        SseJobListener listener = new SseJobListener(emitter);
+        BacktestJob job;
+        try {
+            job = backtestJobService.submit(getStrategy(strategyName), benchmarkTimeSeriesData, strategyTimeSeriesData,
+                    resampling, seed != null ? seed : ThreadLocalRandom.current().nextLong(), listener);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        listener.cancelOnDisconnect(backtestJobService, job.id);
 
-        TimeSeriesData benchmarkTimeSeriesData = new TimeSeriesData(benchmarkEntries);
-        TimeSeriesData strategyTimeSeriesData = new TimeSeriesData(strategyEntries);
+        return ResponseEntity.status(HttpStatus.OK).body(emitter);
+    }
 
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getBacktestJob(@PathVariable("id") String id) {
         return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
-                .body(backtestService.executeStrategy(context, rsiStrategy, benchmarkTimeSeriesData, strategyTimeSeriesData));
+                .body(backtestJobService.getJob(id));
     }
 
-    @GetMapping("/dashboard")
-    public String showDashboard(Model model) throws IOException {
+    // Returns the job status instead of the report while the job has not completed
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<?> getBacktestJobResult(@PathVariable("id") String id,
+                                                  @RequestParam(value = "points", required = false) Integer points,
+                                                  @RequestParam(value = "fields", required = false) String fields,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        checkPoints(points);
+        Context result = backtestJobService.getResult(id);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                    .body(backtestJobService.getJob(id));
+        }
 
-        ClassLoader classloader = Thread.currentThread().getContextClassLoader();
+        return report(downsampleStates(result, points), fields, accept);
+    }
 
-        InputStream inputStreamBenchmark = classloader.getResourceAsStream("spy_hourly.json");
-        InputStream inputStreamStrategy = classloader.getResourceAsStream("spy_hourly.json");
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<?> cancelBacktestJob(@PathVariable("id") String id) {
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(backtestJobService.cancel(id));
+    }
 
-        Context context = new Context.Builder()
-                .build();
-        List<TimeSeriesEntry> benchmarkEntries = mapper.readValue(inputStreamBenchmark, new TypeReference<>() {});
-        List<TimeSeriesEntry> strategyEntries = mapper.readValue(inputStreamStrategy, new TypeReference<>() {});
+    /**
+     * Runs several strategies over the same data in a single pass and compares their analytics, e.g.
+     * {@code strategies=rsi,ema,buy-and-hold}.
+     */
+    @PostMapping("/compare")
+    public ResponseEntity<?> compareStrategies(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                               @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                               @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                               @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                               @RequestParam(value = "period", required = false) String period,
+                                               @RequestParam(value = "strategies", defaultValue = "rsi,ema,buy-and-hold") List<String> strategyNames) throws IOException {
+        List<Strategy> strategies = strategyNames.stream()
+                .map(String::trim)
+                .map(this::getStrategy)
+                .toList();
+
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(backtestService.compareStrategies(strategies, benchmarkTimeSeriesData, strategyTimeSeriesData));
+    }
+
+    /**
+     * Backtests one strategy over several symbols with shared cash. Uploaded symbols are named after their file name,
+     * registered datasets after their id.
+     */
+    @PostMapping("/portfolio")
+    public ResponseEntity<?> startPortfolioBacktest(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                                    @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                                    @RequestParam(value = "symbolData", required = false) List<MultipartFile> symbolFiles,
+                                                    @RequestParam(value = "symbolDatasetIds", required = false) List<String> symbolDatasetIds,
+                                                    @RequestParam(value = "period", required = false) String period) throws IOException {
+        Map<String, TimeSeriesData> symbols = new LinkedHashMap<>();
+        for (MultipartFile file : symbolFiles == null ? List.<MultipartFile>of() : symbolFiles) {
+            putSymbol(symbols, symbolName(file), getTimeSeriesData(file, null, period));
+        }
+        for (String datasetId : symbolDatasetIds == null ? List.<String>of() : symbolDatasetIds) {
+            putSymbol(symbols, datasetId, getTimeSeriesData(null, datasetId, period));
+        }
+
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(multiAssetBacktestService.executeStrategy(new Context.Builder().build(), rsiRotationStrategy,
+                        benchmarkTimeSeriesData, symbols));
+    }
+
+    @PostMapping("/sweep")
+    public ResponseEntity<?> startSweep(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                        @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                        @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                        @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                        @RequestParam(value = "period", required = false) String period,
+                                        @RequestParam(value = "strategy", defaultValue = "rsi") String strategyName,
+                                        @RequestParam("parameters") String parameters,
+                                        @RequestParam(value = "rankBy", defaultValue = "TOTAL_RETURN") SweepMetric rankBy,
+                                        @RequestParam(value = "maxDrawdown", required = false) Double maxDrawdown) throws IOException {
+        // Parameter grid as JSON, e.g. {"rsiBuyThreshold": [20, 25, 30], "rsiSellThreshold": [70, 75, 80]}
+        Map<String, List<Double>> grid = mapper.readValue(parameters, new TypeReference<>() {});
+
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
 
-        TimeSeriesData benchmarkTimeSeriesData = new TimeSeriesData(benchmarkEntries);
-        TimeSeriesData strategyTimeSeriesData = new TimeSeriesData(strategyEntries);
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(parameterSweepService.sweep(getStrategy(strategyName), grid, rankBy, maxDrawdown, benchmarkTimeSeriesData, strategyTimeSeriesData));
+    }
 
-        Context response = backtestService.executeStrategy(context, rsiStrategy, benchmarkTimeSeriesData, strategyTimeSeriesData);
+    @PostMapping("/walk-forward")
+    public ResponseEntity<?> startWalkForward(@RequestParam(value = "benchmarkData", required = false) MultipartFile benchmark,
+                                              @RequestParam(value = "strategyData", required = false) MultipartFile data,
+                                              @RequestParam(value = "benchmarkDatasetId", required = false) String benchmarkDatasetId,
+                                              @RequestParam(value = "strategyDatasetId", required = false) String strategyDatasetId,
+                                              @RequestParam(value = "period", required = false) String period,
+                                              @RequestParam(value = "strategy", defaultValue = "rsi") String strategyName,
+                                              @RequestParam("parameters") String parameters,
+                                              @RequestParam(value = "rankBy", defaultValue = "TOTAL_RETURN") SweepMetric rankBy,
+                                              @RequestParam("inSampleBars") int inSampleBars,
+                                              @RequestParam("outOfSampleBars") int outOfSampleBars) throws IOException {
+        Map<String, List<Double>> grid = mapper.readValue(parameters, new TypeReference<>() {});
 
-        // Get initial values
-        double initialAccountValue = response.states.get(0).currentAccountValue;
-        double initialBenchmarkValue = benchmarkTimeSeriesData.entries.get(0).close;
+        TimeSeriesData benchmarkTimeSeriesData = getTimeSeriesData(benchmark, benchmarkDatasetId, period);
+        TimeSeriesData strategyTimeSeriesData = getTimeSeriesData(data, strategyDatasetId, period);
 
-        // Normalize states
-        List<State> normalizedStates = response.states.stream()
-                .map(state -> new State.Builder(state)
-                        .currentAccountValue(((state.currentAccountValue / initialAccountValue) - 1) * 100)
-                        .build())
-                .collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(walkForwardService.walkForward(getStrategy(strategyName), grid, rankBy, inSampleBars, outOfSampleBars,
+                        benchmarkTimeSeriesData, strategyTimeSeriesData));
+    }
 
-        // Normalize benchmark entries
-        List<TimeSeriesEntry> normalizedBenchmarkEntries = benchmarkTimeSeriesData.entries.stream()
-                .map(entry -> new TimeSeriesEntry(entry.datetime, 0.00, ((entry.close / initialBenchmarkValue) - 1) * 100, 0.00, 0.00, entry.volume, 0.00, 0.00))
-                .collect(Collectors.toList());
+    @GetMapping("/indicator-cache")
+    public ResponseEntity<?> getIndicatorCacheStatistics() {
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(indicatorCache.getStatistics());
+    }
 
-        TimeSeriesData normalizedBenchmarkTimeSeriesData = new TimeSeriesData(normalizedBenchmarkEntries);
+    @GetMapping("/dashboard")
+    public String showDashboard(Model model,
+                                @RequestParam(value = "points", required = false) Integer points) throws IOException {
+        checkPoints(points);
+        Dashboard dashboard = points == null ? dashboardService.getDashboard() : dashboardService.getDashboard(points);
 
-        model.addAttribute("context", response);
-        model.addAttribute("states", normalizedStates);
-        model.addAttribute("benchmark", normalizedBenchmarkTimeSeriesData.entries);
+        model.addAttribute("context", dashboard.context);
+        model.addAttribute("states", dashboard.statesJson);
+        model.addAttribute("benchmark", dashboard.benchmarkJson);
 
         return "index";
     }
+
+    /**
+     * Encodes a report as requested: optionally only the given top-level fields, and columnar JSON or the columnar binary
+     * encoding when the Accept header asks for one of them, plain JSON otherwise.
+     */
+    private ResponseEntity<?> report(Context context, String fields, String accept) throws IOException {
+        Set<String> selected = reportEncodingService.parseFields(fields);
+        for (MediaType mediaType : accept == null ? List.<MediaType>of() : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(COLUMNAR_JSON)) {
+                return ResponseEntity.status(HttpStatus.OK).contentType(COLUMNAR_JSON)
+                        .body(reportEncodingService.encodeColumnarJson(context, selected));
+            }
+            if (mediaType.equalsTypeAndSubtype(COLUMNAR_BINARY)) {
+                return ResponseEntity.status(HttpStatus.OK).contentType(COLUMNAR_BINARY)
+                        .body(reportEncodingService.encodeBinary(context, selected));
+            }
+        }
+
+        if (fields == null) {
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(context);
+        }
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(reportEncodingService.encodeJson(context, selected));
+    }
+
+    // Rejected before any backtest runs, the report would otherwise fail only once it is downsampled
+    private static void checkPoints(Integer points) {
+        if (points != null && points < Downsampling.MIN_POINTS) {
+            throw new IllegalArgumentException("points must be at least " + Downsampling.MIN_POINTS + ", got " + points);
+        }
+    }
+
+    // Optional point budget for the states of a report, for clients that only chart them
+    private static Context downsampleStates(Context context, Integer points) {
+        if (points == null) {
+            return context;
+        }
+        return new Context.Builder(context)
+                .states(Downsampling.states(context.states, points))
+                .build();
+    }
+
+    private Strategy getStrategy(String name) {
+        return switch (name) {
+            case "rsi" -> rsiStrategy;
+            case "ema" -> ema;
+            case "buy-and-hold" -> buyAndHold;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    private static String symbolName(MultipartFile file) {
+        String name = file.getOriginalFilename() == null || file.getOriginalFilename().isBlank() ? file.getName() : file.getOriginalFilename();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    private static void putSymbol(Map<String, TimeSeriesData> symbols, String symbol, TimeSeriesData data) {
+        if (symbols.putIfAbsent(symbol, data) != null) {
+            throw new IllegalArgumentException("Symbol " + symbol + " was given more than once");
+        }
+    }
+
+    // Optionally resampled to coarser bars, e.g. 1d, before the indicators are calculated
+    private TimeSeriesData getTimeSeriesData(MultipartFile file, String datasetId, String period) throws IOException {
+        // Parsed before the upload so a malformed period is rejected without reading the data
+        BarPeriod barPeriod = period == null ? null : BarPeriod.parse(period);
+        TimeSeriesData data = getTimeSeriesData(file, datasetId);
+        return barPeriod == null ? data : BarResampler.resample(data, barPeriod);
+    }
+
+    // Data is either uploaded with the request (JSON or an already converted bar file) or a registered dataset
+    private TimeSeriesData getTimeSeriesData(MultipartFile file, String datasetId) throws IOException {
+        if (datasetId != null) {
+            return datasetService.getData(datasetId);
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("Either an uploaded file or a dataset id is required for the benchmark and strategy data");
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            return barFileService.parse(inputStream);
+        }
+    }
 }
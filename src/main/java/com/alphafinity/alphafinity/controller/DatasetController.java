@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.controller;
+
+import com.alphafinity.alphafinity.service.DatasetService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Upload a time-series once and reference it by id in backtest requests (benchmarkDatasetId / strategyDatasetId).
+ */
+@Controller
+@RequestMapping("/api/v1/datasets")
+public class DatasetController {
+
+    private final DatasetService datasetService;
+
+    public DatasetController(DatasetService datasetService) {
+        this.datasetService = datasetService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> registerDataset(@RequestParam("data") MultipartFile data) throws IOException {
+        try (InputStream inputStream = data.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                    .body(datasetService.register(inputStream));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getDataset(@PathVariable("id") String id) throws IOException {
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(datasetService.getDataset(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteDataset(@PathVariable("id") String id) throws IOException {
+        datasetService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
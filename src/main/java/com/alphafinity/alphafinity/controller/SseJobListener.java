@@ -0,0 +1,53 @@
+package com.alphafinity.alphafinity.controller;
+
+import com.alphafinity.alphafinity.model.BacktestJob;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.service.BacktestJobListener;
+import com.alphafinity.alphafinity.service.BacktestJobService;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams a backtest job as server-sent events: a "progress" and a "states" event per batch of states, then a "finished"
+ * event, after which the stream is completed. A send to a client that went away fails and the job is detached and
+ * cancelled by the job service.
+ */
+class SseJobListener implements BacktestJobListener {
+    private final SseEmitter emitter;
+
+    SseJobListener(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    /**
+     * Cancels the job when the stream ends before it, on completion, error or timeout of the emitter.
+     */
+    void cancelOnDisconnect(BacktestJobService backtestJobService, String id) {
+        Runnable cancel = () -> {
+            try {
+                backtestJobService.cancel(id); // No-op once the job has finished
+            } catch (NoSuchElementException e) {
+                // Already purged
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onError(e -> cancel.run());
+        emitter.onTimeout(cancel);
+    }
+
+    @Override
+    public void onProgress(BacktestJob job, List<State> states) throws IOException {
+        emitter.send(SseEmitter.event().name("progress").data(job, MediaType.APPLICATION_JSON));
+        emitter.send(SseEmitter.event().name("states").data(states, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void onFinished(BacktestJob job) throws IOException {
+        emitter.send(SseEmitter.event().name("finished").data(job, MediaType.APPLICATION_JSON));
+        emitter.complete();
+    }
+}
@@ -1,13 +1,12 @@
 package com.alphafinity.alphafinity.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Account {
 
     public final Double initialCapital;
     public Double currentCapital;
-    public final List<Transaction> activeTrades;
+    public final PositionBook activeTrades;
 
     public Account(Builder builder) {
         this.initialCapital = builder.initialCapital;
@@ -18,10 +17,10 @@ public class Account {
     public static class Builder {
         private Double initialCapital;
         private Double currentCapital;
-        private List<Transaction> activeTrades;
+        private PositionBook activeTrades;
 
         public Builder() {
-            this.activeTrades = new ArrayList<>();
+            this.activeTrades = new PositionBook();
         }
 
         public Builder(Context context) {
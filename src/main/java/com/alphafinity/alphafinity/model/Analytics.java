@@ -23,6 +23,7 @@ public class Analytics {
     public final Integer totalClosingTrades;
     public final Double alpha;
     public final Double standardDeviation;
+    public final Double exposure;
     public final List<Transaction> transactions;
 
     public Analytics(Builder builder) {
@@ -44,6 +45,7 @@ public class Analytics {
         this.totalClosingTrades = builder.totalClosingTrades;
         this.alpha = builder.alpha;
         this.standardDeviation = builder.standardDeviation;
+        this.exposure = builder.exposure;
         this.transactions = builder.transactions;
     }
 
@@ -67,12 +69,18 @@ public class Analytics {
         private Integer totalClosingTrades;
         private Double alpha;
         private Double standardDeviation;
+        private Double exposure;
         private final List<Transaction> transactions;
 
         public Builder() {
             this.transactions = new ArrayList<>();
         }
 
+        // Appends to the given ledger instead of a new one, so several contexts can share it
+        public Builder(List<Transaction> transactions) {
+            this.transactions = transactions;
+        }
+
         public Builder(Context context) {
             this.startDate = context.analytics.startDate;
             this.endDate = context.analytics.endDate;
@@ -86,6 +94,11 @@ public class Analytics {
             return this;
         }
 
+        public Builder addTransactions (List<Transaction> transactions) {
+            this.transactions.addAll(transactions);
+            return this;
+        }
+
         public Builder startingCapital (Double startingCapital) {
             this.startingCapital = startingCapital;
             return this;
@@ -176,6 +189,11 @@ public class Analytics {
             return this;
         }
 
+        public Builder exposure (Double exposure) {
+            this.exposure = exposure;
+            return this;
+        }
+
         public Analytics build() {
             return new Analytics(this);
         }
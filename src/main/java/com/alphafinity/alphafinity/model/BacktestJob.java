@@ -0,0 +1,115 @@
+package com.alphafinity.alphafinity.model;
+
+import com.alphafinity.alphafinity.model.enumerations.JobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a submitted backtest at the time it was requested, the result itself is fetched separately once completed.
+ */
+public class BacktestJob {
+    public final String id;
+    public final String strategy;
+    public final JobStatus status;
+    public final LocalDateTime submittedAt;
+    public final LocalDateTime startedAt;
+    public final LocalDateTime finishedAt;
+    public final Integer barsProcessed;
+    public final Integer totalBars;
+    public final Double accountValue;
+    public final Double drawdown;
+    public final String error;
+
+    public BacktestJob(Builder builder) {
+        this.id = builder.id;
+        this.strategy = builder.strategy;
+        this.status = builder.status;
+        this.submittedAt = builder.submittedAt;
+        this.startedAt = builder.startedAt;
+        this.finishedAt = builder.finishedAt;
+        this.barsProcessed = builder.barsProcessed;
+        this.totalBars = builder.totalBars;
+        this.accountValue = builder.accountValue;
+        this.drawdown = builder.drawdown;
+        this.error = builder.error;
+    }
+
+    public static class Builder {
+        private String id;
+        private String strategy;
+        private JobStatus status;
+        private LocalDateTime submittedAt;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private Integer barsProcessed;
+        private Integer totalBars;
+        private Double accountValue;
+        private Double drawdown;
+        private String error;
+
+        public Builder() {
+
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder strategy(String strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder status(JobStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder submittedAt(LocalDateTime submittedAt) {
+            this.submittedAt = submittedAt;
+            return this;
+        }
+
+        public Builder startedAt(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public Builder finishedAt(LocalDateTime finishedAt) {
+            this.finishedAt = finishedAt;
+            return this;
+        }
+
+        public Builder barsProcessed(Integer barsProcessed) {
+            this.barsProcessed = barsProcessed;
+            return this;
+        }
+
+        public Builder totalBars(Integer totalBars) {
+            this.totalBars = totalBars;
+            return this;
+        }
+
+        // Account value as of the last processed bar
+        public Builder accountValue(Double accountValue) {
+            this.accountValue = accountValue;
+            return this;
+        }
+
+        // Drawdown of the account value from its peak as of the last processed bar, as a fraction of the peak
+        public Builder drawdown(Double drawdown) {
+            this.drawdown = drawdown;
+            return this;
+        }
+
+        public Builder error(String error) {
+            this.error = error;
+            return this;
+        }
+
+        public BacktestJob build() {
+            return new BacktestJob(this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.alphafinity.alphafinity.model;
+
+public class ConfidenceInterval {
+    public final Double lower;
+    public final Double median;
+    public final Double upper;
+
+    public ConfidenceInterval(Builder builder) {
+        this.lower = builder.lower;
+        this.median = builder.median;
+        this.upper = builder.upper;
+    }
+
+    public static class Builder {
+        private Double lower;
+        private Double median;
+        private Double upper;
+
+        public Builder() {
+
+        }
+
+        public Builder lower(Double lower) {
+            this.lower = lower;
+            return this;
+        }
+
+        public Builder median(Double median) {
+            this.median = median;
+            return this;
+        }
+
+        public Builder upper(Double upper) {
+            this.upper = upper;
+            return this;
+        }
+
+        public ConfidenceInterval build() {
+            return new ConfidenceInterval(this);
+        }
+    }
+}
@@ -11,22 +11,23 @@ public class Context {
     public final Analytics analytics;
     public final Analytics benchmarkAnalytics;
     public final List<State> states;
+    public final MonteCarloResult monteCarlo;
 
     public Context(Builder builder) {
         this.account = builder.account;
         this.analytics = builder.analytics;
         this.benchmarkAnalytics = builder.benchmarkAnalytics;
         this.states = builder.states;
+        this.monteCarlo = builder.monteCarlo;
     }
 
     public List<Transaction> getTransactions(){
-        return account.activeTrades;
+        return account.activeTrades.lots();
     }
 
+    // The position book only holds open transactions
     public List<Transaction> getActiveTransactions(){
-        return account.activeTrades.stream()
-                .filter(transaction -> TransactionOperation.OPEN.equals(transaction.operation))
-                .toList();
+        return account.activeTrades.lots();
     }
 
     public List<Transaction> getClosedTransactions(){
@@ -40,6 +41,7 @@ public class Context {
         private Analytics analytics;
         private Analytics benchmarkAnalytics;
         private List<State> states;
+        private MonteCarloResult monteCarlo;
 
         public Builder(){
             this.account = new Account.Builder()
@@ -56,6 +58,8 @@ public class Context {
             this.analytics = context.analytics;
             this.account = context.account;
             this.states = context.states;
+            this.benchmarkAnalytics = context.benchmarkAnalytics;
+            this.monteCarlo = context.monteCarlo;
         }
 
         public Builder account(Account account){
@@ -73,6 +77,16 @@ public class Context {
             return this;
         }
 
+        public Builder monteCarlo(MonteCarloResult monteCarlo){
+            this.monteCarlo = monteCarlo;
+            return this;
+        }
+
+        public Builder states(List<State> states){
+            this.states = states;
+            return this;
+        }
+
         public Builder addState(State state){
             states.add(state);
             return this;
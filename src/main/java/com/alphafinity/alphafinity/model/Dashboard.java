@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.model;
+
+/**
+ * Everything the dashboard page renders. The chart series are kept as ready to inline JSON so a page view does not
+ * serialize them again.
+ */
+public class Dashboard {
+    public final Context context;
+    public final String statesJson;
+    public final String benchmarkJson;
+
+    public Dashboard(Builder builder) {
+        this.context = builder.context;
+        this.statesJson = builder.statesJson;
+        this.benchmarkJson = builder.benchmarkJson;
+    }
+
+    public static class Builder {
+        private Context context;
+        private String statesJson;
+        private String benchmarkJson;
+
+        public Builder() {
+
+        }
+
+        public Builder context(Context context) {
+            this.context = context;
+            return this;
+        }
+
+        public Builder statesJson(String statesJson) {
+            this.statesJson = statesJson;
+            return this;
+        }
+
+        public Builder benchmarkJson(String benchmarkJson) {
+            this.benchmarkJson = benchmarkJson;
+            return this;
+        }
+
+        public Dashboard build() {
+            return new Dashboard(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.alphafinity.alphafinity.model;
+
+import java.time.LocalDateTime;
+
+public class Dataset {
+    public final String id;
+    public final Integer bars;
+    public final LocalDateTime startDate;
+    public final LocalDateTime endDate;
+
+    public Dataset(Builder builder) {
+        this.id = builder.id;
+        this.bars = builder.bars;
+        this.startDate = builder.startDate;
+        this.endDate = builder.endDate;
+    }
+
+    public static class Builder {
+        private String id;
+        private Integer bars;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+
+        public Builder() {
+
+        }
+
+        // Describes registered time-series data, the id is its content hash
+        public Builder(TimeSeriesData data) {
+            this.id = data.contentHash();
+            this.bars = data.size();
+            this.startDate = data.getDatetime(0);
+            this.endDate = data.getDatetime(data.size() - 1);
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder bars(Integer bars) {
+            this.bars = bars;
+            return this;
+        }
+
+        public Builder startDate(LocalDateTime startDate) {
+            this.startDate = startDate;
+            return this;
+        }
+
+        public Builder endDate(LocalDateTime endDate) {
+            this.endDate = endDate;
+            return this;
+        }
+
+        public Dataset build() {
+            return new Dataset(this);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.alphafinity.alphafinity.model;
+
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+
+public class MonteCarloResult {
+    public final ResamplingMethod method;
+    public final Integer simulations;
+    public final Integer trades;
+    public final Long seed;
+    public final Double confidenceLevel;
+    public final ConfidenceInterval totalReturnAsPercentage;
+    public final ConfidenceInterval maxDrawdown;
+    public final ConfidenceInterval sharpeRatio;
+
+    public MonteCarloResult(Builder builder) {
+        this.method = builder.method;
+        this.simulations = builder.simulations;
+        this.trades = builder.trades;
+        this.seed = builder.seed;
+        this.confidenceLevel = builder.confidenceLevel;
+        this.totalReturnAsPercentage = builder.totalReturnAsPercentage;
+        this.maxDrawdown = builder.maxDrawdown;
+        this.sharpeRatio = builder.sharpeRatio;
+    }
+
+    public static class Builder {
+        private ResamplingMethod method;
+        private Integer simulations;
+        private Integer trades;
+        private Long seed;
+        private Double confidenceLevel;
+        private ConfidenceInterval totalReturnAsPercentage;
+        private ConfidenceInterval maxDrawdown;
+        private ConfidenceInterval sharpeRatio;
+
+        public Builder() {
+
+        }
+
+        public Builder method(ResamplingMethod method) {
+            this.method = method;
+            return this;
+        }
+
+        public Builder simulations(Integer simulations) {
+            this.simulations = simulations;
+            return this;
+        }
+
+        public Builder trades(Integer trades) {
+            this.trades = trades;
+            return this;
+        }
+
+        // Seed of the random generator, running again with the same seed gives the same result
+        public Builder seed(Long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder confidenceLevel(Double confidenceLevel) {
+            this.confidenceLevel = confidenceLevel;
+            return this;
+        }
+
+        public Builder totalReturnAsPercentage(ConfidenceInterval totalReturnAsPercentage) {
+            this.totalReturnAsPercentage = totalReturnAsPercentage;
+            return this;
+        }
+
+        public Builder maxDrawdown(ConfidenceInterval maxDrawdown) {
+            this.maxDrawdown = maxDrawdown;
+            return this;
+        }
+
+        public Builder sharpeRatio(ConfidenceInterval sharpeRatio) {
+            this.sharpeRatio = sharpeRatio;
+            return this;
+        }
+
+        public MonteCarloResult build() {
+            return new MonteCarloResult(this);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MultiAssetResult {
+    public final List<String> symbols;
+    public final Context portfolio;
+    public final Map<String, List<Transaction>> transactionsBySymbol;
+
+    public MultiAssetResult(Builder builder) {
+        this.symbols = builder.symbols;
+        this.portfolio = builder.portfolio;
+        this.transactionsBySymbol = builder.transactionsBySymbol;
+    }
+
+    public static class Builder {
+        private List<String> symbols;
+        private Context portfolio;
+        private final Map<String, List<Transaction>> transactionsBySymbol;
+
+        public Builder() {
+            this.transactionsBySymbol = new LinkedHashMap<>();
+        }
+
+        public Builder symbols(List<String> symbols) {
+            this.symbols = symbols;
+            return this;
+        }
+
+        public Builder portfolio(Context portfolio) {
+            this.portfolio = portfolio;
+            return this;
+        }
+
+        public Builder transactions(String symbol, List<Transaction> transactions) {
+            this.transactionsBySymbol.put(symbol, transactions);
+            return this;
+        }
+
+        public MultiAssetResult build() {
+            return new MultiAssetResult(this);
+        }
+    }
+}
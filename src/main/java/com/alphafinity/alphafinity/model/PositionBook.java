@@ -0,0 +1,211 @@
+package com.alphafinity.alphafinity.model;
+
+import com.alphafinity.alphafinity.model.enumerations.LotMatching;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Open lots of an account, in the order they were opened. Lots are linked in opening order and indexed by identity, so
+ * looking up, removing or replacing a lot is O(1) and lots can be matched oldest (FIFO) or newest (LIFO) first. The total
+ * open quantity is updated on every change, which makes the market value of the whole book O(1) as well.
+ */
+public class PositionBook extends AbstractCollection<Transaction> {
+
+    private final Map<Transaction, Lot> index = new IdentityHashMap<>();
+    private Lot oldest;
+    private Lot newest;
+    private long openQuantity;
+    private int modifications;
+
+    @Override
+    public boolean add(Transaction transaction) {
+        if (!TransactionOperation.OPEN.equals(transaction.operation)) {
+            throw new IllegalArgumentException("Only open transactions can be added to the position book");
+        }
+        if (index.containsKey(transaction)) {
+            return false;
+        }
+
+        Lot lot = new Lot(transaction);
+        if (newest == null) {
+            oldest = lot;
+        } else {
+            newest.newer = lot;
+            lot.older = newest;
+        }
+        newest = lot;
+
+        index.put(transaction, lot);
+        openQuantity += transaction.quantity;
+        modifications++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object transaction) {
+        Lot lot = index.remove(transaction);
+        if (lot == null) {
+            return false;
+        }
+
+        unlink(lot);
+        openQuantity -= lot.transaction.quantity;
+        modifications++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object transaction) {
+        return index.containsKey(transaction);
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return oldest == null;
+    }
+
+    /**
+     * Replaces an open lot while keeping its place in the book, for example with what remains after a partial close.
+     */
+    public void replace(Transaction transaction, Transaction replacement) {
+        Lot lot = index.remove(transaction);
+        if (lot == null) {
+            throw new IllegalArgumentException("Transaction is not an open lot in the position book");
+        }
+        if (!TransactionOperation.OPEN.equals(replacement.operation)) {
+            throw new IllegalArgumentException("Only open transactions can be added to the position book");
+        }
+
+        openQuantity += replacement.quantity - lot.transaction.quantity;
+        lot.transaction = replacement;
+        index.put(replacement, lot);
+        modifications++;
+    }
+
+    /**
+     * Lots to close to cover the given quantity, in matching order. The last lot returned may be larger than what is left
+     * to cover, it is up to the caller to close it partially.
+     */
+    public List<Transaction> match(long quantity, LotMatching matching) {
+        List<Transaction> matched = new ArrayList<>();
+        long remaining = quantity;
+
+        for (Lot lot = first(matching); lot != null && remaining > 0; lot = next(lot, matching)) {
+            matched.add(lot.transaction);
+            remaining -= lot.transaction.quantity;
+        }
+        return matched;
+    }
+
+    /**
+     * Lots whose open profit at the given price is at least the threshold, as a percentage of their entry value. Returns
+     * an empty list without allocating when there are none.
+     */
+    public List<Transaction> lotsAtProfit(double price, double thresholdPercentage) {
+        List<Transaction> lots = List.of();
+        for (Lot lot = oldest; lot != null; lot = lot.newer) {
+            if (lot.transaction.openProfitPercentage(price) >= thresholdPercentage) {
+                if (lots.isEmpty()) {
+                    lots = new ArrayList<>();
+                }
+                lots.add(lot.transaction);
+            }
+        }
+        return lots;
+    }
+
+    public long getOpenQuantity() {
+        return openQuantity;
+    }
+
+    public double marketValue(double price) {
+        return openQuantity * price;
+    }
+
+    // Snapshot in opening order, safe to iterate while lots are being closed
+    public List<Transaction> lots() {
+        return List.copyOf(this);
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<>() {
+            private Lot next = oldest;
+            private Lot lastReturned;
+            private int expectedModifications = modifications;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Transaction next() {
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = next.newer;
+                return lastReturned.transaction;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                PositionBook.this.remove(lastReturned.transaction);
+                lastReturned = null;
+                expectedModifications = modifications;
+            }
+        };
+    }
+
+    private Lot first(LotMatching matching) {
+        return matching == LotMatching.FIFO ? oldest : newest;
+    }
+
+    private static Lot next(Lot lot, LotMatching matching) {
+        return matching == LotMatching.FIFO ? lot.newer : lot.older;
+    }
+
+    private void unlink(Lot lot) {
+        if (lot.older == null) {
+            oldest = lot.newer;
+        } else {
+            lot.older.newer = lot.newer;
+        }
+
+        if (lot.newer == null) {
+            newest = lot.older;
+        } else {
+            lot.newer.older = lot.older;
+        }
+    }
+
+    private static class Lot {
+        private Transaction transaction;
+        private Lot older;
+        private Lot newer;
+
+        private Lot(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.alphafinity.alphafinity.model;
+
+import java.util.Map;
+
+public class StrategyComparison {
+    public final String strategy;
+    public final Map<String, Double> parameters;
+    public final Analytics analytics;
+
+    public StrategyComparison(Builder builder) {
+        this.strategy = builder.strategy;
+        this.parameters = builder.parameters;
+        this.analytics = builder.analytics;
+    }
+
+    public static class Builder {
+        private String strategy;
+        private Map<String, Double> parameters;
+        private Analytics analytics;
+
+        public Builder() {
+
+        }
+
+        public Builder strategy(String strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder parameters(Map<String, Double> parameters) {
+            this.parameters = parameters;
+            return this;
+        }
+
+        public Builder analytics(Analytics analytics) {
+            this.analytics = analytics;
+            return this;
+        }
+
+        public StrategyComparison build() {
+            return new StrategyComparison(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.alphafinity.alphafinity.model;
+
+import java.util.Map;
+
+public class SweepResult {
+    public final Integer rank;
+    public final Map<String, Double> parameters;
+    public final Double endingCapital;
+    public final Double totalReturn;
+    public final Double totalReturnAsPercentage;
+    public final Double sharpeRatio;
+    public final Double maxDrawdown;
+    public final Double winRate;
+    public final Integer totalClosingTrades;
+    public final boolean stoppedEarly;
+
+    public SweepResult(Builder builder) {
+        this.rank = builder.rank;
+        this.parameters = builder.parameters;
+        this.endingCapital = builder.endingCapital;
+        this.totalReturn = builder.totalReturn;
+        this.totalReturnAsPercentage = builder.totalReturnAsPercentage;
+        this.sharpeRatio = builder.sharpeRatio;
+        this.maxDrawdown = builder.maxDrawdown;
+        this.winRate = builder.winRate;
+        this.totalClosingTrades = builder.totalClosingTrades;
+        this.stoppedEarly = builder.stoppedEarly;
+    }
+
+    public static class Builder {
+        private Integer rank;
+        private Map<String, Double> parameters;
+        private Double endingCapital;
+        private Double totalReturn;
+        private Double totalReturnAsPercentage;
+        private Double sharpeRatio;
+        private Double maxDrawdown;
+        private Double winRate;
+        private Integer totalClosingTrades;
+        private boolean stoppedEarly;
+
+        public Builder() {
+
+        }
+
+        public Builder(SweepResult result) {
+            this.rank = result.rank;
+            this.parameters = result.parameters;
+            this.endingCapital = result.endingCapital;
+            this.totalReturn = result.totalReturn;
+            this.totalReturnAsPercentage = result.totalReturnAsPercentage;
+            this.sharpeRatio = result.sharpeRatio;
+            this.maxDrawdown = result.maxDrawdown;
+            this.winRate = result.winRate;
+            this.totalClosingTrades = result.totalClosingTrades;
+            this.stoppedEarly = result.stoppedEarly;
+        }
+
+        public Builder rank(Integer rank) {
+            this.rank = rank;
+            return this;
+        }
+
+        public Builder parameters(Map<String, Double> parameters) {
+            this.parameters = parameters;
+            return this;
+        }
+
+        // Copies the summary metrics of a completed run
+        public Builder analytics(Analytics analytics) {
+            this.endingCapital = analytics.endingCapital;
+            this.totalReturn = analytics.totalReturn;
+            this.totalReturnAsPercentage = analytics.totalReturnAsPercentage;
+            this.sharpeRatio = analytics.sharpeRatio;
+            this.maxDrawdown = analytics.maxDrawdown;
+            this.winRate = analytics.winRate;
+            this.totalClosingTrades = analytics.totalClosingTrades;
+            return this;
+        }
+
+        // Set when the run was abandoned before the end of the data, the metrics only cover the bars up to that point
+        public Builder stoppedEarly(boolean stoppedEarly) {
+            this.stoppedEarly = stoppedEarly;
+            return this;
+        }
+
+        public SweepResult build() {
+            return new SweepResult(this);
+        }
+    }
+}
@@ -1,30 +1,285 @@
 package com.alphafinity.alphafinity.model;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CLOSE;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.EMA_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.HIGH;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.LOW;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.OPEN;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.PRICE_COLUMNS;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.VOLUME;
+
+/**
+ * Column oriented time-series. Every bar is stored across primitive arrays (epoch seconds in UTC for the timestamp and
+ * one array per price field), indicators are stored as additional named columns. Missing values are stored as NaN.
+ * <br>
+ * {@link #entries} is a read-only row view over the columns for code that works with {@link TimeSeriesEntry}, rows are
+ * materialized on access and never retained.
+ */
 public class TimeSeriesData {
     private static final String NO_ENTRIES = "No entries in time series data";
+
+    public final long[] timestamps;
+    public final double[] open;
+    public final double[] high;
+    public final double[] low;
+    public final double[] close;
+    public final double[] volume;
     public final List<TimeSeriesEntry> entries;
 
+    private final Map<String, double[]> indicators;
+    private volatile String contentHash;
+
     public TimeSeriesData(List<TimeSeriesEntry> entries) {
-        this.entries = entries.stream()
+        List<TimeSeriesEntry> sortedEntries = entries.stream()
                 .sorted(Comparator.comparing(entry -> entry.datetime))
-                .toList();;
+                .toList();
+
+        int size = sortedEntries.size();
+        this.timestamps = new long[size];
+        this.open = new double[size];
+        this.high = new double[size];
+        this.low = new double[size];
+        this.close = new double[size];
+        this.volume = new double[size];
+        this.indicators = new HashMap<>();
+
+        double[] rsi = new double[size];
+        double[] ema = new double[size];
+        boolean hasRsi = false;
+        boolean hasEma = false;
+
+        for (int i = 0; i < size; i++) {
+            TimeSeriesEntry entry = sortedEntries.get(i);
+            timestamps[i] = toEpochSecond(entry.datetime);
+            open[i] = toPrimitive(entry.open);
+            high[i] = toPrimitive(entry.high);
+            low[i] = toPrimitive(entry.low);
+            close[i] = toPrimitive(entry.close);
+            volume[i] = toPrimitive(entry.volume);
+            rsi[i] = toPrimitive(entry.rsi);
+            ema[i] = toPrimitive(entry.ema);
+            hasRsi |= entry.rsi != null;
+            hasEma |= entry.ema != null;
+        }
+
+        if (hasRsi) {
+            indicators.put(RSI_NAME, rsi);
+        }
+        if (hasEma) {
+            indicators.put(EMA_NAME, ema);
+        }
+
+        this.entries = new RowView();
+    }
+
+    /**
+     * Creates time-series data directly from columns. The columns must be of equal length and already sorted by timestamp,
+     * they are not copied.
+     */
+    public TimeSeriesData(long[] timestamps, double[] open, double[] high, double[] low, double[] close, double[] volume) {
+        this(timestamps, open, high, low, close, volume, Map.of(), null);
+    }
+
+    private TimeSeriesData(long[] timestamps, double[] open, double[] high, double[] low, double[] close, double[] volume,
+                           Map<String, double[]> indicators, String contentHash) {
+        int size = timestamps.length;
+        if (open.length != size || high.length != size || low.length != size || close.length != size || volume.length != size) {
+            throw new IllegalArgumentException("All time series columns must have the same length");
+        }
+
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.indicators = new HashMap<>(indicators);
+        this.contentHash = contentHash;
+        this.entries = new RowView();
+    }
+
+    /**
+     * Returns a copy of this time-series with the given indicator column added. Price columns are shared, not copied.
+     */
+    public TimeSeriesData withIndicator(String name, double[] values) {
+        if (values.length != size()) {
+            throw new IllegalArgumentException("Indicator column " + name + " must have the same length as the time series");
+        }
+
+        Map<String, double[]> updatedIndicators = new HashMap<>(indicators);
+        updatedIndicators.put(name, values);
+        return new TimeSeriesData(timestamps, open, high, low, close, volume, updatedIndicators, contentHash);
+    }
+
+    /**
+     * Returns a copy of the bars from {@code from} (inclusive) to {@code to} (exclusive), with the timestamps and the given
+     * columns: price columns or indicator columns. Price columns that are not given are left at 0.00 and other indicator
+     * columns are left out, so a calculation over a part of the series only copies what it reads.
+     */
+    public TimeSeriesData slice(int from, int to, Collection<String> columns) {
+        double[] empty = new double[to - from];
+        Map<String, double[]> slicedIndicators = new HashMap<>();
+        for (String name : columns) {
+            if (!PRICE_COLUMNS.contains(name)) {
+                slicedIndicators.put(name, Arrays.copyOfRange(getIndicator(name), from, to));
+            }
+        }
+
+        return new TimeSeriesData(Arrays.copyOfRange(timestamps, from, to),
+                columns.contains(OPEN) ? Arrays.copyOfRange(open, from, to) : empty,
+                columns.contains(HIGH) ? Arrays.copyOfRange(high, from, to) : empty,
+                columns.contains(LOW) ? Arrays.copyOfRange(low, from, to) : empty,
+                columns.contains(CLOSE) ? Arrays.copyOfRange(close, from, to) : empty,
+                columns.contains(VOLUME) ? Arrays.copyOfRange(volume, from, to) : empty,
+                slicedIndicators, null);
+    }
+
+    /**
+     * SHA-256 of the timestamp and price columns (indicator columns are not included), as hex. Two time-series with the
+     * same bars have the same hash however they were loaded. Calculated on first use and shared with the copies made by
+     * {@link #withIndicator}, so the columns must not be modified once it has been called.
+     */
+    public String contentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            hash = calculateContentHash();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    public double[] getIndicator(String name) {
+        double[] values = indicators.get(name);
+        if (values == null) {
+            throw new IllegalArgumentException("No indicator column named " + name);
+        }
+        return values;
+    }
+
+    public boolean hasIndicator(String name) {
+        return indicators.containsKey(name);
+    }
+
+    public Map<String, double[]> getIndicators() {
+        return Collections.unmodifiableMap(indicators);
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return timestamps.length == 0;
+    }
+
+    public LocalDateTime getDatetime(int index) {
+        return LocalDateTime.ofEpochSecond(timestamps[index], 0, ZoneOffset.UTC);
+    }
+
+    public TimeSeriesEntry getEntry(int index) {
+        return new TimeSeriesEntry(
+                getDatetime(index),
+                toNullable(open[index]),
+                toNullable(close[index]),
+                toNullable(high[index]),
+                toNullable(low[index]),
+                toNullable(volume[index]),
+                indicatorValue(RSI_NAME, index),
+                indicatorValue(EMA_NAME, index));
     }
 
     public TimeSeriesEntry getFirstEntry() {
-        if (entries.isEmpty()) {
+        if (isEmpty()) {
             throw new IllegalStateException(NO_ENTRIES);
         }
-        return entries.get(0);
+        return getEntry(0);
     }
 
     public TimeSeriesEntry getLastEntry(){
-        if (entries.isEmpty()) {
+        if (isEmpty()) {
             throw new IllegalStateException(NO_ENTRIES);
         }
 
-        return entries.get(entries.size()-1);
+        return getEntry(size() - 1);
+    }
+
+    public static long toEpochSecond(LocalDateTime datetime) {
+        return datetime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private String calculateContentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        // Columns are digested in blocks through a reusable buffer rather than copied out whole
+        ByteBuffer buffer = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(size());
+        for (long timestamp : timestamps) {
+            if (!buffer.hasRemaining()) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+            buffer.putLong(timestamp);
+        }
+        for (double[] column : List.of(open, high, low, close, volume)) {
+            for (double value : column) {
+                if (!buffer.hasRemaining()) {
+                    digest.update(buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putDouble(value);
+            }
+        }
+        digest.update(buffer.flip());
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Double indicatorValue(String name, int index) {
+        double[] values = indicators.get(name);
+        return values == null ? null : toNullable(values[index]);
+    }
+
+    private static double toPrimitive(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double toNullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private class RowView extends AbstractList<TimeSeriesEntry> implements RandomAccess {
+
+        @Override
+        public TimeSeriesEntry get(int index) {
+            return getEntry(index);
+        }
+
+        @Override
+        public int size() {
+            return timestamps.length;
+        }
     }
 }
@@ -36,6 +36,17 @@ public class Transaction {
         this.quantityEnum = builder.quantityEnum;
     }
 
+    /**
+     * Profit of this (open) transaction at the given price, as a percentage of its entry value.
+     */
+    public double openProfitPercentage(double currentPrice) {
+        double entryPrice = price;
+        double quantity = this.quantity;
+        double currentProfit = (currentPrice - entryPrice) * quantity;
+        double entryValue = entryPrice * quantity;
+        return (currentProfit / entryValue) * 100.0;
+    }
+
     public static class Builder {
         public LocalDateTime time;
         private Double price;
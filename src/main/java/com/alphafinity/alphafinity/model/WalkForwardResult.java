@@ -0,0 +1,54 @@
+package com.alphafinity.alphafinity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WalkForwardResult {
+    public final Double startingCapital;
+    public final Double endingCapital;
+    public final List<WalkForwardWindow> windows;
+    public final List<State> equityCurve;
+
+    public WalkForwardResult(Builder builder) {
+        this.startingCapital = builder.startingCapital;
+        this.endingCapital = builder.endingCapital;
+        this.windows = builder.windows;
+        this.equityCurve = builder.equityCurve;
+    }
+
+    public static class Builder {
+        private Double startingCapital;
+        private Double endingCapital;
+        private final List<WalkForwardWindow> windows;
+        private final List<State> equityCurve;
+
+        public Builder() {
+            this.windows = new ArrayList<>();
+            this.equityCurve = new ArrayList<>();
+        }
+
+        public Builder startingCapital(Double startingCapital) {
+            this.startingCapital = startingCapital;
+            return this;
+        }
+
+        public Builder endingCapital(Double endingCapital) {
+            this.endingCapital = endingCapital;
+            return this;
+        }
+
+        public Builder addWindow(WalkForwardWindow window) {
+            this.windows.add(window);
+            return this;
+        }
+
+        public Builder addState(State state) {
+            this.equityCurve.add(state);
+            return this;
+        }
+
+        public WalkForwardResult build() {
+            return new WalkForwardResult(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.alphafinity.alphafinity.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class WalkForwardWindow {
+    public final LocalDateTime inSampleStart;
+    public final LocalDateTime inSampleEnd;
+    public final LocalDateTime outOfSampleStart;
+    public final LocalDateTime outOfSampleEnd;
+    public final Map<String, Double> parameters;
+    public final SweepResult inSampleResult;
+    public final Analytics outOfSampleAnalytics;
+
+    public WalkForwardWindow(Builder builder) {
+        this.inSampleStart = builder.inSampleStart;
+        this.inSampleEnd = builder.inSampleEnd;
+        this.outOfSampleStart = builder.outOfSampleStart;
+        this.outOfSampleEnd = builder.outOfSampleEnd;
+        this.parameters = builder.parameters;
+        this.inSampleResult = builder.inSampleResult;
+        this.outOfSampleAnalytics = builder.outOfSampleAnalytics;
+    }
+
+    public static class Builder {
+        private LocalDateTime inSampleStart;
+        private LocalDateTime inSampleEnd;
+        private LocalDateTime outOfSampleStart;
+        private LocalDateTime outOfSampleEnd;
+        private Map<String, Double> parameters;
+        private SweepResult inSampleResult;
+        private Analytics outOfSampleAnalytics;
+
+        public Builder() {
+
+        }
+
+        public Builder inSampleStart(LocalDateTime inSampleStart) {
+            this.inSampleStart = inSampleStart;
+            return this;
+        }
+
+        public Builder inSampleEnd(LocalDateTime inSampleEnd) {
+            this.inSampleEnd = inSampleEnd;
+            return this;
+        }
+
+        public Builder outOfSampleStart(LocalDateTime outOfSampleStart) {
+            this.outOfSampleStart = outOfSampleStart;
+            return this;
+        }
+
+        public Builder outOfSampleEnd(LocalDateTime outOfSampleEnd) {
+            this.outOfSampleEnd = outOfSampleEnd;
+            return this;
+        }
+
+        public Builder parameters(Map<String, Double> parameters) {
+            this.parameters = parameters;
+            return this;
+        }
+
+        // Best in-sample result, the one whose parameters were used out-of-sample
+        public Builder inSampleResult(SweepResult inSampleResult) {
+            this.inSampleResult = inSampleResult;
+            return this;
+        }
+
+        public Builder outOfSampleAnalytics(Analytics outOfSampleAnalytics) {
+            this.outOfSampleAnalytics = outOfSampleAnalytics;
+            return this;
+        }
+
+        public WalkForwardWindow build() {
+            return new WalkForwardWindow(this);
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.alphafinity.alphafinity.model.deserializer;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 
 public class LocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
 
@@ -20,44 +24,120 @@ public class LocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
             DateTimeFormatter.ofPattern("dd/MM/yyyy")
     );
 
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+    private static final int DATE_LENGTH = 10; // dd/MM/yyyy
+    private static final int DATE_TIME_LENGTH = 19; // dd/MM/yyyy HH:mm:ss
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_0000_TO_1970 = 719_528;
+
     @Override
     public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        String date = p.getText();
-
-        // Try to parse with LocalDateTime formatters
-        Optional<LocalDateTime> parsedDateTime = FORMATTERS.stream()
-                .filter(formatter -> formatter.toString().contains("HH:mm:ss"))
-                .map(formatter -> {
-                    try {
-                        return LocalDateTime.parse(date, formatter);
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .findFirst();
-
-        if (parsedDateTime.isPresent()) {
-            return parsedDateTime.get();
-        }
-
-        // Try to parse with LocalDate formatters and convert to LocalDateTime
-        Optional<LocalDate> parsedDate = FORMATTERS.stream()
-                .filter(formatter -> !formatter.toString().contains("HH:mm:ss"))
-                .map(formatter -> {
-                    try {
-                        return LocalDate.parse(date, formatter);
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .findFirst();
-
-        if (parsedDate.isPresent()) {
-            return parsedDate.get().atStartOfDay();
+        long epochSecond = parseKnownShape(p);
+
+        if (epochSecond != NOT_PARSED) {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+
+        return parseWithFormatters(p.getText());
+    }
+
+    /**
+     * Deserializes the current token straight to epoch seconds (UTC), only allocating when the value is not in one of the
+     * known shapes and has to go through the formatters.
+     */
+    public long deserializeEpochSecond(JsonParser p) throws IOException {
+        long epochSecond = parseKnownShape(p);
+
+        if (epochSecond != NOT_PARSED) {
+            return epochSecond;
+        }
+
+        return parseWithFormatters(p.getText()).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses "dd/MM/yyyy HH:mm:ss" and "dd/MM/yyyy" by hand, reading directly from the parser's character buffer.
+     *
+     * @return epoch seconds, or {@link #NOT_PARSED} if the value is in any other shape or is not a valid date
+     */
+    private long parseKnownShape(JsonParser p) throws IOException {
+        if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return NOT_PARSED;
+        }
+
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+
+        if (length != DATE_LENGTH && length != DATE_TIME_LENGTH) {
+            return NOT_PARSED;
+        }
+
+        if (chars[offset + 2] != '/' || chars[offset + 5] != '/') {
+            return NOT_PARSED;
+        }
+
+        int day = twoDigits(chars, offset);
+        int month = twoDigits(chars, offset + 3);
+        int year = fourDigits(chars, offset + 6);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+
+        if (length == DATE_TIME_LENGTH) {
+            if (chars[offset + 10] != ' ' || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+                return NOT_PARSED;
+            }
+            hour = twoDigits(chars, offset + 11);
+            minute = twoDigits(chars, offset + 14);
+            second = twoDigits(chars, offset + 17);
+        }
+
+        if (day < 1 || month < 1 || month > 12 || year < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59 || day > Month.of(month).length(Year.isLeap(year))) {
+            return NOT_PARSED;
+        }
+
+        return toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    private LocalDateTime parseWithFormatters(String date) throws IOException {
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            try {
+                TemporalAccessor parsed = formatter.parseBest(date, LocalDateTime::from, LocalDate::from);
+                return parsed instanceof LocalDate parsedDate ? parsedDate.atStartOfDay() : (LocalDateTime) parsed;
+            } catch (DateTimeParseException e) {
+                // Try the next formatter
+            }
         }
 
         throw new IOException("Unable to parse date: " + date);
     }
+
+    // Returns a negative value if either character is not a digit
+    private static int twoDigits(char[] chars, int offset) {
+        int tens = chars[offset] - '0';
+        int units = chars[offset + 1] - '0';
+        return (tens < 0 || tens > 9 || units < 0 || units > 9) ? -1 : tens * 10 + units;
+    }
+
+    private static int fourDigits(char[] chars, int offset) {
+        int high = twoDigits(chars, offset);
+        int low = twoDigits(chars, offset + 2);
+        return (high < 0 || low < 0) ? -1 : high * 100 + low;
+    }
+
+    // Same calculation as LocalDate.toEpochDay for non-negative years, without creating the LocalDate
+    private static long toEpochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!Year.isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
 }
@@ -0,0 +1,165 @@
+package com.alphafinity.alphafinity.model.deserializer;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Deserializes a JSON array of bars straight into the columns of {@link TimeSeriesData} using the token stream, without
+ * creating an intermediate {@link com.alphafinity.alphafinity.model.TimeSeriesEntry} per bar. Input that is already in
+ * chronological order (or in strictly reverse order, as most exports are) is not sorted again.
+ */
+public class TimeSeriesDataDeserializer extends JsonDeserializer<TimeSeriesData> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LocalDateTimeDeserializer dateDeserializer = new LocalDateTimeDeserializer();
+
+    @Override
+    public TimeSeriesData deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw JsonMappingException.from(p, "Expected an array of time series entries");
+        }
+
+        Columns columns = new Columns();
+
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                throw JsonMappingException.from(p, "Expected a time series entry object");
+            }
+            readEntry(p, columns);
+        }
+
+        return columns.toTimeSeriesData();
+    }
+
+    private void readEntry(JsonParser p, Columns columns) throws IOException {
+        long timestamp = 0;
+        boolean hasDate = false;
+        double open = Double.NaN;
+        double close = Double.NaN;
+        double high = Double.NaN;
+        double low = Double.NaN;
+        double volume = Double.NaN;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+
+            switch (field) {
+                case "date" -> {
+                    hasDate = p.currentToken() != JsonToken.VALUE_NULL;
+                    timestamp = hasDate ? dateDeserializer.deserializeEpochSecond(p) : 0;
+                }
+                case "open" -> open = readDouble(p);
+                case "close" -> close = readDouble(p);
+                case "high" -> high = readDouble(p);
+                case "low" -> low = readDouble(p);
+                case "volume" -> volume = readDouble(p);
+                default -> p.skipChildren();
+            }
+        }
+
+        if (!hasDate) {
+            throw JsonMappingException.from(p, "Time series entry is missing a date");
+        }
+
+        columns.add(timestamp, open, high, low, close, volume);
+    }
+
+    private double readDouble(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDoubleValue();
+            case VALUE_STRING -> Double.parseDouble(p.getText().trim());
+            case VALUE_NULL -> Double.NaN;
+            default -> throw JsonMappingException.from(p, "Expected a number but found " + p.currentToken());
+        };
+    }
+
+    /**
+     * Growable primitive buffers for the bars being read, keeping track of the ordering on the way in.
+     */
+    private static class Columns {
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private double[] open = new double[INITIAL_CAPACITY];
+        private double[] high = new double[INITIAL_CAPACITY];
+        private double[] low = new double[INITIAL_CAPACITY];
+        private double[] close = new double[INITIAL_CAPACITY];
+        private double[] volume = new double[INITIAL_CAPACITY];
+        private int size;
+        private boolean ascending = true;
+        private boolean strictlyDescending = true;
+
+        private void add(long timestamp, double open, double high, double low, double close, double volume) {
+            if (size == timestamps.length) {
+                grow();
+            }
+
+            if (size > 0) {
+                long previous = timestamps[size - 1];
+                ascending &= timestamp >= previous;
+                strictlyDescending &= timestamp < previous;
+            }
+
+            this.timestamps[size] = timestamp;
+            this.open[size] = open;
+            this.high[size] = high;
+            this.low[size] = low;
+            this.close[size] = close;
+            this.volume[size] = volume;
+            size++;
+        }
+
+        private void grow() {
+            int capacity = timestamps.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+
+        private TimeSeriesData toTimeSeriesData() {
+            if (ascending) {
+                return new TimeSeriesData(Arrays.copyOf(timestamps, size), Arrays.copyOf(open, size), Arrays.copyOf(high, size),
+                        Arrays.copyOf(low, size), Arrays.copyOf(close, size), Arrays.copyOf(volume, size));
+            }
+
+            // Reversing is only equivalent to a stable sort when there are no equal timestamps, anything else is sorted
+            int[] order = strictlyDescending
+                    ? IntStream.range(0, size).map(i -> size - 1 - i).toArray()
+                    : IntStream.range(0, size).boxed()
+                            .sorted(Comparator.comparingLong(i -> timestamps[i]))
+                            .mapToInt(Integer::intValue)
+                            .toArray();
+
+            return new TimeSeriesData(permute(timestamps, order), permute(open, order), permute(high, order),
+                    permute(low, order), permute(close, order), permute(volume, order));
+        }
+
+        private static long[] permute(long[] values, int[] order) {
+            long[] permuted = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                permuted[i] = values[order[i]];
+            }
+            return permuted;
+        }
+
+        private static double[] permute(double[] values, int[] order) {
+            double[] permuted = new double[order.length];
+            for (int i = 0; i < order.length; i++) {
+                permuted[i] = values[order[i]];
+            }
+            return permuted;
+        }
+    }
+}
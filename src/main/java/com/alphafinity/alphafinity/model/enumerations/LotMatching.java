@@ -0,0 +1,6 @@
+package com.alphafinity.alphafinity.model.enumerations;
+
+public enum LotMatching {
+    FIFO, // Closes the oldest lots first
+    LIFO  // Closes the newest lots first
+}
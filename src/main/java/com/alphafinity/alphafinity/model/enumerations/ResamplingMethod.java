@@ -0,0 +1,6 @@
+package com.alphafinity.alphafinity.model.enumerations;
+
+public enum ResamplingMethod {
+    BOOTSTRAP, // Draws trades with replacement
+    SHUFFLE    // Reorders the same trades
+}
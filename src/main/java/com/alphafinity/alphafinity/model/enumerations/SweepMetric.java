@@ -0,0 +1,8 @@
+package com.alphafinity.alphafinity.model.enumerations;
+
+public enum SweepMetric {
+    TOTAL_RETURN,
+    SHARPE_RATIO,
+    WIN_RATE,
+    MAX_DRAWDOWN
+}
@@ -0,0 +1,171 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+
+import java.util.Arrays;
+
+/**
+ * Computes the trade statistics of a run in a single pass over the transaction ledger, instead of filtering the ledger
+ * again for every statistic and rebuilding the equity curve from scratch for every point of it.
+ * <br>
+ * Sums use the same compensated summation as {@link java.util.stream.DoubleStream#sum()} and
+ * {@link java.util.stream.DoubleStream#average()}, so every statistic is identical to computing it with streams.
+ */
+public class AnalyticsAccumulator {
+
+    private int totalTrades;
+    private int openingTrades;
+    private int closingTrades;
+    private int winningTrades;
+    private int losingTrades;
+    private final CompensatedSum profit = new CompensatedSum();
+    private final CompensatedSum winningProfit = new CompensatedSum();
+    private final CompensatedSum losingProfit = new CompensatedSum();
+
+    // Equity curve: cumulative profit of the closed trades
+    private final CompensatedSum equity = new CompensatedSum();
+    private double peakEquity;
+    private double maxDrawdown = Double.NEGATIVE_INFINITY;
+
+    // Return of every closed trade relative to the realised capital before it, kept for the standard deviation
+    private double capital;
+    private final CompensatedSum returnSum = new CompensatedSum();
+    private double[] returns = new double[16];
+    private int returnCount;
+
+    public AnalyticsAccumulator(double initialCapital) {
+        this.capital = initialCapital;
+    }
+
+    public static AnalyticsAccumulator of(double initialCapital, Iterable<Transaction> transactions) {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(initialCapital);
+        for (Transaction transaction : transactions) {
+            accumulator.accept(transaction);
+        }
+        return accumulator;
+    }
+
+    public void accept(Transaction transaction) {
+        totalTrades++;
+
+        if (TransactionOperation.OPEN.equals(transaction.operation)) {
+            openingTrades++;
+        } else if (TransactionOperation.CLOSE.equals(transaction.operation)) {
+            acceptClose(transaction.profit);
+        }
+    }
+
+    private void acceptClose(double tradeProfit) {
+        closingTrades++;
+        profit.add(tradeProfit);
+
+        if (tradeProfit > 0) {
+            winningTrades++;
+            winningProfit.add(tradeProfit);
+        } else if (tradeProfit < 0) {
+            losingTrades++;
+            losingProfit.add(tradeProfit);
+        }
+
+        equity.add(tradeProfit);
+        double currentEquity = equity.value();
+
+        // Same comparison as Stream.max(Double::compare), which keeps the earlier value on ties
+        peakEquity = closingTrades == 1 || Double.compare(peakEquity, currentEquity) < 0 ? currentEquity : peakEquity;
+        maxDrawdown = Math.max(maxDrawdown, (peakEquity - currentEquity) / peakEquity);
+
+        addReturn(tradeProfit / capital);
+        capital += tradeProfit;
+    }
+
+    private void addReturn(double value) {
+        if (returnCount == returns.length) {
+            returns = Arrays.copyOf(returns, returnCount * 2);
+        }
+        returns[returnCount++] = value;
+        returnSum.add(value);
+    }
+
+    public int getTotalTrades() {
+        return totalTrades;
+    }
+
+    public int getTotalOpeningTrades() {
+        return openingTrades;
+    }
+
+    public int getTotalClosingTrades() {
+        return closingTrades;
+    }
+
+    // Win rate as a percentage
+    public double getWinRate() {
+        return closingTrades == 0 ? 0.0 : ((double) winningTrades / closingTrades) * 100;
+    }
+
+    // Average profit made / lost per trade
+    public double getAverageReturn() {
+        return closingTrades == 0 ? 0.0 : profit.value() / closingTrades;
+    }
+
+    // Average profit made per winning trade
+    public double getAverageProfit() {
+        return winningTrades == 0 ? 0.0 : winningProfit.value() / winningTrades;
+    }
+
+    // Average loss made per losing trade
+    public double getAverageLoss() {
+        return losingTrades == 0 ? 0.0 : losingProfit.value() / losingTrades;
+    }
+
+    public double getMaxDrawdown() {
+        return closingTrades == 0 ? 0.0 : maxDrawdown;
+    }
+
+    /**
+     * Per-trade Sharpe ratio: mean over standard deviation of the trade returns relative to the realised capital before
+     * each trade, the same ratio {@link MonteCarloService} resamples. Trades without any variation (e.g. a single trade)
+     * have no meaningful ratio and give 0.
+     */
+    public double getSharpeRatio() {
+        if (returnCount == 0) {
+            return 0.0;
+        }
+        double averageReturn = returnSum.value() / returnCount;
+
+        CompensatedSum squaredDeviations = new CompensatedSum();
+        for (int i = 0; i < returnCount; i++) {
+            squaredDeviations.add(Math.pow(returns[i] - averageReturn, 2));
+        }
+        double standardDeviation = Math.sqrt(squaredDeviations.value() / returnCount);
+
+        return standardDeviation > 0 ? averageReturn / standardDeviation : 0.0;
+    }
+
+    /**
+     * Kahan summation exactly as done by the JDK for DoubleStream.sum(), including the fallback to the simple sum when
+     * the compensated sum overflows to NaN.
+     */
+    static class CompensatedSum {
+        private double sum;
+        private double compensation;
+        private double simpleSum;
+
+        void add(double value) {
+            double tmp = value - compensation;
+            double velvel = sum + tmp;
+            compensation = (velvel - sum) - tmp;
+            sum = velvel;
+            simpleSum += value;
+        }
+
+        double value() {
+            double tmp = sum - compensation;
+            if (Double.isNaN(tmp) && Double.isInfinite(simpleSum)) {
+                return simpleSum;
+            }
+            return tmp;
+        }
+    }
+}
@@ -2,22 +2,20 @@ package com.alphafinity.alphafinity.service;
 
 import com.alphafinity.alphafinity.model.Context;
 import com.alphafinity.alphafinity.model.TimeSeriesData;
-import com.alphafinity.alphafinity.model.TimeSeriesEntry;
 import com.alphafinity.alphafinity.model.Transaction;
 import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 public class AnalyticsService {
 
     private static final Double BENCHMARK_RETURN = 0.08; // Assuming the benchmark returns 8% per year
-    private static final Double RISK_FREE_RATE = 0.01; // Assuming a risk-free rate of 1%
 
     public double calculateTotalReturn(Context context) {
         return (context.account.currentCapital - context.account.initialCapital);
@@ -31,25 +29,8 @@ public class AnalyticsService {
         return (context.account.currentCapital - context.account.initialCapital) / context.account.initialCapital * 100;
     }
 
-    // TODO THE VALUE RETURNED IS INCORRECT
     public double calculateSharpeRatio(Context context) {
-        List<Double> equityCurve = getEquityCurve(context);
-
-        // Calculate daily returns
-        List<Double> returns = IntStream.range(1, equityCurve.size())
-                .mapToObj(i -> (equityCurve.get(i) / equityCurve.get(i - 1)) - 1)
-                .collect(Collectors.toList());
-
-        double averageReturn = returns.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-
-        double excessReturn = averageReturn - RISK_FREE_RATE;
-
-        double standardDeviation = calculateStandardDeviation(returns);
-
-        return excessReturn / standardDeviation;
+        return AnalyticsAccumulator.of(context.account.initialCapital, context.analytics.transactions).getSharpeRatio();
     }
 
     public double calculateStandardDeviation(List<Double> returns) {
@@ -59,24 +40,20 @@ public class AnalyticsService {
     }
 
     public double calculateMaxDrawdown(Context context) {
-        List<Double> equityCurve = getEquityCurve(context);
-
-        return IntStream.range(0, equityCurve.size())
-                .mapToDouble(i -> {
-                    double peak = equityCurve.subList(0, i + 1).stream().max(Double::compare).orElse(0.0);
-                    return (peak - equityCurve.get(i)) / peak;
-                })
-                .max()
-                .orElse(0.0);
+        return AnalyticsAccumulator.of(context.account.initialCapital, context.analytics.transactions).getMaxDrawdown();
     }
 
+    // Cumulative profit after every closed trade
     public List<Double> getEquityCurve(Context context) {
-        return IntStream.range(0, context.getClosedTransactions().size())
-                .mapToObj(i -> context.getClosedTransactions().subList(0, i + 1)
-                        .stream()
-                        .mapToDouble(transaction -> transaction.profit)
-                        .sum())
-                .collect(Collectors.toList());
+        List<Transaction> closedTransactions = context.getClosedTransactions();
+        List<Double> equityCurve = new ArrayList<>(closedTransactions.size());
+        AnalyticsAccumulator.CompensatedSum equity = new AnalyticsAccumulator.CompensatedSum();
+
+        for (Transaction transaction : closedTransactions) {
+            equity.add(transaction.profit);
+            equityCurve.add(equity.value());
+        }
+        return equityCurve;
     }
 
     // Calculates the average profit made / lost per trade
@@ -189,7 +166,7 @@ public class AnalyticsService {
         double years = daysBetween / 365.25;
 
         double strategyCAGR = calculateCAGR(startingCapital, endingCapital, years);
-        double benchmarkCAGR = calculateBenchmarkCAGR(benchmarkTimeSeriesData);
+        double benchmarkCAGR = calculateBenchmarkCAGR(benchmarkTimeSeriesData, startDate, endDate);
 
         return strategyCAGR - benchmarkCAGR;
     }
@@ -199,18 +176,33 @@ public class AnalyticsService {
         return Math.pow((endingValue / beginningValue), (1.0 / years)) - 1;
     }
 
-    private double calculateBenchmarkCAGR(TimeSeriesData benchmarkData) {
-        List<TimeSeriesEntry> entries = benchmarkData.entries;
+    // Benchmark growth over the same period as the strategy, which may only cover part of the benchmark data
+    private double calculateBenchmarkCAGR(TimeSeriesData benchmarkData, LocalDateTime from, LocalDateTime to) {
+        int firstIndex = Math.min(firstIndexAtOrAfter(benchmarkData, from), benchmarkData.size() - 1);
+        int lastIndex = Math.max(firstIndex, firstIndexAtOrAfter(benchmarkData, to.plusSeconds(1)) - 1);
 
-        double startingValue = entries.get(0).close;
-        double endingValue = entries.get(entries.size() - 1).close;
+        double startingValue = benchmarkData.close[firstIndex];
+        double endingValue = benchmarkData.close[lastIndex];
 
-        LocalDateTime startDate = entries.get(0).datetime;
-        LocalDateTime endDate = entries.get(entries.size() - 1).datetime;
+        LocalDateTime startDate = benchmarkData.getDatetime(firstIndex);
+        LocalDateTime endDate = benchmarkData.getDatetime(lastIndex);
 
         long daysBetween = Duration.between(startDate, endDate).toDays();
         double years = daysBetween / 365.25;
 
         return calculateCAGR(startingValue, endingValue, years);
     }
+
+    private static int firstIndexAtOrAfter(TimeSeriesData data, LocalDateTime datetime) {
+        long timestamp = TimeSeriesData.toEpochSecond(datetime);
+        int index = Arrays.binarySearch(data.timestamps, timestamp);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Step back to the first of any equal timestamps
+        while (index > 0 && data.timestamps[index - 1] == timestamp) {
+            index--;
+        }
+        return index;
+    }
 }
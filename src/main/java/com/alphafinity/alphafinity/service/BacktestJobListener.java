@@ -0,0 +1,22 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.BacktestJob;
+import com.alphafinity.alphafinity.model.State;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the progress of a streamed backtest job on the worker running it. A listener that fails (e.g. the client went
+ * away) is detached and the job is cancelled.
+ */
+public interface BacktestJobListener {
+
+    /**
+     * @param job:    status of the job as of the last state in the batch
+     * @param states: states recorded since the previous call, in order
+     */
+    void onProgress(BacktestJob job, List<State> states) throws IOException;
+
+    void onFinished(BacktestJob job) throws IOException;
+}
@@ -0,0 +1,305 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.BacktestJob;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.MonteCarloResult;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.enumerations.JobStatus;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs backtests in the background so request threads are not held for the length of a run. Jobs are queued on a bounded
+ * executor with one worker per core, the status and result are fetched later by job id. Cancellation is cooperative: a
+ * queued job never starts and a running job stops at the next bar.
+ */
+@Service
+public class BacktestJobService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktestJobService.class);
+
+    private static final int STATE_BATCH_SIZE = 1000;
+
+    private final BacktestService backtestService;
+    private final MonteCarloService monteCarloService;
+    private final ThreadPoolExecutor backtestJobExecutor;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public BacktestJobService(BacktestService backtestService,
+                              MonteCarloService monteCarloService,
+                              ThreadPoolExecutor backtestJobExecutor,
+                              @Value("${alphafinity.jobs.retention-minutes}") long retentionMinutes) {
+        this.backtestService = backtestService;
+        this.monteCarloService = monteCarloService;
+        this.backtestJobExecutor = backtestJobExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public BacktestJob submit(Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData,
+                              ResamplingMethod resampling, long seed) {
+        return submit(strategy, benchmarkTimeSeriesData, strategyTimeSeriesData, resampling, seed, null);
+    }
+
+    /**
+     * Submits a job whose progress and states are streamed to the listener in batches while it runs. The states are only
+     * streamed, the result of the job has no states.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public BacktestJob submit(Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData,
+                              ResamplingMethod resampling, long seed, BacktestJobListener listener) {
+        purgeFinishedJobs();
+
+        Job job = new Job(UUID.randomUUID().toString(), strategy.strategyName(), strategyTimeSeriesData.size(), listener);
+        jobs.put(job.id, job);
+
+        job.task = () -> run(job, strategy, benchmarkTimeSeriesData, strategyTimeSeriesData, resampling, seed);
+        try {
+            backtestJobExecutor.execute(job.task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("Backtest job queue is full, try again later", e);
+        }
+
+        LOGGER.info("[Job] Submitted job " + job.id + " for: " + job.strategy);
+        return job.snapshot();
+    }
+
+    public BacktestJob getJob(String id) {
+        return getOrThrow(id).snapshot();
+    }
+
+    /**
+     * @return the result of a completed job, or null if the job has not completed
+     */
+    public Context getResult(String id) {
+        return getOrThrow(id).getResult();
+    }
+
+    /**
+     * Requests cancellation. A queued job is cancelled straight away, a running job stops at its next bar.
+     */
+    public BacktestJob cancel(String id) {
+        Job job = getOrThrow(id);
+        // A queued job is taken off the queue to free its slot, if a worker got to it first the worker notifies the listener
+        if (job.cancel() && backtestJobExecutor.remove(job.task)) {
+            job.notifyFinished();
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData,
+                     ResamplingMethod resampling, long seed) {
+        if (!job.start()) {
+            job.notifyFinished();
+            return; // Cancelled while queued
+        }
+
+        try {
+            Context context = backtestService.executeStrategy(new Context.Builder().build(), strategy,
+                    benchmarkTimeSeriesData, strategyTimeSeriesData, job);
+            job.publishStates();
+
+            if (job.isCancelRequested()) {
+                job.finish(JobStatus.CANCELLED, null, null);
+                LOGGER.info("[Job] Cancelled job " + job.id);
+            } else {
+                MonteCarloResult monteCarlo = monteCarloService.simulate(context, resampling, seed);
+                job.finish(JobStatus.COMPLETED, new Context.Builder(context).monteCarlo(monteCarlo).build(), null);
+                LOGGER.info("[Job] Completed job " + job.id);
+            }
+        } catch (Throwable e) {
+            // Errors too, a job left RUNNING would never finish and never be purged
+            job.finish(JobStatus.FAILED, null, e.getMessage() != null ? e.getMessage() : e.toString());
+            LOGGER.warn("[Job] Job " + job.id + " failed", e);
+        }
+
+        job.notifyFinished();
+    }
+
+    private Job getOrThrow(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new NoSuchElementException("Unknown job: " + id);
+        }
+        return job;
+    }
+
+    /**
+     * Drops the jobs that finished longer than the retention ago, on a schedule as well as on every submission so the
+     * results of an idle server are released too.
+     */
+    @Scheduled(fixedDelayString = "${alphafinity.jobs.purge-interval-seconds}", timeUnit = TimeUnit.SECONDS)
+    public void purgeFinishedJobs() {
+        LocalDateTime expiry = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(expiry));
+    }
+
+    /**
+     * Mutable state of a job, shared between the worker running it and the request threads reading it. The worker reports
+     * progress and checks for cancellation on every bar through the {@link BacktestMonitor} callback, and for a streamed job
+     * hands the states to the listener a batch at a time instead of keeping them.
+     */
+    private static class Job implements BacktestMonitor {
+        private final String id;
+        private final String strategy;
+        private final int totalBars;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final boolean streamed;
+        private final List<State> states = new ArrayList<>(); // Batch of states not yet streamed, only used by the worker
+        private Runnable task;
+
+        private volatile BacktestJobListener listener;
+        private volatile boolean cancelRequested;
+        private volatile int barsProcessed;
+        private volatile double accountValue;
+        private volatile double drawdown;
+
+        private JobStatus status = JobStatus.QUEUED;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private Context result;
+        private String error;
+
+        private Job(String id, String strategy, int totalBars, BacktestJobListener listener) {
+            this.id = id;
+            this.strategy = strategy;
+            this.totalBars = totalBars;
+            this.listener = listener;
+            this.streamed = listener != null;
+        }
+
+        @Override
+        public boolean onBar(int index, RunningMetrics metrics) {
+            barsProcessed = metrics.getBars();
+            accountValue = metrics.getAccountValue();
+            drawdown = metrics.getCurrentDrawdown();
+
+            if (states.size() >= STATE_BATCH_SIZE) {
+                publishStates();
+            }
+            return !cancelRequested;
+        }
+
+        @Override
+        public void onState(State state) {
+            if (streamed) {
+                states.add(state);
+            }
+        }
+
+        @Override
+        public boolean retainsStates() {
+            return !streamed;
+        }
+
+        private void publishStates() {
+            BacktestJobListener current = listener;
+            if (current != null && !states.isEmpty()) {
+                try {
+                    current.onProgress(snapshot(), List.copyOf(states));
+                } catch (IOException | RuntimeException e) {
+                    detach(e);
+                }
+            }
+            states.clear();
+        }
+
+        private void notifyFinished() {
+            BacktestJobListener current = listener;
+            if (current != null) {
+                try {
+                    current.onFinished(snapshot());
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.debug("[Job] Unable to notify the listener of job " + id, e);
+                }
+                listener = null;
+            }
+        }
+
+        // Nobody is left to receive the stream, so the rest of the run is not needed
+        private void detach(Exception e) {
+            LOGGER.info("[Job] Listener of job " + id + " failed, cancelling: " + e.getMessage());
+            listener = null;
+            cancelRequested = true;
+        }
+
+        private synchronized boolean start() {
+            if (status != JobStatus.QUEUED) {
+                return false;
+            }
+            status = JobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        private synchronized void finish(JobStatus status, Context result, String error) {
+            this.status = status;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        // Returns true if the job was still queued
+        private synchronized boolean cancel() {
+            if (status.isFinished()) {
+                return false;
+            }
+            cancelRequested = true;
+            if (status == JobStatus.QUEUED) {
+                finish(JobStatus.CANCELLED, null, null);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isCancelRequested() {
+            return cancelRequested;
+        }
+
+        private synchronized Context getResult() {
+            return result;
+        }
+
+        private synchronized boolean isFinishedBefore(LocalDateTime time) {
+            return status.isFinished() && finishedAt.isBefore(time);
+        }
+
+        private synchronized BacktestJob snapshot() {
+            return new BacktestJob.Builder()
+                    .id(id)
+                    .strategy(strategy)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .barsProcessed(barsProcessed)
+                    .totalBars(totalBars)
+                    .accountValue(accountValue)
+                    .drawdown(drawdown)
+                    .error(error)
+                    .build();
+        }
+    }
+}
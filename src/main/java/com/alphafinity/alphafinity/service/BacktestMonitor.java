@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.State;
+
+/**
+ * Called by the backtest loop after every bar with the running metrics, for progress reporting or to stop a run early.
+ */
+@FunctionalInterface
+public interface BacktestMonitor {
+
+    BacktestMonitor NONE = (index, metrics) -> true;
+
+    // Runs to the end without keeping the states, for callers that only use the analytics
+    BacktestMonitor WITHOUT_STATES = new BacktestMonitor() {
+        @Override
+        public boolean onBar(int index, RunningMetrics metrics) {
+            return true;
+        }
+
+        @Override
+        public boolean retainsStates() {
+            return false;
+        }
+    };
+
+    /**
+     * @param index:   index of the bar that was just simulated
+     * @param metrics: metrics of the run up to and including this bar
+     * @return false to stop the run, open trades are then closed out at this bar
+     */
+    boolean onBar(int index, RunningMetrics metrics);
+
+    /**
+     * Called with the state recorded for every bar, before {@link #onBar}.
+     */
+    default void onState(State state) {
+    }
+
+    /**
+     * Whether the states are kept in the context of the run. A monitor that consumes the states itself (e.g. streams
+     * them) can return false so they are never all held in memory, the resulting context then has no states.
+     */
+    default boolean retainsStates() {
+        return true;
+    }
+}
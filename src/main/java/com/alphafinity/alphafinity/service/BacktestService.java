@@ -2,20 +2,24 @@ package com.alphafinity.alphafinity.service;
 
 import com.alphafinity.alphafinity.model.*;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
-import com.alphafinity.alphafinity.strategy.indicator.EMA;
-import com.alphafinity.alphafinity.strategy.indicator.Indicator;
-import com.alphafinity.alphafinity.strategy.indicator.RSI;
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
 
 @Service
 public class BacktestService {
     private static final Logger LOGGER = LoggerFactory.getLogger(BacktestService.class);
 
+    // Columns read by the strategies, created through the indicator registry
+    private static final String[] INDICATORS = {"rsi(14)", "ema(100)"};
+
     private final BacktestTradeExecutor tradeExecutor;
     private final BacktestValidationService validationService;
     private final AnalyticsService analyticsService;
@@ -32,113 +36,241 @@ public class BacktestService {
     }
 
     public Context executeStrategy(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData rawStrategyTimeSeriesData) {
+        return executeStrategy(context, strategy, benchmarkTimeSeriesData, rawStrategyTimeSeriesData, BacktestMonitor.NONE);
+    }
+
+    public Context executeStrategy(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData rawStrategyTimeSeriesData,
+                                   BacktestMonitor monitor) {
         LOGGER.info("[Backtest] Starting backtesting of: " + strategy.strategyName());
         validationService.validateTimeframes(benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
 
-        TimeSeriesData strategyTimeSeriesData = indicatorService.populateDataWithIndicators(rawStrategyTimeSeriesData, initializeIndicators());
+        TimeSeriesData strategyTimeSeriesData = enrichData(rawStrategyTimeSeriesData);
+
+        Context finalContext = executeStrategyOnEnrichedData(context, strategy, benchmarkTimeSeriesData, strategyTimeSeriesData,
+                0, strategyTimeSeriesData.size(), monitor);
+
+        LOGGER.info("[Backtest] Completed backtesting of strategy");
+        return finalContext;
+    }
+
+    /**
+     * Populates the raw time-series data with the indicators used by the strategies.
+     */
+    public TimeSeriesData enrichData(TimeSeriesData rawStrategyTimeSeriesData) {
+        return indicatorService.populateDataWithIndicators(rawStrategyTimeSeriesData, INDICATORS);
+    }
+
+    /**
+     * Runs the strategy over time-series data that has already been validated and enriched with {@link #enrichData}. The
+     * data is only read, so the same enriched data can be shared by many runs at once.
+     */
+    public Context executeStrategyOnEnrichedData(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData) {
+        return executeStrategyOnEnrichedData(context, strategy, benchmarkTimeSeriesData, strategyTimeSeriesData, 0, strategyTimeSeriesData.size());
+    }
+
+    /**
+     * Runs the strategy over the bars in [fromIndex, toIndex) only. The range is read in place, the bars before fromIndex
+     * still count towards the indicators since those were calculated over the whole time-series.
+     */
+    public Context executeStrategyOnEnrichedData(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData,
+                                                 TimeSeriesData strategyTimeSeriesData, int fromIndex, int toIndex) {
+        return executeStrategyOnEnrichedData(context, strategy, benchmarkTimeSeriesData, strategyTimeSeriesData, fromIndex, toIndex, BacktestMonitor.NONE);
+    }
+
+    /**
+     * Runs the strategy over the bars in [fromIndex, toIndex), reporting the running metrics to the monitor after every bar.
+     * When the monitor stops the run, open trades are closed out at the last simulated bar and the analytics cover the bars
+     * up to and including it.
+     */
+    public Context executeStrategyOnEnrichedData(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData,
+                                                 TimeSeriesData strategyTimeSeriesData, int fromIndex, int toIndex,
+                                                 BacktestMonitor monitor) {
+        Objects.checkFromToIndex(fromIndex, toIndex, strategyTimeSeriesData.size());
+        if (fromIndex == toIndex) {
+            throw new IllegalArgumentException("Cannot run a backtest over an empty range");
+        }
+
+        // Single pass over the bars with one mutable portfolio, the context is only replaced when a trade is executed
+        Portfolio portfolio = initialPortfolio(context, strategyTimeSeriesData, fromIndex);
+        int lastIndex = fromIndex;
+        for (int index = fromIndex; index < toIndex; index++) {
+            strategy.onBar(portfolio, strategyTimeSeriesData, index);
+            recordState(portfolio, strategyTimeSeriesData, index, monitor);
+            lastIndex = index;
+
+            if (!monitor.onBar(index, portfolio.getMetrics())) {
+                LOGGER.debug("[Backtest] Stopped by monitor at bar " + index);
+                break;
+            }
+        }
+
+        return finishRun(portfolio, strategyTimeSeriesData.getEntry(lastIndex), benchmarkTimeSeriesData);
+    }
+
+    /**
+     * Runs several strategies over the same data in a single pass: the data is validated and enriched once, and every bar
+     * is read once for all of the strategies. Each strategy trades its own portfolio, so the results are the same as
+     * running the strategies one at a time.
+     *
+     * @return final context of every strategy, in the order of the strategies
+     */
+    public List<Context> executeStrategies(Context context, List<Strategy> strategies, TimeSeriesData benchmarkTimeSeriesData,
+                                           TimeSeriesData rawStrategyTimeSeriesData) {
+        return executeStrategies(context, strategies, benchmarkTimeSeriesData, rawStrategyTimeSeriesData, true);
+    }
+
+    /**
+     * @param retainStates: whether the contexts keep the state of every bar, without them the contexts have no states
+     */
+    public List<Context> executeStrategies(Context context, List<Strategy> strategies, TimeSeriesData benchmarkTimeSeriesData,
+                                           TimeSeriesData rawStrategyTimeSeriesData, boolean retainStates) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("At least one strategy is required");
+        }
+
+        LOGGER.info("[Backtest] Starting backtesting of " + strategies.size() + " strategies");
+        validationService.validateTimeframes(benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
 
+        TimeSeriesData strategyTimeSeriesData = enrichData(rawStrategyTimeSeriesData);
+        int size = strategyTimeSeriesData.size();
+        BacktestMonitor monitor = retainStates ? BacktestMonitor.NONE : BacktestMonitor.WITHOUT_STATES;
+
+        Portfolio[] portfolios = strategies.stream()
+                .map(strategy -> initialPortfolio(context, strategyTimeSeriesData, 0))
+                .toArray(Portfolio[]::new);
+
+        for (int index = 0; index < size; index++) {
+            for (int i = 0; i < portfolios.length; i++) {
+                strategies.get(i).onBar(portfolios[i], strategyTimeSeriesData, index);
+                recordState(portfolios[i], strategyTimeSeriesData, index, monitor);
+            }
+        }
+
+        TimeSeriesEntry lastEntry = strategyTimeSeriesData.getEntry(size - 1);
+        List<Context> finalContexts = new ArrayList<>(portfolios.length);
+        for (Portfolio portfolio : portfolios) {
+            finalContexts.add(finishRun(portfolio, lastEntry, benchmarkTimeSeriesData));
+        }
+
+        LOGGER.info("[Backtest] Completed backtesting of strategies");
+        return finalContexts;
+    }
+
+    /**
+     * Runs the strategies with {@link #executeStrategies} and compares their analytics. Only the analytics are returned,
+     * so the states of the runs are not kept.
+     *
+     * @return one comparison per strategy, in the order of the strategies
+     */
+    public List<StrategyComparison> compareStrategies(List<Strategy> strategies, TimeSeriesData benchmarkTimeSeriesData,
+                                                      TimeSeriesData rawStrategyTimeSeriesData) {
+        List<Context> contexts = executeStrategies(new Context.Builder().build(), strategies, benchmarkTimeSeriesData,
+                rawStrategyTimeSeriesData, false);
+
+        return IntStream.range(0, strategies.size())
+                .mapToObj(i -> new StrategyComparison.Builder()
+                        .strategy(strategies.get(i).strategyName())
+                        .parameters(strategies.get(i).parameters())
+                        .analytics(contexts.get(i).analytics)
+                        .build())
+                .toList();
+    }
+
+    // Fresh account with the starting capital of the given context, starting at the bar at fromIndex
+    private Portfolio initialPortfolio(Context context, TimeSeriesData strategyTimeSeriesData, int fromIndex) {
         Account account = new Account.Builder()
                 .initialCapital(context.account.initialCapital)
                 .currentCapital(context.account.initialCapital)
                 .build();
 
-        Analytics analytics = new Analytics.Builder(context)
-                .startDate(strategyTimeSeriesData.getFirstEntry().datetime)
-                .endDate(strategyTimeSeriesData.getLastEntry().datetime)
+        // Own ledger, portfolios started from the same context must not share one
+        Analytics analytics = new Analytics.Builder()
+                .startingCapital(context.account.initialCapital)
+                .startDate(strategyTimeSeriesData.getDatetime(fromIndex))
+                .addTransactions(context.analytics.transactions)
                 .build();
 
-        Context initialContext = new Context.Builder()
+        return new Portfolio(new Context.Builder()
                 .account(account)
                 .analytics(analytics)
-                .build();
-
-        // Running the backtest on the strategy using reduce
-        Context updatedContext = strategyTimeSeriesData.entries.stream()
-                .reduce(
-                        initialContext,
-                        (ctx, entry) -> {
-                            Context afterStrategy = strategy.execute(ctx, entry);
-                            return updateState(afterStrategy, entry);
-                        },
-                        (ctx1, ctx2) -> ctx2 // combiner is not used but required for the reduce method
-                );
-
-        // Force close any open trades and enhance analytics
-        Context finalContext = generateAnalytics(closeOutOpenTrades(updatedContext, strategyTimeSeriesData.getLastEntry()), benchmarkTimeSeriesData);
-
-        LOGGER.info("[Backtest] Completed backtesting of strategy");
-        return finalContext;
+                .build());
     }
 
     /**
-     * This method is used to keep track of statistics throughout the life-cycle of the backtest. For each entry in the time-series,
+     * This method is used to keep track of statistics throughout the life-cycle of the backtest. For each bar in the time-series,
      * we will have statistics about the current state of the account for that given time.
      *
-     * @param context: context
-     * @param entry:   time-series entry
-     * @return context
+     * @param portfolio: portfolio of the running backtest
+     * @param data:      time-series data
+     * @param index:     index of the bar
+     * @param monitor:   monitor of the run, is given every state and decides whether the context keeps them
      */
-    private Context updateState(Context context, TimeSeriesEntry entry) {
+    private void recordState(Portfolio portfolio, TimeSeriesData data, int index, BacktestMonitor monitor) {
+        Context context = portfolio.getContext();
 
-        // This is the total value of our open positions using the current asset price
-        Double currentOpenTransactionValue = context.getActiveTransactions().stream()
-                .mapToDouble(transaction -> transaction.quantity * entry.close)
-                .sum();
-
-        // Calculate the current account value
-        Double currentAccountValue = currentOpenTransactionValue + context.account.currentCapital;
+        // Calculate the current account value, cash plus the open positions at the current asset price
+        double currentAccountValue = portfolio.markToMarket(data.close[index]);
 
         // Calculate the current profit
-        Double currentProfit = currentAccountValue - context.account.initialCapital;
+        double currentProfit = currentAccountValue - context.account.initialCapital;
 
         // Calculate the current profit percentage
-        Double currentProfitPercentage = (currentProfit / context.account.initialCapital) * 100;
-
+        double currentProfitPercentage = (currentProfit / context.account.initialCapital) * 100;
 
         State state = new State.Builder()
-                .currentTime(entry.datetime)
+                .currentTime(data.getDatetime(index))
                 .currentAccountValue(currentAccountValue)
                 .currentProfit(currentProfit)
                 .currentProfitPercentage(currentProfitPercentage)
                 .build();
 
-        return new Context.Builder(context)
-                .addState(state)
-                .build();
-    }
+        monitor.onState(state);
 
-    private List<Indicator<?>> initializeIndicators() {
-        Indicator<Double> rsi = new RSI.Builder()
-                .period(14)  // Could maybe make this a config value?
-                .build();
+        // The states list is shared by every context of the run
+        if (monitor.retainsStates()) {
+            context.states.add(state);
+        }
+    }
 
-        Indicator<Double> ema = new EMA.Builder()
-                .period(100)
-                .build();
+    // Force closes any open trades at the last simulated bar, the metrics pick up the closing trades from the ledger
+    private Context finishRun(Portfolio portfolio, TimeSeriesEntry lastEntry, TimeSeriesData benchmarkTimeSeriesData) {
+        portfolio.update(closeOutOpenTrades(portfolio.getContext(), lastEntry));
+        portfolio.updateMetrics();
 
-        return List.of(
-                rsi,
-                ema
-        );
+        return generateAnalytics(portfolio.getContext(), portfolio.getMetrics(), lastEntry.datetime, benchmarkTimeSeriesData);
     }
 
-    private Context generateAnalytics(Context context, TimeSeriesData benchmarkTimeSeriesData) {
+    /**
+     * Builds the analytics of a finished run from its final context, after open trades were closed out, and the running
+     * metrics of the run.
+     *
+     * @param endDate: time of the last simulated bar
+     */
+    public Context generateAnalytics(Context context, RunningMetrics metrics, LocalDateTime endDate, TimeSeriesData benchmarkTimeSeriesData) {
+        // Trade statistics were accumulated during the run, there is no pass over the ledger here
+        AnalyticsAccumulator trades = metrics.getTrades();
+
+        Context endedContext = new Context.Builder(context)
+                .analytics(new Analytics.Builder(context).endDate(endDate).build())
+                .build();
 
-        Analytics strategyAnalytics = new Analytics.Builder(context)
+        Analytics strategyAnalytics = new Analytics.Builder(endedContext)
                 .endingCapital(context.account.currentCapital)
                 .totalReturnMultiplier(analyticsService.calculateTotalReturnMultiplier(context))
                 .totalReturn(analyticsService.calculateTotalReturn(context))
                 .totalReturnAsPercentage(analyticsService.calculateTotalReturnAsPercentage(context))
-                .totalTrades(analyticsService.calculateTotalTrades(context))
-                .totalOpeningTrades(analyticsService.calculateTotalOpenTrades(context))
-                .totalClosingTrades(analyticsService.calculateTotalClosedTrades(context))
-                .winRate(analyticsService.calculateWinRate(context))
-                .averageReturn(analyticsService.calculateAverageReturnPerTrade(context))
-                .averageProfit(analyticsService.calculateAverageProfitPerTrade(context))
-                .averageLoss(analyticsService.calculateAverageLossPerTrade(context))
-                .maxDrawdown(analyticsService.calculateMaxDrawdown(context))
-                .alpha(analyticsService.calculateAlpha(context, benchmarkTimeSeriesData))
-                .sharpeRatio(analyticsService.calculateSharpeRatio(context))
+                .totalTrades(trades.getTotalTrades())
+                .totalOpeningTrades(trades.getTotalOpeningTrades())
+                .totalClosingTrades(trades.getTotalClosingTrades())
+                .winRate(trades.getWinRate())
+                .averageReturn(trades.getAverageReturn())
+                .averageProfit(trades.getAverageProfit())
+                .averageLoss(trades.getAverageLoss())
+                .maxDrawdown(trades.getMaxDrawdown())
+                .alpha(analyticsService.calculateAlpha(endedContext, benchmarkTimeSeriesData))
+                .sharpeRatio(trades.getSharpeRatio())
+                .standardDeviation(metrics.getReturnStandardDeviation())
+                .exposure(metrics.getExposure())
                 .build();
 
         Analytics benchmarkAnalytics = new Analytics.Builder()
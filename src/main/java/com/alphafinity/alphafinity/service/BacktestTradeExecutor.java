@@ -1,6 +1,7 @@
 package com.alphafinity.alphafinity.service;
 
 import com.alphafinity.alphafinity.model.*;
+import com.alphafinity.alphafinity.model.enumerations.LotMatching;
 import com.alphafinity.alphafinity.model.enumerations.Quantity;
 import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
@@ -50,7 +51,7 @@ public class BacktestTradeExecutor {
                 .addTransaction(transaction)
                 .build();
 
-        LOGGER.info(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.OPEN, order.type, order.price, order.time));
+        LOGGER.debug(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.OPEN, order.type, order.price, order.time));
         return new Context.Builder(context)
                 .account(account)
                 .analytics(analytics)
@@ -58,7 +59,7 @@ public class BacktestTradeExecutor {
     }
 
     public Context sell(Context context, Transaction order) {
-        LOGGER.info(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.OPEN, order.type, order.price, order.time));
+        LOGGER.debug(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.OPEN, order.type, order.price, order.time));
         return new Context.Builder(context)
                 .build();
     }
@@ -99,17 +100,45 @@ public class BacktestTradeExecutor {
                 .addTransaction(newTransaction)
                 .build();
 
-        LOGGER.info(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.CLOSE, order.type, order.price, order.time));
+        LOGGER.debug(String.format(EXECUTE_ORDER, order.quantity, TransactionOperation.CLOSE, order.type, order.price, order.time));
         return new Context.Builder(context)
                 .account(account)
                 .analytics(analytics)
                 .build();
     }
 
+    /**
+     * Closes open lots in FIFO or LIFO order until the quantity of the order is covered, the last lot is closed partially
+     * if only part of it is needed. An order with {@link Quantity#MAX} closes every open lot.
+     */
+    public Context close(Context context, Transaction order, LotMatching matching) {
+        PositionBook book = context.account.activeTrades;
+        long remaining = Quantity.MAX.equals(order.quantityEnum) ? book.getOpenQuantity() : order.quantity;
+
+        Context updatedContext = context;
+        for (Transaction lot : book.match(remaining, matching)) {
+            if (lot.quantity <= remaining) {
+                updatedContext = close(updatedContext, lot, order);
+                remaining -= lot.quantity;
+            } else {
+                // Split the lot, the remainder stays open in the same place in the book
+                int closedQuantity = Math.toIntExact(remaining);
+                book.replace(lot, new Transaction.Builder(lot)
+                        .quantity(lot.quantity - closedQuantity)
+                        .build());
+                updatedContext = close(updatedContext, new Transaction.Builder(lot)
+                        .quantity(closedQuantity)
+                        .build(), order);
+                remaining = 0;
+            }
+        }
+        return updatedContext;
+    }
+
     public Context takeProfits(Context context, TimeSeriesEntry entry, double threshold, Transaction order) {
         List<Transaction> transactionsToClose = context.getActiveTransactions().stream()
-                .filter(transaction -> calculateOpenProfitPercentage(transaction, entry.close) >= threshold)
-                .peek(transaction -> LOGGER.info("Taking profits on transaction: "))
+                .filter(transaction -> transaction.openProfitPercentage(entry.close) >= threshold)
+                .peek(transaction -> LOGGER.debug("Taking profits on transaction: "))
                 .collect(Collectors.toList());
 
         // Close transactions and update context
@@ -120,14 +149,6 @@ public class BacktestTradeExecutor {
         return context;
     }
 
-    private double calculateOpenProfitPercentage(Transaction transaction, double currentPrice) {
-        double entryPrice = transaction.price;
-        double quantity = transaction.quantity;
-        double currentProfit = (currentPrice - entryPrice) * quantity;
-        double entryValue = entryPrice * quantity;
-        return (currentProfit / entryValue) * 100.0;
-    }
-
     /**
      * Performs validations on the order to see if trade can ve executed. Here is an exhaustive list of validations:<br>
      * 1. Does the account currently hold enough funds to execute the transaction? <br>
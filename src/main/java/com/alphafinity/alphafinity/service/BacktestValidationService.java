@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class BacktestValidationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(BacktestValidationService.class);
@@ -17,15 +19,43 @@ public class BacktestValidationService {
         }
 
         // Check if both time series data have entries
-        if (benchmarkTimeSeriesData.entries.isEmpty() || strategyTimeSeriesData.entries.isEmpty()) {
+        if (benchmarkTimeSeriesData.isEmpty() || strategyTimeSeriesData.isEmpty()) {
             throw new IllegalArgumentException("Benchmark and strategy time series data must have entries");
         }
 
         // Check if the timeframes match (first and last timestamps)
-        if (!benchmarkTimeSeriesData.getFirstEntry().datetime.equals(strategyTimeSeriesData.getFirstEntry().datetime) ||
-                !benchmarkTimeSeriesData.getLastEntry().datetime.equals(strategyTimeSeriesData.getLastEntry().datetime)) {
+        if (benchmarkTimeSeriesData.timestamps[0] != strategyTimeSeriesData.timestamps[0] ||
+                benchmarkTimeSeriesData.timestamps[benchmarkTimeSeriesData.size() - 1] != strategyTimeSeriesData.timestamps[strategyTimeSeriesData.size() - 1]) {
             throw new IllegalArgumentException("Benchmark and strategy time series data must have the same timeframes");
         }
         LOGGER.info("[Validation] Successfully completed validations for timeframes");
     }
+
+    /**
+     * Assets of a multi-asset backtest may trade on different calendars, so only the benchmark and every asset having
+     * entries in time order is checked.
+     */
+    public void validateSymbols(TimeSeriesData benchmarkTimeSeriesData, Map<String, TimeSeriesData> symbolTimeSeriesData) {
+        LOGGER.info("[Validation] Starting validations for " + symbolTimeSeriesData.size() + " symbols");
+
+        if (benchmarkTimeSeriesData == null || benchmarkTimeSeriesData.isEmpty()) {
+            throw new IllegalArgumentException("Benchmark time series data must have entries");
+        }
+
+        if (symbolTimeSeriesData.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+
+        symbolTimeSeriesData.forEach((symbol, data) -> {
+            if (data == null || data.isEmpty()) {
+                throw new IllegalArgumentException("Time series data of " + symbol + " must have entries");
+            }
+            for (int i = 1; i < data.size(); i++) {
+                if (data.timestamps[i] < data.timestamps[i - 1]) {
+                    throw new IllegalArgumentException("Time series data of " + symbol + " is not in time order");
+                }
+            }
+        });
+        LOGGER.info("[Validation] Successfully completed validations for symbols");
+    }
 }
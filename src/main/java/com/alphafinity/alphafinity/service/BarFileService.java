@@ -0,0 +1,229 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the binary bar file format. A bar file is a fixed size header followed by one column per field, every
+ * column holds one 8 byte little-endian value per bar:
+ * <pre>
+ *  header    magic (int) | version (int) | bar count (long) | source checksum (long) | reserved (long)
+ *  columns   timestamps (long, epoch seconds UTC) | open | high | low | close | volume (double)
+ * </pre>
+ * Columns are read through {@link FileChannel#map} so opening a file only costs a bulk copy per column, no parsing.
+ */
+@Service
+public class BarFileService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BarFileService.class);
+
+    public static final int MAGIC = 0x41464231; // "AFB1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int COLUMNS = 6;
+    private static final String EXTENSION = ".bars";
+
+    private final ObjectMapper mapper;
+    private final Path dataDirectory;
+
+    public BarFileService(ObjectMapper mapper,
+                          @Value("${alphafinity.data.directory}") Path dataDirectory) {
+        this.mapper = mapper;
+        this.dataDirectory = dataDirectory;
+    }
+
+    /**
+     * Loads a bundled JSON dataset from the classpath. The dataset is converted to a bar file in the data directory the
+     * first time it is requested and the bar file is reused for as long as the checksum of the JSON resource matches.
+     */
+    public TimeSeriesData loadResource(String resource) throws IOException {
+        byte[] json;
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IOException("Resource not found: " + resource);
+            }
+            json = inputStream.readAllBytes();
+        }
+
+        long checksum = checksum(json);
+        Path barFile = dataDirectory.resolve(resource.replaceFirst("\\.json$", "") + EXTENSION);
+
+        if (Files.exists(barFile) && readChecksum(barFile) == checksum) {
+            return read(barFile);
+        }
+
+        LOGGER.info("[BarFile] Converting " + resource + " to " + barFile);
+        TimeSeriesData data = parseJson(new ByteArrayInputStream(json));
+        write(data, barFile, checksum);
+        return data;
+    }
+
+    /**
+     * Reads time-series data that can either be JSON or a bar file, e.g. an upload.
+     */
+    public TimeSeriesData parse(InputStream inputStream) throws IOException {
+        InputStream bufferedInputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        if (isBarFile(bufferedInputStream)) {
+            return read(bufferedInputStream.readAllBytes());
+        }
+        return parseJson(bufferedInputStream);
+    }
+
+    public TimeSeriesData read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a bar file: " + path);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int bars = readBarCount(header, path.toString());
+
+            if (channel.size() < fileSize(bars)) {
+                throw new IOException("Bar file is truncated: " + path);
+            }
+
+            // Each column is mapped separately so files are not limited by the 2GB size of a single mapping
+            long[] timestamps = new long[bars];
+            channel.map(FileChannel.MapMode.READ_ONLY, columnOffset(0, bars), (long) bars * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(timestamps);
+
+            double[][] columns = new double[COLUMNS - 1][bars];
+            for (int column = 1; column < COLUMNS; column++) {
+                channel.map(FileChannel.MapMode.READ_ONLY, columnOffset(column, bars), (long) bars * Double.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(columns[column - 1]);
+            }
+
+            return new TimeSeriesData(timestamps, columns[0], columns[1], columns[2], columns[3], columns[4]);
+        }
+    }
+
+    /**
+     * Reads a bar file that is already held in memory, for example an uploaded file.
+     */
+    public TimeSeriesData read(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int bars = readBarCount(buffer, "uploaded file");
+
+        if (bytes.length < fileSize(bars)) {
+            throw new IOException("Bar file is truncated");
+        }
+
+        long[] timestamps = new long[bars];
+        buffer.position(Math.toIntExact(columnOffset(0, bars)));
+        buffer.asLongBuffer().get(timestamps);
+
+        double[][] columns = new double[COLUMNS - 1][bars];
+        for (int column = 1; column < COLUMNS; column++) {
+            buffer.position(Math.toIntExact(columnOffset(column, bars)));
+            buffer.asDoubleBuffer().get(columns[column - 1]);
+        }
+
+        return new TimeSeriesData(timestamps, columns[0], columns[1], columns[2], columns[3], columns[4]);
+    }
+
+    public void write(TimeSeriesData data, Path path) throws IOException {
+        write(data, path, 0L);
+    }
+
+    /**
+     * Peeks at the start of the stream to check for the bar file magic number, the stream must support mark and reset.
+     */
+    public static boolean isBarFile(InputStream inputStream) throws IOException {
+        inputStream.mark(Integer.BYTES);
+        byte[] magic = inputStream.readNBytes(Integer.BYTES);
+        inputStream.reset();
+
+        return magic.length == Integer.BYTES
+                && ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+    }
+
+    private void write(TimeSeriesData data, Path path, long checksum) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        int bars = data.size();
+
+        // Written to a temporary file first so readers never map a partially written file
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(bars)
+                    .putLong(checksum)
+                    .putLong(0L)
+                    .flip();
+            channel.write(header, 0);
+
+            channel.map(FileChannel.MapMode.READ_WRITE, columnOffset(0, bars), (long) bars * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(data.timestamps);
+
+            List<double[]> columns = List.of(data.open, data.high, data.low, data.close, data.volume);
+            for (int column = 1; column < COLUMNS; column++) {
+                channel.map(FileChannel.MapMode.READ_WRITE, columnOffset(column, bars), (long) bars * Double.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(columns.get(column - 1));
+            }
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private TimeSeriesData parseJson(InputStream json) throws IOException {
+        return mapper.readValue(json, TimeSeriesData.class);
+    }
+
+    private long readChecksum(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return -1;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            return header.getInt(0) == MAGIC ? header.getLong(16) : -1;
+        }
+    }
+
+    private static int readBarCount(ByteBuffer header, String source) throws IOException {
+        if (header.capacity() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a bar file: " + source);
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported bar file version " + header.getInt(4) + ": " + source);
+        }
+        long bars = header.getLong(8);
+        if (bars < 0 || bars > Integer.MAX_VALUE) {
+            throw new IOException("Invalid bar count " + bars + ": " + source);
+        }
+        return (int) bars;
+    }
+
+    private static long columnOffset(int column, int bars) {
+        return HEADER_SIZE + (long) column * bars * Long.BYTES;
+    }
+
+    private static long fileSize(int bars) {
+        return HEADER_SIZE + (long) COLUMNS * bars * Long.BYTES;
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,176 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.Dashboard;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import com.alphafinity.alphafinity.utility.Downsampling;
+import com.alphafinity.alphafinity.utility.kernel.Kernels;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the dashboard for the bundled dataset. The dataset is loaded once and used as both benchmark and strategy data,
+ * the dashboard is built once per strategy configuration and shared by every page view until the data or the strategy's
+ * parameters change. Chart series are downsampled to a point budget so pages stay small whatever the length of the data.
+ */
+@Service
+public class DashboardService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final String BUNDLED_DATASET = "spy_hourly.json";
+
+    private final BacktestService backtestService;
+    private final BarFileService barFileService;
+    private final RSIStrategy rsiStrategy;
+    private final ObjectMapper mapper;
+
+    private final int defaultPoints;
+
+    private volatile TimeSeriesData bundledData;
+    private volatile CachedDashboard dashboard;
+
+    public DashboardService(BacktestService backtestService,
+                            BarFileService barFileService,
+                            RSIStrategy rsiStrategy,
+                            ObjectMapper mapper,
+                            @Value("${alphafinity.dashboard.points}") int defaultPoints) {
+        this.backtestService = backtestService;
+        this.barFileService = barFileService;
+        this.rsiStrategy = rsiStrategy;
+        this.mapper = mapper;
+        this.defaultPoints = defaultPoints;
+    }
+
+    // Builds the dashboard ahead of the first page view, a failure here is retried on that view
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getDashboard();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("[Dashboard] Unable to preload the dashboard", e);
+        }
+    }
+
+    public Dashboard getDashboard() throws IOException {
+        return getDashboard(rsiStrategy, defaultPoints);
+    }
+
+    /**
+     * @param points: maximum number of points per chart series, the series are downsampled to this budget
+     */
+    public Dashboard getDashboard(int points) throws IOException {
+        return getDashboard(rsiStrategy, points);
+    }
+
+    public Dashboard getDashboard(Strategy strategy, int points) throws IOException {
+        CachedDashboard cached = getSeries(strategy);
+
+        // The default budget is rendered once, any other budget is downsampled from the cached series on request
+        return points == defaultPoints ? cached.dashboard : render(cached, points);
+    }
+
+    private CachedDashboard getSeries(Strategy strategy) throws IOException {
+        TimeSeriesData data = getBundledData();
+        DashboardKey key = new DashboardKey(data.contentHash(), strategy.strategyName(), new HashMap<>(strategy.parameters()));
+
+        CachedDashboard cached = dashboard;
+        if (cached != null && cached.key.equals(key)) {
+            return cached;
+        }
+
+        // Concurrent first views wait for a single build instead of each running the backtest
+        synchronized (this) {
+            cached = dashboard;
+            if (cached == null || !cached.key.equals(key)) {
+                cached = build(key, strategy, data);
+                dashboard = cached;
+            }
+            return cached;
+        }
+    }
+
+    private TimeSeriesData getBundledData() throws IOException {
+        TimeSeriesData data = bundledData;
+        if (data == null) {
+            synchronized (this) {
+                data = bundledData;
+                if (data == null) {
+                    data = barFileService.loadResource(BUNDLED_DATASET);
+                    bundledData = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    private CachedDashboard build(DashboardKey key, Strategy strategy, TimeSeriesData data) throws IOException {
+        LOGGER.info("[Dashboard] Building dashboard for: " + strategy.strategyName());
+
+        // The bundled dataset is both the benchmark and the strategy data
+        Context response = backtestService.executeStrategy(new Context.Builder().build(), strategy, data, data);
+
+        // Get initial values
+        double initialAccountValue = response.states.get(0).currentAccountValue;
+        double initialBenchmarkValue = data.close[0];
+
+        // Normalize states
+        List<State> normalizedStates = response.states.stream()
+                .map(state -> new State.Builder(state)
+                        .currentAccountValue(((state.currentAccountValue / initialAccountValue) - 1) * 100)
+                        .build())
+                .toList();
+
+        // Normalize benchmark closes, entries are only created for the points that are kept
+        double[] benchmarkTimes = new double[data.size()];
+        double[] normalizedBenchmark = new double[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            benchmarkTimes[i] = data.timestamps[i];
+        }
+        Kernels.get().percentChange(data.close, initialBenchmarkValue, normalizedBenchmark);
+
+        CachedDashboard series = new CachedDashboard(key, response, normalizedStates, data, benchmarkTimes, normalizedBenchmark, null);
+        return series.withDashboard(render(series, defaultPoints));
+    }
+
+    private Dashboard render(CachedDashboard series, int points) throws IOException {
+        List<State> states = Downsampling.states(series.states, points);
+
+        int[] benchmarkIndices = Downsampling.largestTriangleThreeBuckets(series.benchmarkTimes, series.normalizedBenchmark, points);
+        List<TimeSeriesEntry> benchmark = IntStream.of(benchmarkIndices)
+                .mapToObj(i -> new TimeSeriesEntry(series.data.getDatetime(i), 0.00, series.normalizedBenchmark[i], 0.00, 0.00,
+                        Double.isNaN(series.data.volume[i]) ? null : series.data.volume[i], 0.00, 0.00))
+                .toList();
+
+        return new Dashboard.Builder()
+                .context(series.context)
+                .statesJson(mapper.writeValueAsString(states))
+                .benchmarkJson(mapper.writeValueAsString(benchmark))
+                .build();
+    }
+
+    private record DashboardKey(String contentHash, String strategyName, Map<String, Double> parameters) {
+    }
+
+    // Full normalized series of a strategy's dashboard, with the dashboard rendered at the default budget
+    private record CachedDashboard(DashboardKey key, Context context, List<State> states, TimeSeriesData data,
+                                   double[] benchmarkTimes, double[] normalizedBenchmark, Dashboard dashboard) {
+
+        private CachedDashboard withDashboard(Dashboard dashboard) {
+            return new CachedDashboard(key, context, states, data, benchmarkTimes, normalizedBenchmark, dashboard);
+        }
+    }
+}
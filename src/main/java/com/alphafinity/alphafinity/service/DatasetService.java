@@ -0,0 +1,146 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Dataset;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of uploaded time-series, so data is uploaded and parsed once and then referenced by id in any number of
+ * backtests. The id of a dataset is the content hash of its bars, uploading the same bars again (as JSON or as a bar
+ * file) returns the existing dataset. Datasets are stored as bar files in the data directory, the ones in use are held in
+ * memory up to a total size and the least recently used ones are dropped from memory first, to be read from their bar
+ * file again when next used.
+ */
+@Service
+public class DatasetService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetService.class);
+
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+    private static final String EXTENSION = ".bars";
+
+    private final BarFileService barFileService;
+    private final Path datasetDirectory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, TimeSeriesData> datasets = new LinkedHashMap<>(16, 0.75f, true); // Access order, eldest first
+
+    private long bytes;
+
+    public DatasetService(BarFileService barFileService,
+                          @Value("${alphafinity.data.directory}") Path dataDirectory,
+                          @Value("${alphafinity.datasets.max-bytes}") long maxBytes) {
+        this.barFileService = barFileService;
+        this.datasetDirectory = dataDirectory.resolve("datasets");
+        this.maxBytes = maxBytes;
+    }
+
+    public Dataset register(InputStream inputStream) throws IOException {
+        TimeSeriesData data = barFileService.parse(inputStream);
+        if (data.isEmpty()) {
+            throw new IllegalArgumentException("Dataset must have entries");
+        }
+
+        String id = data.contentHash();
+        if (get(id) != null || Files.exists(path(id))) {
+            LOGGER.info("[Dataset] Dataset " + id + " is already registered");
+            return new Dataset.Builder(getData(id)).build();
+        }
+
+        barFileService.write(data, path(id));
+        TimeSeriesData registered = put(id, data);
+
+        LOGGER.info("[Dataset] Registered dataset " + id + " with " + data.size() + " bars");
+        return new Dataset.Builder(registered).build();
+    }
+
+    public Dataset getDataset(String id) throws IOException {
+        return new Dataset.Builder(getData(id)).build();
+    }
+
+    /**
+     * @return the bars of the dataset, read from its bar file if it is not held in memory and shared by every caller
+     * while it is
+     */
+    public TimeSeriesData getData(String id) throws IOException {
+        Path path = path(id);
+        TimeSeriesData data = get(id);
+        if (data != null) {
+            return data;
+        }
+
+        if (!Files.exists(path)) {
+            throw new NoSuchElementException("Unknown dataset: " + id);
+        }
+        return put(id, barFileService.read(path));
+    }
+
+    /**
+     * Removes the dataset from memory and deletes its bar file, backtests already running on it are not affected.
+     */
+    public void delete(String id) throws IOException {
+        Path path = path(id);
+        synchronized (this) {
+            TimeSeriesData removed = datasets.remove(id);
+            bytes -= removed == null ? 0 : sizeOf(removed);
+        }
+
+        if (!Files.deleteIfExists(path)) {
+            throw new NoSuchElementException("Unknown dataset: " + id);
+        }
+        LOGGER.info("[Dataset] Deleted dataset " + id);
+    }
+
+    private synchronized TimeSeriesData get(String id) {
+        return datasets.get(id);
+    }
+
+    // Keeps the data already held if another caller loaded it first, evicts the least recently used datasets over budget
+    private synchronized TimeSeriesData put(String id, TimeSeriesData data) {
+        TimeSeriesData existing = datasets.get(id);
+        if (existing != null) {
+            return existing;
+        }
+
+        long size = sizeOf(data);
+        if (size > maxBytes) {
+            return data; // Would evict everything else and still not fit, served from the bar file on every use
+        }
+
+        datasets.put(id, data);
+        bytes += size;
+
+        Iterator<Map.Entry<String, TimeSeriesData>> eldest = datasets.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<String, TimeSeriesData> entry = eldest.next();
+            bytes -= sizeOf(entry.getValue());
+            eldest.remove();
+            LOGGER.debug("[Dataset] Dropped dataset " + entry.getKey() + " from memory");
+        }
+        return data;
+    }
+
+    // Timestamp and price columns, 8 bytes per value
+    private static long sizeOf(TimeSeriesData data) {
+        return (long) data.size() * 6 * Long.BYTES;
+    }
+
+    // Ids are checked before they are used in a path so they can only name files in the dataset directory
+    private Path path(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid dataset id: " + id);
+        }
+        return datasetDirectory.resolve(id + EXTENSION);
+    }
+}
@@ -0,0 +1,83 @@
+package com.alphafinity.alphafinity.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Indicator columns already calculated, keyed by the content hash of the time-series they were calculated over and the
+ * indicator's key (name and parameters). Bounded by the total size of the cached columns, the least recently used columns
+ * are evicted first. All access goes through the cache's lock, the columns themselves are shared and never modified.
+ */
+@Service
+public class IndicatorCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndicatorCache.class);
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, double[]> columns = new LinkedHashMap<>(16, 0.75f, true); // Access order, eldest first
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public IndicatorCache(@Value("${alphafinity.indicator-cache.max-bytes}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the cached column, or null if it has not been calculated or has been evicted
+     */
+    public synchronized double[] get(String contentHash, String indicatorKey) {
+        double[] column = columns.get(new Key(contentHash, indicatorKey));
+        if (column == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return column;
+    }
+
+    public synchronized void put(String contentHash, String indicatorKey, double[] column) {
+        long size = sizeOf(column);
+        if (size > maxBytes) {
+            return; // Would evict everything else and still not fit
+        }
+
+        double[] previous = columns.put(new Key(contentHash, indicatorKey), column);
+        bytes += size - (previous == null ? 0 : sizeOf(previous));
+
+        Iterator<Map.Entry<Key, double[]>> eldest = columns.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<Key, double[]> entry = eldest.next();
+            bytes -= sizeOf(entry.getValue());
+            eldest.remove();
+            evictions++;
+            LOGGER.debug("[IndicatorCache] Evicted " + entry.getKey().indicatorKey() + " of " + entry.getKey().contentHash());
+        }
+    }
+
+    public synchronized void clear() {
+        columns.clear();
+        bytes = 0;
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, columns.size(), bytes, maxBytes);
+    }
+
+    private static long sizeOf(double[] column) {
+        return (long) column.length * Double.BYTES;
+    }
+
+    private record Key(String contentHash, String indicatorKey) {
+    }
+
+    public record Statistics(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.strategy.indicator.ATR;
+import com.alphafinity.alphafinity.strategy.indicator.Crossover;
+import com.alphafinity.alphafinity.strategy.indicator.EMA;
+import com.alphafinity.alphafinity.strategy.indicator.Indicator;
+import com.alphafinity.alphafinity.strategy.indicator.MACD;
+import com.alphafinity.alphafinity.strategy.indicator.RSI;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.ATR_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CROSSOVER_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.EMA_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.MACD_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
+
+/**
+ * Creates indicators from their key, e.g. {@code ema(100)} or {@code macd(12,26)}. Indicators carry running state, so
+ * every call creates a new instance. Further indicators are plugged in with {@link #register}.
+ */
+@Service
+public class IndicatorRegistry {
+
+    private static final Pattern KEY = Pattern.compile("([A-Za-z][\\w-]*)\\(([\\d,]*)\\)");
+
+    private final Map<String, Factory> factories = new ConcurrentHashMap<>();
+
+    public IndicatorRegistry() {
+        register(RSI_NAME, 1, parameters -> new RSI.Builder().period(parameters[0]).build());
+        register(EMA_NAME, 1, parameters -> new EMA.Builder().period(parameters[0]).build());
+        register(MACD_NAME, 2, parameters -> new MACD.Builder().fastPeriod(parameters[0]).slowPeriod(parameters[1]).build());
+        register(CROSSOVER_NAME, 2, parameters -> new Crossover.Builder().fastPeriod(parameters[0]).slowPeriod(parameters[1]).build());
+        register(ATR_NAME, 1, parameters -> new ATR.Builder().period(parameters[0]).build());
+    }
+
+    /**
+     * @param parameters: number of integer parameters in the key
+     * @param factory:    creates the indicator from its parameters, in the order they appear in the key
+     */
+    public final void register(String name, int parameters, Function<int[], Indicator<?>> factory) {
+        factories.put(name, new Factory(parameters, factory));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key is malformed or names an unknown indicator
+     */
+    public Indicator<?> create(String key) {
+        Matcher matcher = KEY.matcher(key.replaceAll("\\s", ""));
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Malformed indicator key " + key + ", expected e.g. ema(100)");
+        }
+
+        Factory factory = factories.get(matcher.group(1));
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown indicator " + matcher.group(1) + ", expected any of " + factories.keySet());
+        }
+
+        int[] parameters = matcher.group(2).isEmpty() ? new int[0] : Arrays.stream(matcher.group(2).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        if (parameters.length != factory.parameters()) {
+            throw new IllegalArgumentException("Indicator " + matcher.group(1) + " takes " + factory.parameters() + " parameters, got " + key);
+        }
+
+        return factory.factory().apply(parameters);
+    }
+
+    private record Factory(int parameters, Function<int[], Indicator<?>> factory) {
+    }
+}
@@ -1,51 +1,210 @@
 package com.alphafinity.alphafinity.service;
 
 import com.alphafinity.alphafinity.model.TimeSeriesData;
-import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.alphafinity.alphafinity.strategy.indicator.ColumnIndicator;
 import com.alphafinity.alphafinity.strategy.indicator.Indicator;
+import com.alphafinity.alphafinity.strategy.indicator.WindowIndicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
-import static com.alphafinity.alphafinity.utility.IndicatorConstants.*;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.PRICE_COLUMNS;
 
 @Service
 public class IndicatorService {
     private static final Logger LOGGER = LoggerFactory.getLogger(IndicatorService.class);
 
+    private final IndicatorCache indicatorCache;
+    private final IndicatorRegistry indicatorRegistry;
+    private final ForkJoinPool backtestPool;
+    private final int chunkSize;
+
+    /**
+     * @param chunkSize: bars per chunk of a window indicator, series up to this long are calculated in one piece
+     */
+    public IndicatorService(IndicatorCache indicatorCache,
+                            IndicatorRegistry indicatorRegistry,
+                            ForkJoinPool backtestPool,
+                            @Value("${alphafinity.indicators.chunk-size}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.indicatorCache = indicatorCache;
+        this.indicatorRegistry = indicatorRegistry;
+        this.backtestPool = backtestPool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Same as {@link #populateDataWithIndicators(TimeSeriesData, List)} with the indicators created from their keys by the
+     * {@link IndicatorRegistry}, e.g. {@code "rsi(14)", "macd(12,26)"}.
+     */
+    public TimeSeriesData populateDataWithIndicators(TimeSeriesData historicalData, String... indicatorKeys) {
+        return populateDataWithIndicators(historicalData, Arrays.stream(indicatorKeys)
+                .<Indicator<?>>map(indicatorRegistry::create)
+                .toList());
+    }
+
+    /**
+     * Adds the columns of the indicators to the time-series, under their key and under their output column. The inputs of
+     * the indicators form a dependency graph: every indicator in it is calculated once per call however many indicators
+     * use it, before the indicators using it, and only if its column is not already in the {@link IndicatorCache}.
+     * Indicators that do not depend on each other are calculated concurrently on the backtest pool, and window indicators
+     * longer than the chunk size in concurrent chunks, with the same values as calculating them one after the other.
+     *
+     * @throws IllegalArgumentException if the indicators depend on each other in a cycle or two of them write to the
+     *                                  same output column
+     */
     public TimeSeriesData populateDataWithIndicators(TimeSeriesData historicalData, List<Indicator<?>> indicators) {
-        LOGGER.info("[Indicators] Starting enrichment of time-series data for the following indicators: " + getIndicatorNames(indicators));
+        String contentHash = historicalData.contentHash();
 
-        List<TimeSeriesEntry> timeSeriesEntries = historicalData.entries.stream()
-                .map(entry -> {
-                    TimeSeriesEntry.Builder newEntry = new TimeSeriesEntry.Builder(entry);
+        // Dependencies before the indicators using them, a cached column cuts the graph off below it
+        Map<String, Node> graph = new LinkedHashMap<>();
+        for (Indicator<?> indicator : indicators) {
+            resolve(indicator, contentHash, graph, new HashSet<>());
+        }
+        List<Node> missing = graph.values().stream().filter(node -> node.column == null).toList();
 
+        if (missing.isEmpty()) {
+            LOGGER.info("[Indicators] Using cached indicators: " + graph.keySet());
+        } else {
+            calculate(historicalData, graph, missing);
 
-                    indicators.stream()
-                            .map(indicator ->
-                                    switch (indicator.name()) {
-                                        case RSI_NAME -> newEntry.rsi(indicator.calculate(historicalData, entry));
-                                        case EMA_NAME -> newEntry.ema(indicator.calculate(historicalData, entry));
-                                        default -> throw new IllegalStateException("Unexpected value: " + indicator.name());
-                                    })
-                                    .collect(Collectors.toSet());
+            // Concurrent misses for the same data may both calculate, the columns are identical so either can be kept
+            for (Node node : missing) {
+                indicatorCache.put(contentHash, node.indicator.key(), node.column);
+            }
+        }
 
-                    return newEntry.build();
-                })
-                .toList();
+        // Indicator values are stored as named columns alongside the price data
+        TimeSeriesData timeSeriesData = historicalData;
+        for (Node node : graph.values()) {
+            timeSeriesData = timeSeriesData.withIndicator(node.indicator.key(), node.column);
+        }
 
-        TimeSeriesData timeSeriesData = new TimeSeriesData(timeSeriesEntries);
+        Map<String, String> outputs = new HashMap<>();
+        for (Indicator<?> indicator : indicators) {
+            String previous = outputs.putIfAbsent(indicator.output(), indicator.key());
+            if (previous != null && !previous.equals(indicator.key())) {
+                throw new IllegalArgumentException("Indicators " + previous + " and " + indicator.key() + " both write to column " + indicator.output());
+            }
+            timeSeriesData = timeSeriesData.withIndicator(indicator.output(), graph.get(indicator.key()).column);
+        }
 
-        LOGGER.info("[Indicators] Completed enrichment of time-series data");
         return timeSeriesData;
     }
 
-    private List<String> getIndicatorNames(List<Indicator<?>> indicators) {
-        return indicators.stream()
-                .map(Indicator::name)
-                .toList();
+    private void resolve(Indicator<?> indicator, String contentHash, Map<String, Node> graph, Set<String> path) {
+        String key = indicator.key();
+        if (graph.containsKey(key)) {
+            return;
+        }
+        if (!path.add(key)) {
+            throw new IllegalArgumentException("Indicator " + key + " depends on itself through " + path);
+        }
+
+        double[] column = indicatorCache.get(contentHash, key);
+        if (column == null) {
+            for (String input : indicator.inputs()) {
+                if (!PRICE_COLUMNS.contains(input)) {
+                    resolve(indicatorRegistry.create(input), contentHash, graph, path);
+                }
+            }
+        }
+
+        path.remove(key);
+        graph.put(key, new Node(indicator, column));
+    }
+
+    private void calculate(TimeSeriesData historicalData, Map<String, Node> graph, List<Node> missing) {
+        LOGGER.info("[Indicators] Starting enrichment of time-series data for the following indicators: "
+                + missing.stream().map(node -> node.indicator.key()).toList());
+
+        int size = historicalData.size();
+        for (Node node : missing) {
+            node.column = new double[size];
+        }
+
+        // Inputs are read from the working columns, complete once the level of the indicator writing them is done
+        TimeSeriesData workingData = historicalData;
+        for (Node node : graph.values()) {
+            workingData = workingData.withIndicator(node.indicator.key(), node.column);
+        }
+
+        // Each indicator is one level above the highest missing indicator it reads, the indicators of a level only read
+        // complete columns and are calculated concurrently
+        Map<String, Integer> levels = new HashMap<>();
+        List<List<Node>> nodesByLevel = new ArrayList<>();
+        for (Node node : missing) {
+            int level = 0;
+            for (String input : node.indicator.inputs()) {
+                Integer inputLevel = levels.get(input);
+                level = inputLevel == null ? level : Math.max(level, inputLevel + 1);
+            }
+            levels.put(node.indicator.key(), level);
+            if (level == nodesByLevel.size()) {
+                nodesByLevel.add(new ArrayList<>());
+            }
+            nodesByLevel.get(level).add(node);
+        }
+
+        TimeSeriesData inputData = workingData;
+        for (List<Node> nodes : nodesByLevel) {
+            List<ForkJoinTask<?>> tasks = nodes.stream().<ForkJoinTask<?>>map(node -> task(inputData, node)).toList();
+            backtestPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+
+        LOGGER.info("[Indicators] Completed enrichment of time-series data");
+    }
+
+    private ForkJoinTask<?> task(TimeSeriesData data, Node node) {
+        if (node.indicator instanceof WindowIndicator<?> windowIndicator && data.size() > chunkSize) {
+            return ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(IntStream.range(0, Math.ceilDiv(data.size(), chunkSize))
+                    .mapToObj(chunk -> ForkJoinTask.adapt(() -> calculateChunk(data, windowIndicator, node.column,
+                            chunk * chunkSize, Math.min(data.size(), (chunk + 1) * chunkSize))))
+                    .toList()));
+        }
+        if (node.indicator instanceof ColumnIndicator<?> columnIndicator) {
+            return ForkJoinTask.adapt(() -> columnIndicator.calculate(data, node.column));
+        }
+
+        // Bar by bar, the indicator carries its own running state from one bar to the next
+        return ForkJoinTask.adapt(() -> {
+            for (int i = 0; i < data.size(); i++) {
+                node.indicator.update(data, i);
+                node.column[i] = node.indicator.value();
+            }
+        });
+    }
+
+    // Calculates the bars of the chunk from the chunk and its halo, the halo itself is calculated by the chunk before
+    private void calculateChunk(TimeSeriesData data, WindowIndicator<?> indicator, double[] column, int from, int to) {
+        int start = Math.max(0, from - indicator.lookback());
+        double[] chunk = new double[to - start];
+        indicator.calculate(data.slice(start, to, indicator.inputs()), chunk);
+        System.arraycopy(chunk, from - start, column, from, to - from);
+    }
+
+    private static class Node {
+        private final Indicator<?> indicator;
+        private double[] column;
+
+        private Node(Indicator<?> indicator, double[] column) {
+            this.indicator = indicator;
+            this.column = column;
+        }
     }
 }
@@ -0,0 +1,92 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.utility.TimestampMerge;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * State of every asset of a multi-asset backtest at the current timestamp. Assets are referred to by their position in
+ * {@link #getSymbols()}. An asset whose series has no bar at the timestamp keeps its latest bar, so strategies can compare
+ * assets trading on different calendars. The snapshot is moved forward in place by the simulation loop and is only valid
+ * during {@link MultiAssetStrategy#onTimestamp}.
+ */
+public class MarketSnapshot {
+
+    private final List<String> symbols;
+    private final List<TimeSeriesData> data;
+    private final TimestampMerge merge;
+
+    MarketSnapshot(List<String> symbols, List<TimeSeriesData> data) {
+        this.symbols = symbols;
+        this.data = data;
+        this.merge = new TimestampMerge(data.stream().map(series -> series.timestamps).toArray(long[][]::new));
+    }
+
+    boolean next() {
+        return merge.next();
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    public long getTimestamp() {
+        return merge.timestamp();
+    }
+
+    public LocalDateTime getDatetime() {
+        return LocalDateTime.ofEpochSecond(merge.timestamp(), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Enriched time-series of the asset, read it at {@link #index(int)} or before.
+     */
+    public TimeSeriesData getData(int asset) {
+        return data.get(asset);
+    }
+
+    /**
+     * @return latest bar of the asset at or before the current timestamp, -1 if its series has not started yet
+     */
+    public int index(int asset) {
+        return merge.index(asset);
+    }
+
+    public boolean hasStarted(int asset) {
+        return merge.index(asset) >= 0;
+    }
+
+    /**
+     * @return latest close of the asset, NaN if its series has not started yet
+     */
+    public double close(int asset) {
+        int index = merge.index(asset);
+        return index < 0 ? Double.NaN : data.get(asset).close[index];
+    }
+
+    /**
+     * @return latest value of the asset's indicator column, NaN if its series has not started yet
+     */
+    public double indicator(int asset, String name) {
+        int index = merge.index(asset);
+        return index < 0 ? Double.NaN : data.get(asset).getIndicator(name)[index];
+    }
+
+    public int updatedCount() {
+        return merge.updatedCount();
+    }
+
+    /**
+     * @return the i-th asset with a bar at the current timestamp, for i in [0, {@link #updatedCount()})
+     */
+    public int updated(int i) {
+        return merge.updated(i);
+    }
+}
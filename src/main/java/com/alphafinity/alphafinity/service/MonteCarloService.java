@@ -0,0 +1,187 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.ConfidenceInterval;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.MonteCarloResult;
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo analysis of a completed backtest. The returns of the closed trades are resampled many times to build a
+ * distribution of outcomes, giving confidence intervals for the total return, max drawdown and Sharpe ratio instead of
+ * the single values of the one path that actually happened.
+ * <br>
+ * Simulations are split into fixed size tasks that each get their own {@link SplittableRandom}, split from the seed up
+ * front, so the result for a seed does not depend on how the tasks are scheduled.
+ */
+@Service
+public class MonteCarloService {
+
+    private static final int SIMULATIONS_PER_TASK = 1024;
+
+    private final ForkJoinPool backtestPool;
+    private final int simulations;
+    private final double confidenceLevel;
+
+    public MonteCarloService(ForkJoinPool backtestPool,
+                             @Value("${alphafinity.monte-carlo.simulations}") int simulations,
+                             @Value("${alphafinity.monte-carlo.confidence-level}") double confidenceLevel) {
+        this.backtestPool = backtestPool;
+        this.simulations = simulations;
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public MonteCarloResult simulate(Context context, ResamplingMethod method, long seed) {
+        return simulate(context, method, simulations, confidenceLevel, seed);
+    }
+
+    /**
+     * @param context:         context of a completed backtest
+     * @param method:          how the trades are resampled, note that shuffling only changes the order of the trades so
+     *                         it leaves the total return and Sharpe ratio unchanged and only spreads the drawdown
+     * @param simulations:     number of resampled trade sequences
+     * @param confidenceLevel: width of the reported intervals, e.g. 0.95 for the 2.5th to 97.5th percentile
+     * @param seed:            seed of the random generator
+     */
+    public MonteCarloResult simulate(Context context, ResamplingMethod method, int simulations, double confidenceLevel, long seed) {
+        if (simulations <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new IllegalArgumentException("Confidence level must be between 0 and 1");
+        }
+
+        double[] returns = tradeReturns(context);
+
+        MonteCarloResult.Builder result = new MonteCarloResult.Builder()
+                .method(method)
+                .simulations(simulations)
+                .trades(returns.length)
+                .seed(seed)
+                .confidenceLevel(confidenceLevel);
+
+        if (returns.length == 0) {
+            return result.build();
+        }
+
+        double[] totalReturns = new double[simulations];
+        double[] maxDrawdowns = new double[simulations];
+        double[] sharpeRatios = new double[simulations];
+
+        int tasks = Math.ceilDiv(simulations, SIMULATIONS_PER_TASK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[tasks];
+        for (int task = 0; task < tasks; task++) {
+            randoms[task] = root.split();
+        }
+
+        backtestPool.submit(() -> IntStream.range(0, tasks).parallel().forEach(task -> {
+                    int from = task * SIMULATIONS_PER_TASK;
+                    int to = Math.min(from + SIMULATIONS_PER_TASK, simulations);
+                    simulateRange(returns, method, randoms[task], from, to, totalReturns, maxDrawdowns, sharpeRatios);
+                }))
+                .join();
+
+        return result
+                .totalReturnAsPercentage(confidenceInterval(totalReturns, confidenceLevel))
+                .maxDrawdown(confidenceInterval(maxDrawdowns, confidenceLevel))
+                .sharpeRatio(confidenceInterval(sharpeRatios, confidenceLevel))
+                .build();
+    }
+
+    /**
+     * Return of every closed trade relative to the realised capital before it, so the trades compound back to the
+     * ending capital when replayed in their original order.
+     */
+    private double[] tradeReturns(Context context) {
+        List<Transaction> closedTransactions = context.getClosedTransactions();
+        double[] returns = new double[closedTransactions.size()];
+        double capital = context.account.initialCapital;
+
+        for (int i = 0; i < returns.length; i++) {
+            double profit = closedTransactions.get(i).profit;
+            returns[i] = profit / capital;
+            capital += profit;
+        }
+
+        return returns;
+    }
+
+    private static void simulateRange(double[] returns, ResamplingMethod method, SplittableRandom random, int from, int to,
+                                      double[] totalReturns, double[] maxDrawdowns, double[] sharpeRatios) {
+        int trades = returns.length;
+        double[] sample = new double[trades];
+
+        for (int simulation = from; simulation < to; simulation++) {
+            resample(returns, sample, method, random);
+
+            double equity = 1.0;
+            double peak = 1.0;
+            double maxDrawdown = 0.0;
+            double sum = 0.0;
+            double sumOfSquares = 0.0;
+
+            for (double tradeReturn : sample) {
+                equity *= 1 + tradeReturn;
+                peak = Math.max(peak, equity);
+                maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+                sum += tradeReturn;
+                sumOfSquares += tradeReturn * tradeReturn;
+            }
+
+            double mean = sum / trades;
+            double standardDeviation = Math.sqrt(Math.max(0.0, sumOfSquares / trades - mean * mean));
+
+            totalReturns[simulation] = (equity - 1) * 100;
+            maxDrawdowns[simulation] = maxDrawdown;
+            // Per-trade Sharpe ratio, a sample without any variation (e.g. a single trade) has no meaningful ratio
+            sharpeRatios[simulation] = standardDeviation > 0 ? mean / standardDeviation : 0.0;
+        }
+    }
+
+    private static void resample(double[] returns, double[] sample, ResamplingMethod method, SplittableRandom random) {
+        int trades = returns.length;
+
+        switch (method) {
+            case BOOTSTRAP -> {
+                for (int i = 0; i < trades; i++) {
+                    sample[i] = returns[random.nextInt(trades)];
+                }
+            }
+            case SHUFFLE -> {
+                // Fisher-Yates
+                System.arraycopy(returns, 0, sample, 0, trades);
+                for (int i = trades - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    double swap = sample[i];
+                    sample[i] = sample[j];
+                    sample[j] = swap;
+                }
+            }
+        }
+    }
+
+    private static ConfidenceInterval confidenceInterval(double[] values, double confidenceLevel) {
+        Arrays.sort(values);
+        double tail = (1 - confidenceLevel) / 2;
+
+        return new ConfidenceInterval.Builder()
+                .lower(percentile(values, tail))
+                .median(percentile(values, 0.5))
+                .upper(percentile(values, 1 - tail))
+                .build();
+    }
+
+    // Nearest rank on sorted values
+    private static double percentile(double[] sortedValues, double percentile) {
+        return sortedValues[(int) Math.round(percentile * (sortedValues.length - 1))];
+    }
+}
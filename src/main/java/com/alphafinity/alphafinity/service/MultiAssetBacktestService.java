@@ -0,0 +1,139 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.*;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backtests a strategy over several assets at once with shared cash. The bars of every asset are merged into one timeline
+ * with a k-way merge over their timestamp columns, the strategy is called once per timestamp and the portfolio is valued
+ * after it. The assets are read in place in a single pass, the only state kept per timestamp is the portfolio state,
+ * which a monitor can take over instead of the report retaining it.
+ */
+@Service
+public class MultiAssetBacktestService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiAssetBacktestService.class);
+
+    private final BacktestService backtestService;
+    private final BacktestValidationService validationService;
+    private final BacktestTradeExecutor tradeExecutor;
+
+    public MultiAssetBacktestService(BacktestService backtestService,
+                                     BacktestValidationService validationService,
+                                     BacktestTradeExecutor tradeExecutor) {
+        this.backtestService = backtestService;
+        this.validationService = validationService;
+        this.tradeExecutor = tradeExecutor;
+    }
+
+    public MultiAssetResult executeStrategy(Context context, MultiAssetStrategy strategy, TimeSeriesData benchmarkTimeSeriesData,
+                                            Map<String, TimeSeriesData> rawSymbolTimeSeriesData) {
+        return executeStrategy(context, strategy, benchmarkTimeSeriesData, rawSymbolTimeSeriesData, BacktestMonitor.NONE);
+    }
+
+    /**
+     * @param rawSymbolTimeSeriesData: time-series data of every asset keyed by symbol, in the order the strategy sees them
+     * @param monitor:                 is given the running metrics after every timestamp, with the position of the timestamp
+     *                                 in the merged timeline as the index
+     */
+    public MultiAssetResult executeStrategy(Context context, MultiAssetStrategy strategy, TimeSeriesData benchmarkTimeSeriesData,
+                                            Map<String, TimeSeriesData> rawSymbolTimeSeriesData, BacktestMonitor monitor) {
+        LOGGER.info("[Backtest] Starting backtesting of: " + strategy.strategyName() + " over " + rawSymbolTimeSeriesData.size() + " symbols");
+        validationService.validateSymbols(benchmarkTimeSeriesData, rawSymbolTimeSeriesData);
+
+        List<String> symbols = List.copyOf(rawSymbolTimeSeriesData.keySet());
+        List<TimeSeriesData> data = symbols.stream()
+                .map(symbol -> backtestService.enrichData(rawSymbolTimeSeriesData.get(symbol)))
+                .toList();
+
+        MarketSnapshot market = new MarketSnapshot(symbols, data);
+        MultiAssetPortfolio portfolio = new MultiAssetPortfolio(context.account.initialCapital, symbols.size());
+        Context portfolioContext = new Context.Builder().build();
+
+        LocalDateTime startDate = null;
+        LocalDateTime endDate = null;
+        for (int index = 0; market.next(); index++) {
+            strategy.onTimestamp(portfolio, market);
+
+            // Assets without a bar at this timestamp keep the value of their latest bar
+            for (int i = 0; i < market.updatedCount(); i++) {
+                int asset = market.updated(i);
+                portfolio.markToMarket(asset, market.close(asset));
+            }
+
+            recordState(portfolio, portfolioContext, market, monitor);
+            startDate = startDate == null ? market.getDatetime() : startDate;
+            endDate = market.getDatetime();
+
+            if (!monitor.onBar(index, portfolio.getMetrics())) {
+                LOGGER.debug("[Backtest] Stopped by monitor at " + endDate);
+                break;
+            }
+        }
+
+        closeOutOpenTrades(portfolio, market);
+        portfolio.updateMetrics();
+
+        Context finalContext = new Context.Builder(portfolioContext)
+                .account(new Account.Builder()
+                        .initialCapital(portfolio.getInitialCapital())
+                        .currentCapital(portfolio.getCash())
+                        .build())
+                .analytics(new Analytics.Builder(portfolio.getLedger())
+                        .startDate(startDate)
+                        .build())
+                .build();
+
+        MultiAssetResult.Builder result = new MultiAssetResult.Builder()
+                .symbols(symbols)
+                .portfolio(backtestService.generateAnalytics(finalContext, portfolio.getMetrics(), endDate, benchmarkTimeSeriesData));
+        for (int asset = 0; asset < symbols.size(); asset++) {
+            result.transactions(symbols.get(asset), portfolio.getTransactions(asset));
+        }
+
+        LOGGER.info("[Backtest] Completed backtesting of strategy");
+        return result.build();
+    }
+
+    // Same statistics as a single-asset run, over the whole portfolio
+    private void recordState(MultiAssetPortfolio portfolio, Context portfolioContext, MarketSnapshot market, BacktestMonitor monitor) {
+        double currentAccountValue = portfolio.recordMetrics();
+        double currentProfit = currentAccountValue - portfolio.getInitialCapital();
+        double currentProfitPercentage = (currentProfit / portfolio.getInitialCapital()) * 100;
+
+        State state = new State.Builder()
+                .currentTime(market.getDatetime())
+                .currentAccountValue(currentAccountValue)
+                .currentProfit(currentProfit)
+                .currentProfitPercentage(currentProfitPercentage)
+                .build();
+
+        monitor.onState(state);
+
+        if (monitor.retainsStates()) {
+            portfolioContext.states.add(state);
+        }
+    }
+
+    // Every asset is closed out at its own latest bar
+    private void closeOutOpenTrades(MultiAssetPortfolio portfolio, MarketSnapshot market) {
+        for (int asset = 0; asset < market.size(); asset++) {
+            if (!portfolio.hasOpenPositions(asset)) {
+                continue;
+            }
+
+            Transaction order = new Transaction.Builder()
+                    .type(TransactionType.LONG_CLOSE)
+                    .price(market.close(asset))
+                    .time(market.getData(asset).getDatetime(market.index(asset)))
+                    .build();
+            portfolio.trade(asset, context -> tradeExecutor.close(context, context.getActiveTransactions(), order));
+        }
+    }
+}
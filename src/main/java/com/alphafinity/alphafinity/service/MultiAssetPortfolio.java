@@ -0,0 +1,187 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Account;
+import com.alphafinity.alphafinity.model.Analytics;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.Transaction;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mutable handle on the state of a running multi-asset backtest. Every asset has its own {@link Portfolio} holding its
+ * positions, the cash is shared: it is handed to the asset's account for the length of a trade and taken back afterwards.
+ * There is a single ledger, the analytics of every asset's context append to it, and each asset only keeps the positions
+ * of its rows in it. The value of the open positions is kept per asset at the asset's latest price, so valuing the whole
+ * portfolio only touches the assets that traded or moved.
+ */
+public class MultiAssetPortfolio {
+
+    private final double initialCapital;
+    private final Portfolio[] assets;
+    private final double[] prices;
+    private final double[] positionValues;
+    private final List<Transaction> ledger = new ArrayList<>(); // Every asset's transactions in execution order
+    private final int[][] ledgerRows; // Per asset, the positions of its transactions in the ledger
+    private final int[] ledgerRowCounts;
+    private final RunningMetrics metrics;
+
+    private double cash;
+    private double openPositionValue;
+    private int assetsWithPositions;
+
+    public MultiAssetPortfolio(double initialCapital, int assets) {
+        this.initialCapital = initialCapital;
+        this.cash = initialCapital;
+        this.metrics = new RunningMetrics(initialCapital);
+        this.assets = new Portfolio[assets];
+        this.prices = new double[assets];
+        this.positionValues = new double[assets];
+        this.ledgerRows = new int[assets][];
+        this.ledgerRowCounts = new int[assets];
+
+        for (int asset = 0; asset < assets; asset++) {
+            Context context = new Context.Builder()
+                    .account(new Account.Builder()
+                            .initialCapital(initialCapital)
+                            .currentCapital(initialCapital)
+                            .build())
+                    .analytics(new Analytics.Builder(ledger).build())
+                    .build();
+            this.assets[asset] = new Portfolio(context);
+            this.ledgerRows[asset] = new int[8];
+        }
+    }
+
+    /**
+     * Executes a trade on the asset's context with the shared cash, for example
+     * {@code portfolio.trade(asset, context -> tradeExecutor.buy(context, order))}.
+     */
+    public void trade(int asset, UnaryOperator<Context> trade) {
+        Portfolio portfolio = assets[asset];
+        Context context = portfolio.getContext();
+        boolean hadPositions = portfolio.hasOpenPositions();
+        int ledgerSize = ledger.size();
+
+        Context funded = new Context.Builder(context)
+                .account(new Account.Builder(context)
+                        .currentCapital(cash)
+                        .build())
+                .build();
+        portfolio.update(trade.apply(funded));
+        cash = portfolio.getCash();
+
+        if (portfolio.getContext().analytics.transactions != ledger) {
+            throw new IllegalStateException("Trade on asset " + asset + " did not append to the shared ledger");
+        }
+        for (int row = ledgerSize; row < ledger.size(); row++) {
+            addLedgerRow(asset, row);
+        }
+
+        if (hadPositions != portfolio.hasOpenPositions()) {
+            assetsWithPositions += hadPositions ? -1 : 1;
+        }
+        revalue(asset);
+    }
+
+    /**
+     * Values the asset's open positions at its latest price.
+     */
+    public void markToMarket(int asset, double price) {
+        prices[asset] = price;
+        revalue(asset);
+    }
+
+    /**
+     * Updates the running metrics with the current timestamp and any trades made on it.
+     *
+     * @return account value, cash plus the value of the open positions of every asset
+     */
+    double recordMetrics() {
+        double accountValue = getAccountValue();
+        metrics.onBar(accountValue, assetsWithPositions > 0);
+        metrics.onLedger(ledger);
+        return accountValue;
+    }
+
+    // Picks up trades made outside of a timestamp, such as closing out open trades at the end of the run
+    void updateMetrics() {
+        metrics.onLedger(ledger);
+    }
+
+    private void addLedgerRow(int asset, int row) {
+        if (ledgerRowCounts[asset] == ledgerRows[asset].length) {
+            ledgerRows[asset] = Arrays.copyOf(ledgerRows[asset], ledgerRows[asset].length * 2);
+        }
+        ledgerRows[asset][ledgerRowCounts[asset]++] = row;
+    }
+
+    private void revalue(int asset) {
+        double value = assets[asset].hasOpenPositions() ? assets[asset].openPositionValue(prices[asset]) : 0.0;
+        openPositionValue += value - positionValues[asset];
+        positionValues[asset] = value;
+    }
+
+    public double getInitialCapital() {
+        return initialCapital;
+    }
+
+    public double getCash() {
+        return cash;
+    }
+
+    public double getAccountValue() {
+        return cash + openPositionValue;
+    }
+
+    public double getOpenPositionValue(int asset) {
+        return positionValues[asset];
+    }
+
+    public boolean hasOpenPositions(int asset) {
+        return assets[asset].hasOpenPositions();
+    }
+
+    public int getAssetsWithPositions() {
+        return assetsWithPositions;
+    }
+
+    /**
+     * Open positions of a single asset. Its cash is only meaningful during a trade, use {@link #getCash()}, and its
+     * analytics hold the shared ledger, use {@link #getTransactions(int)}.
+     */
+    public Context getContext(int asset) {
+        return assets[asset].getContext();
+    }
+
+    public List<Transaction> getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Transactions of a single asset in execution order, as a view over the shared ledger as of this call.
+     */
+    public List<Transaction> getTransactions(int asset) {
+        int[] rows = ledgerRows[asset];
+        int count = ledgerRowCounts[asset];
+        return new AbstractList<>() {
+            @Override
+            public Transaction get(int index) {
+                return ledger.get(rows[Objects.checkIndex(index, count)]);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public RunningMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,11 @@
+package com.alphafinity.alphafinity.service;
+
+/**
+ * Strategy trading several assets out of one pool of cash. It is called once per timestamp of the merged timeline with
+ * the state of every asset, and trades any of them through the portfolio.
+ */
+public abstract class MultiAssetStrategy {
+
+    public abstract void onTimestamp(MultiAssetPortfolio portfolio, MarketSnapshot market);
+    public abstract String strategyName();
+}
@@ -0,0 +1,197 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.SweepResult;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.enumerations.SweepMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a strategy once for every combination of a parameter grid. The data is enriched once and shared by every run, the
+ * runs themselves are spread over a fork-join pool sized to the number of available cores.
+ */
+@Service
+public class ParameterSweepService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterSweepService.class);
+
+    private final BacktestService backtestService;
+    private final BacktestValidationService validationService;
+    private final ForkJoinPool backtestPool;
+    private final int maxCombinations;
+
+    public ParameterSweepService(BacktestService backtestService,
+                                 BacktestValidationService validationService,
+                                 ForkJoinPool backtestPool,
+                                 @Value("${alphafinity.sweep.max-combinations}") int maxCombinations) {
+        this.backtestService = backtestService;
+        this.validationService = validationService;
+        this.backtestPool = backtestPool;
+        this.maxCombinations = maxCombinations;
+    }
+
+    /**
+     * @param strategy: strategy to sweep
+     * @param grid:     values to try for each parameter, parameters not in the grid keep the strategy's current value
+     * @param rankBy:   metric used to rank the results, best first
+     * @return one result per parameter combination, ranked
+     */
+    public List<SweepResult> sweep(Strategy strategy, Map<String, List<Double>> grid, SweepMetric rankBy,
+                                   TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData rawStrategyTimeSeriesData) {
+        return sweep(strategy, grid, rankBy, null, benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
+    }
+
+    /**
+     * @param maxDrawdown: optional drawdown of the account value (as a fraction of its peak, e.g. 0.3) at which a run is
+     *                     abandoned, stopped runs are reported as such and ranked after every completed run
+     */
+    public List<SweepResult> sweep(Strategy strategy, Map<String, List<Double>> grid, SweepMetric rankBy, Double maxDrawdown,
+                                   TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData rawStrategyTimeSeriesData) {
+        List<Map<String, Double>> combinations = validateGrid(strategy, grid);
+
+        LOGGER.info("[Sweep] Starting sweep of " + combinations.size() + " parameter combinations for: " + strategy.strategyName());
+        validationService.validateTimeframes(benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
+
+        TimeSeriesData strategyTimeSeriesData = backtestService.enrichData(rawStrategyTimeSeriesData);
+
+        List<SweepResult> rankedResults = rank(runAll(strategy, combinations, benchmarkTimeSeriesData, strategyTimeSeriesData,
+                0, strategyTimeSeriesData.size(), maxDrawdown), rankBy);
+
+        LOGGER.info("[Sweep] Completed sweep");
+        return rankedResults;
+    }
+
+    /**
+     * Sweeps the bars in [fromIndex, toIndex) of data that has already been validated and enriched, so several sweeps can
+     * share the same enriched data.
+     */
+    public List<SweepResult> sweep(Strategy strategy, Map<String, List<Double>> grid, SweepMetric rankBy,
+                                   TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData,
+                                   int fromIndex, int toIndex) {
+        List<Map<String, Double>> combinations = validateGrid(strategy, grid);
+
+        return rank(runAll(strategy, combinations, benchmarkTimeSeriesData, strategyTimeSeriesData, fromIndex, toIndex, null), rankBy);
+    }
+
+    /**
+     * Expands the grid and checks it can be run: within the combination limit and only using parameters the strategy has.
+     */
+    public List<Map<String, Double>> validateGrid(Strategy strategy, Map<String, List<Double>> grid) {
+        List<Map<String, Double>> combinations = expandGrid(grid);
+
+        if (combinations.size() > maxCombinations) {
+            throw new IllegalArgumentException("Parameter grid has " + combinations.size() + " combinations, the maximum is " + maxCombinations);
+        }
+
+        // Fails fast on unknown parameter names before any work is done
+        strategy.withParameters(combinations.getFirst());
+        return combinations;
+    }
+
+    private List<SweepResult> runAll(Strategy strategy, List<Map<String, Double>> combinations, TimeSeriesData benchmarkTimeSeriesData,
+                                     TimeSeriesData strategyTimeSeriesData, int fromIndex, int toIndex, Double maxDrawdown) {
+        return backtestPool.submit(() -> combinations.parallelStream()
+                        .map(parameters -> run(strategy, parameters, benchmarkTimeSeriesData, strategyTimeSeriesData, fromIndex, toIndex, maxDrawdown))
+                        .toList())
+                .join();
+    }
+
+    private SweepResult run(Strategy strategy, Map<String, Double> parameters, TimeSeriesData benchmarkTimeSeriesData,
+                            TimeSeriesData strategyTimeSeriesData, int fromIndex, int toIndex, Double maxDrawdown) {
+        DrawdownLimit monitor = new DrawdownLimit(maxDrawdown == null ? Double.POSITIVE_INFINITY : maxDrawdown);
+
+        Context context = backtestService.executeStrategyOnEnrichedData(new Context.Builder().build(),
+                strategy.withParameters(parameters), benchmarkTimeSeriesData, strategyTimeSeriesData, fromIndex, toIndex, monitor);
+
+        return new SweepResult.Builder()
+                .parameters(parameters)
+                .analytics(context.analytics)
+                .stoppedEarly(monitor.stopped)
+                .build();
+    }
+
+    // Cartesian product of the grid, an empty grid is a single run with the current parameters
+    private List<Map<String, Double>> expandGrid(Map<String, List<Double>> grid) {
+        List<Map<String, Double>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>());
+
+        for (Map.Entry<String, List<Double>> parameter : grid.entrySet()) {
+            if (parameter.getValue() == null || parameter.getValue().isEmpty()) {
+                throw new IllegalArgumentException("No values given for parameter " + parameter.getKey());
+            }
+
+            List<Map<String, Double>> expanded = new ArrayList<>(combinations.size() * parameter.getValue().size());
+            for (Map<String, Double> combination : combinations) {
+                for (Double value : parameter.getValue()) {
+                    Map<String, Double> next = new LinkedHashMap<>(combination);
+                    next.put(parameter.getKey(), value);
+                    expanded.add(next);
+                }
+            }
+            combinations = expanded;
+
+            if (combinations.size() > maxCombinations) {
+                break; // Rejected by the caller, no need to keep expanding
+            }
+        }
+
+        return combinations;
+    }
+
+    private List<SweepResult> rank(List<SweepResult> results, SweepMetric rankBy) {
+        List<SweepResult> sortedResults = results.stream()
+                .sorted(Comparator.comparing((SweepResult result) -> result.stoppedEarly).thenComparing(comparator(rankBy)))
+                .toList();
+
+        return IntStream.range(0, sortedResults.size())
+                .mapToObj(i -> new SweepResult.Builder(sortedResults.get(i))
+                        .rank(i + 1)
+                        .build())
+                .toList();
+    }
+
+    private Comparator<SweepResult> comparator(SweepMetric rankBy) {
+        return switch (rankBy) {
+            case TOTAL_RETURN -> highestFirst(result -> result.totalReturn);
+            case SHARPE_RATIO -> highestFirst(result -> result.sharpeRatio);
+            case WIN_RATE -> highestFirst(result -> result.winRate);
+            case MAX_DRAWDOWN -> Comparator.comparingDouble(result -> orElse(result.maxDrawdown, Double.POSITIVE_INFINITY));
+        };
+    }
+
+    // Missing or NaN metrics (e.g. the Sharpe ratio of a run without trades) are ranked last
+    private Comparator<SweepResult> highestFirst(Function<SweepResult, Double> metric) {
+        return Comparator.comparingDouble((SweepResult result) -> orElse(metric.apply(result), Double.NEGATIVE_INFINITY)).reversed();
+    }
+
+    private static double orElse(Double value, double fallback) {
+        return value == null || value.isNaN() ? fallback : value;
+    }
+
+    // Stops a run as soon as the account value falls too far below its peak
+    private static class DrawdownLimit implements BacktestMonitor {
+        private final double maxDrawdown;
+        private boolean stopped;
+
+        private DrawdownLimit(double maxDrawdown) {
+            this.maxDrawdown = maxDrawdown;
+        }
+
+        @Override
+        public boolean onBar(int index, RunningMetrics metrics) {
+            stopped = metrics.getCurrentDrawdown() > maxDrawdown;
+            return !stopped;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Mutable handle on the state of a running backtest. The simulation loop keeps a single portfolio per run and hands it to
+ * {@link Strategy#onBar} on every bar. The checks made on every bar (is there an open position, what is it worth) are
+ * answered by the account's position book without allocating, the context itself is only replaced when a trade is executed.
+ */
+public class Portfolio {
+
+    private Context context;
+    private final RunningMetrics metrics;
+
+    public Portfolio(Context context) {
+        this.context = context;
+        this.metrics = new RunningMetrics(context.account.initialCapital);
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    // Called with the context returned by the trade executor after a trade
+    public void update(Context context) {
+        this.context = context;
+    }
+
+    public RunningMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Values the account at the given price and updates the running metrics with this bar and any trades made on it.
+     *
+     * @return account value, cash plus the value of the open positions
+     */
+    public double markToMarket(double price) {
+        double accountValue = openPositionValue(price) + context.account.currentCapital;
+        metrics.onBar(accountValue, hasOpenPositions());
+        metrics.onLedger(context.analytics.transactions);
+        return accountValue;
+    }
+
+    // Picks up trades made outside of a bar, such as closing out open trades at the end of the run
+    public void updateMetrics() {
+        metrics.onLedger(context.analytics.transactions);
+    }
+
+    public double getCash() {
+        return context.account.currentCapital;
+    }
+
+    public boolean hasOpenPositions() {
+        return !context.account.activeTrades.isEmpty();
+    }
+
+    /**
+     * Value of all open positions at the given price.
+     */
+    public double openPositionValue(double price) {
+        return context.account.activeTrades.marketValue(price);
+    }
+
+    /**
+     * Open positions whose profit at the given price is at least the threshold, as a percentage of their entry value.
+     * Returns an empty list without allocating when there are none.
+     */
+    public List<Transaction> openPositionsAtProfit(double price, double thresholdPercentage) {
+        return context.account.activeTrades.lotsAtProfit(price, thresholdPercentage);
+    }
+}
@@ -0,0 +1,265 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Analytics;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.Transaction;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Encodes backtest reports for large runs, where the states and the ledger dominate the size of the report.
+ * <ul>
+ *   <li>Projection: only the requested top-level fields of the report are written. The ledger inside the analytics is
+ *   only written when "transactions" is requested, and the columnar encodings only write it as the transaction columns.</li>
+ *   <li>Columnar JSON: states and transactions are written as one array per field instead of one object per row, times
+ *   as epoch seconds (UTC).</li>
+ *   <li>Binary: the same columns as little-endian primitives after a JSON header holding the rest of the report:
+ *   <pre>
+ *   magic (int) | version (int) | header length (int) | header (UTF-8 JSON)
+ *   states        count (int, -1 if not requested) | currentTime (long) | currentAccountValue | currentProfit | currentProfitPercentage (double)
+ *   transactions  count (int, -1 if not requested) | time (long) | price | totalCost | profit (double) | quantity (int)
+ *                 | type | operation | quantityEnum (byte, enum ordinal)
+ *   </pre>
+ *   Missing values are NaN for doubles, {@link Long#MIN_VALUE} for times and -1 for quantities and enums.</li>
+ * </ul>
+ */
+@Service
+public class ReportEncodingService {
+
+    public static final String COLUMNAR_JSON = "application/vnd.alphafinity.columnar+json";
+    public static final String BINARY = "application/vnd.alphafinity.columnar";
+
+    public static final int MAGIC = 0x41465231; // "AFR1"
+    private static final int VERSION = 1;
+
+    public static final String ACCOUNT = "account";
+    public static final String ANALYTICS = "analytics";
+    public static final String BENCHMARK_ANALYTICS = "benchmarkAnalytics";
+    public static final String MONTE_CARLO = "monteCarlo";
+    public static final String STATES = "states";
+    public static final String TRANSACTIONS = "transactions";
+    public static final Set<String> FIELDS = Set.of(ACCOUNT, ANALYTICS, BENCHMARK_ANALYTICS, MONTE_CARLO, STATES, TRANSACTIONS);
+
+    private final ObjectMapper mapper;
+    private final ObjectMapper mapperWithoutLedger;
+
+    public ReportEncodingService(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.mapperWithoutLedger = mapper.copy().addMixIn(Analytics.class, AnalyticsWithoutLedger.class);
+    }
+
+    /**
+     * @param fields: comma separated top-level fields, null or blank for all of them
+     */
+    public Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return FIELDS;
+        }
+
+        Set<String> selected = Set.copyOf(Arrays.stream(fields.split(",")).map(String::trim).toList());
+        selected.stream()
+                .filter(field -> !FIELDS.contains(field))
+                .findFirst()
+                .ifPresent(field -> {
+                    throw new IllegalArgumentException("Unknown report field " + field + ", expected any of " + FIELDS);
+                });
+        return selected;
+    }
+
+    /**
+     * The report as a map of the selected fields, for the regular JSON encoding. All fields gives the same properties as
+     * the context itself.
+     */
+    public Map<String, Object> project(Context context, Set<String> fields) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        putIfSelected(report, fields, ACCOUNT, context.account);
+        putIfSelected(report, fields, ANALYTICS, context.analytics);
+        putIfSelected(report, fields, BENCHMARK_ANALYTICS, context.benchmarkAnalytics);
+        putIfSelected(report, fields, STATES, context.states);
+        putIfSelected(report, fields, MONTE_CARLO, context.monteCarlo);
+        if (fields.contains(TRANSACTIONS)) {
+            report.put("activeTransactions", context.getActiveTransactions());
+            report.put("closedTransactions", context.getClosedTransactions());
+            report.put("transactions", context.getTransactions());
+        }
+        return report;
+    }
+
+    public byte[] encodeJson(Context context, Set<String> fields) throws IOException {
+        return writerFor(fields).writeValueAsBytes(project(context, fields));
+    }
+
+    public byte[] encodeColumnarJson(Context context, Set<String> fields) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (JsonGenerator generator = mapperWithoutLedger.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> field : header(context, fields).entrySet()) {
+                generator.writeFieldName(field.getKey());
+                mapperWithoutLedger.writeValue(generator, field.getValue());
+            }
+
+            if (fields.contains(STATES)) {
+                List<State> states = context.states;
+                generator.writeObjectFieldStart(STATES);
+                writeTimeColumn(generator, "currentTime", states, state -> state.currentTime);
+                writeNumberColumn(generator, "currentAccountValue", states, state -> state.currentAccountValue);
+                writeNumberColumn(generator, "currentProfit", states, state -> state.currentProfit);
+                writeNumberColumn(generator, "currentProfitPercentage", states, state -> state.currentProfitPercentage);
+                generator.writeEndObject();
+            }
+
+            if (fields.contains(TRANSACTIONS)) {
+                List<Transaction> transactions = ledger(context);
+                generator.writeObjectFieldStart(TRANSACTIONS);
+                writeTimeColumn(generator, "time", transactions, transaction -> transaction.time);
+                writeNumberColumn(generator, "price", transactions, transaction -> transaction.price);
+                writeNumberColumn(generator, "totalCost", transactions, transaction -> transaction.totalCost);
+                writeNumberColumn(generator, "profit", transactions, transaction -> transaction.profit);
+                writeNumberColumn(generator, "quantity", transactions, transaction -> transaction.quantity);
+                writeEnumColumn(generator, "type", transactions, transaction -> transaction.type);
+                writeEnumColumn(generator, "operation", transactions, transaction -> transaction.operation);
+                writeEnumColumn(generator, "quantityEnum", transactions, transaction -> transaction.quantityEnum);
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    public byte[] encodeBinary(Context context, Set<String> fields) throws IOException {
+        byte[] header = mapperWithoutLedger.writeValueAsBytes(header(context, fields));
+        List<State> states = fields.contains(STATES) ? context.states : List.of();
+        List<Transaction> transactions = fields.contains(TRANSACTIONS) ? ledger(context) : List.of();
+
+        long size = 3L * Integer.BYTES + header.length
+                + Integer.BYTES + (long) states.size() * 4 * Long.BYTES
+                + Integer.BYTES + (long) transactions.size() * (4 * Long.BYTES + Integer.BYTES + 3);
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(header.length)
+                .put(header);
+
+        buffer.putInt(fields.contains(STATES) ? states.size() : -1);
+        states.forEach(state -> buffer.putLong(epochSecond(state.currentTime)));
+        states.forEach(state -> buffer.putDouble(orNaN(state.currentAccountValue)));
+        states.forEach(state -> buffer.putDouble(orNaN(state.currentProfit)));
+        states.forEach(state -> buffer.putDouble(orNaN(state.currentProfitPercentage)));
+
+        buffer.putInt(fields.contains(TRANSACTIONS) ? transactions.size() : -1);
+        transactions.forEach(transaction -> buffer.putLong(epochSecond(transaction.time)));
+        transactions.forEach(transaction -> buffer.putDouble(orNaN(transaction.price)));
+        transactions.forEach(transaction -> buffer.putDouble(orNaN(transaction.totalCost)));
+        transactions.forEach(transaction -> buffer.putDouble(orNaN(transaction.profit)));
+        transactions.forEach(transaction -> buffer.putInt(transaction.quantity == null ? -1 : transaction.quantity));
+        transactions.forEach(transaction -> buffer.put(ordinal(transaction.type)));
+        transactions.forEach(transaction -> buffer.put(ordinal(transaction.operation)));
+        transactions.forEach(transaction -> buffer.put(ordinal(transaction.quantityEnum)));
+
+        return buffer.array();
+    }
+
+    // Selected fields that are not written as columns, the ledger is left out of the analytics as it is written as columns
+    private Map<String, Object> header(Context context, Set<String> fields) {
+        Map<String, Object> header = new LinkedHashMap<>();
+        putIfSelected(header, fields, ACCOUNT, context.account);
+        putIfSelected(header, fields, ANALYTICS, context.analytics);
+        putIfSelected(header, fields, BENCHMARK_ANALYTICS, context.benchmarkAnalytics);
+        putIfSelected(header, fields, MONTE_CARLO, context.monteCarlo);
+        return header;
+    }
+
+    // The columnar encodings write the full ledger once, closed trades are the rows with the CLOSE operation
+    private static List<Transaction> ledger(Context context) {
+        return context.analytics != null ? context.analytics.transactions : List.of();
+    }
+
+    // The row JSON encoding writes the ledger inside the analytics when transactions are selected
+    private ObjectMapper writerFor(Set<String> fields) {
+        return fields.contains(TRANSACTIONS) ? mapper : mapperWithoutLedger;
+    }
+
+    private static void putIfSelected(Map<String, Object> report, Set<String> fields, String field, Object value) {
+        if (fields.contains(field)) {
+            report.put(field, value);
+        }
+    }
+
+    private static <T> void writeTimeColumn(JsonGenerator generator, String name, List<T> rows,
+                                            Function<T, LocalDateTime> column) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (T row : rows) {
+            LocalDateTime time = column.apply(row);
+            if (time == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(TimeSeriesData.toEpochSecond(time));
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static <T> void writeNumberColumn(JsonGenerator generator, String name, List<T> rows,
+                                              Function<T, Number> column) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (T row : rows) {
+            Number value = column.apply(row);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer integer) {
+                generator.writeNumber(integer);
+            } else {
+                generator.writeNumber(value.doubleValue());
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static <T> void writeEnumColumn(JsonGenerator generator, String name, List<T> rows,
+                                            Function<T, Enum<?>> column) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (T row : rows) {
+            Enum<?> value = column.apply(row);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value.name());
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : TimeSeriesData.toEpochSecond(time);
+    }
+
+    private static double orNaN(Number value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value == null ? -1 : value.ordinal());
+    }
+
+    @JsonIgnoreProperties({"transactions"})
+    private abstract static class AnalyticsWithoutLedger {
+    }
+}
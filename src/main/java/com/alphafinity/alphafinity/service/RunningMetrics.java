@@ -0,0 +1,108 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Metrics of a running backtest, updated on every bar so they can be read at any point of the run: account value, bar
+ * returns (Welford mean and variance), running peak and drawdown of the account value, exposure and, through
+ * {@link #getTrades()}, the trade statistics of every transaction executed so far.
+ */
+public class RunningMetrics {
+
+    private final double initialCapital;
+    private int bars;
+    private int exposedBars;
+    private double accountValue;
+    private double peakAccountValue;
+    private double currentDrawdown;
+    private double maxDrawdown;
+
+    // Welford's online mean and variance of the bar returns
+    private int returnCount;
+    private double meanReturn;
+    private double squaredDeviations;
+
+    // Ledger of the run, consumed as transactions are appended to it
+    private List<Transaction> ledger;
+    private int consumedTransactions;
+    private AnalyticsAccumulator trades;
+
+    public RunningMetrics(double initialCapital) {
+        this.initialCapital = initialCapital;
+        this.trades = new AnalyticsAccumulator(initialCapital);
+    }
+
+    void onBar(double accountValue, boolean exposed) {
+        if (bars > 0 && this.accountValue > 0) { // No return on a bar after the account was worth nothing
+            double barReturn = accountValue / this.accountValue - 1;
+            returnCount++;
+            double delta = barReturn - meanReturn;
+            meanReturn += delta / returnCount;
+            squaredDeviations += delta * (barReturn - meanReturn);
+        }
+
+        bars++;
+        if (exposed) {
+            exposedBars++;
+        }
+
+        this.accountValue = accountValue;
+        peakAccountValue = Math.max(peakAccountValue, accountValue);
+        // An account that has never been worth more than 0 has no peak to draw down from
+        currentDrawdown = peakAccountValue <= 0 ? 0.0 : (peakAccountValue - accountValue) / peakAccountValue;
+        maxDrawdown = Math.max(maxDrawdown, currentDrawdown);
+    }
+
+    /**
+     * Feeds the transactions appended to the ledger since the last call to the trade statistics. Trade executors append
+     * to the ledger of the context, if a context comes back with a different ledger the statistics start over from it.
+     */
+    void onLedger(List<Transaction> transactions) {
+        if (transactions != ledger) {
+            ledger = transactions;
+            consumedTransactions = 0;
+            trades = new AnalyticsAccumulator(initialCapital);
+        }
+
+        while (consumedTransactions < transactions.size()) {
+            trades.accept(transactions.get(consumedTransactions++));
+        }
+    }
+
+    public int getBars() {
+        return bars;
+    }
+
+    public double getAccountValue() {
+        return accountValue;
+    }
+
+    // Percentage of the bars with an open position
+    public double getExposure() {
+        return bars == 0 ? 0.0 : ((double) exposedBars / bars) * 100;
+    }
+
+    public double getMeanReturn() {
+        return meanReturn;
+    }
+
+    // Population standard deviation of the bar returns
+    public double getReturnStandardDeviation() {
+        return returnCount == 0 ? 0.0 : Math.sqrt(squaredDeviations / returnCount);
+    }
+
+    public double getCurrentDrawdown() {
+        return currentDrawdown;
+    }
+
+    // Largest drop of the account value from its running peak, marked to market on every bar
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public AnalyticsAccumulator getTrades() {
+        return trades;
+    }
+}
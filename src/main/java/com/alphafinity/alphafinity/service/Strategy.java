@@ -4,6 +4,8 @@ import com.alphafinity.alphafinity.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+
 public abstract class Strategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Strategy.class);
@@ -11,4 +13,36 @@ public abstract class Strategy {
     public abstract Context execute(Context context, TimeSeriesEntry data);
     public abstract String strategyName();
 
+    /**
+     * Runs the strategy for the bar at the given index, trading through the portfolio. Strategies override this to read
+     * the columns directly, the default materializes the bar as a {@link TimeSeriesEntry} and goes through {@link #execute}.
+     */
+    public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+        portfolio.update(execute(portfolio.getContext(), data.getEntry(index)));
+    }
+
+    /**
+     * Tunable parameters of the strategy and their current values, keyed by name.
+     */
+    public Map<String, Double> parameters() {
+        return Map.of();
+    }
+
+    /**
+     * Returns a copy of this strategy using the given parameter values, parameters that are not given keep their current value.
+     * Strategies are shared beans so the current instance is never modified.
+     */
+    public Strategy withParameters(Map<String, Double> parameters) {
+        validateParameters(parameters);
+        return this;
+    }
+
+    protected void validateParameters(Map<String, Double> parameters) {
+        parameters.keySet().stream()
+                .filter(name -> !parameters().containsKey(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalArgumentException("Unknown parameter " + name + " for " + strategyName());
+                });
+    }
 }
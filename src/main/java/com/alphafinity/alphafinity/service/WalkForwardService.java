@@ -0,0 +1,144 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.*;
+import com.alphafinity.alphafinity.model.enumerations.SweepMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Walk-forward optimization: the time-series is split into rolling windows, the parameters are optimized on the in-sample
+ * part of a window and then evaluated on the out-of-sample part that directly follows it. Windows run concurrently over
+ * one enriched time-series, each window only reads its own index range.
+ */
+@Service
+public class WalkForwardService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalkForwardService.class);
+
+    private final BacktestService backtestService;
+    private final BacktestValidationService validationService;
+    private final ParameterSweepService parameterSweepService;
+    private final ForkJoinPool backtestPool;
+
+    public WalkForwardService(BacktestService backtestService,
+                              BacktestValidationService validationService,
+                              ParameterSweepService parameterSweepService,
+                              ForkJoinPool backtestPool) {
+        this.backtestService = backtestService;
+        this.validationService = validationService;
+        this.parameterSweepService = parameterSweepService;
+        this.backtestPool = backtestPool;
+    }
+
+    /**
+     * @param grid:            parameter values to optimize over in every in-sample window
+     * @param optimizeBy:      metric used to pick the best in-sample parameters
+     * @param inSampleBars:    number of bars to optimize on
+     * @param outOfSampleBars: number of bars to evaluate on, the windows roll forward by this many bars
+     * @return per-window results and the out-of-sample equity curves stitched together
+     */
+    public WalkForwardResult walkForward(Strategy strategy, Map<String, List<Double>> grid, SweepMetric optimizeBy,
+                                         int inSampleBars, int outOfSampleBars,
+                                         TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData rawStrategyTimeSeriesData) {
+        if (inSampleBars <= 0 || outOfSampleBars <= 0) {
+            throw new IllegalArgumentException("In-sample and out-of-sample windows must have at least one bar");
+        }
+
+        parameterSweepService.validateGrid(strategy, grid);
+        validationService.validateTimeframes(benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
+
+        if (rawStrategyTimeSeriesData.size() <= inSampleBars) {
+            throw new IllegalArgumentException("Time series data has " + rawStrategyTimeSeriesData.size()
+                    + " bars, walk-forward needs more than the " + inSampleBars + " in-sample bars");
+        }
+
+        List<Window> windows = createWindows(rawStrategyTimeSeriesData.size(), inSampleBars, outOfSampleBars);
+        LOGGER.info("[WalkForward] Starting walk-forward of " + windows.size() + " windows for: " + strategy.strategyName());
+
+        TimeSeriesData strategyTimeSeriesData = backtestService.enrichData(rawStrategyTimeSeriesData);
+
+        List<WindowRun> runs = backtestPool.submit(() -> windows.parallelStream()
+                        .map(window -> runWindow(window, strategy, grid, optimizeBy, benchmarkTimeSeriesData, strategyTimeSeriesData))
+                        .toList())
+                .join();
+
+        WalkForwardResult result = stitch(runs, new Context.Builder().build().account.initialCapital);
+
+        LOGGER.info("[WalkForward] Completed walk-forward");
+        return result;
+    }
+
+    private WindowRun runWindow(Window window, Strategy strategy, Map<String, List<Double>> grid, SweepMetric optimizeBy,
+                                TimeSeriesData benchmarkTimeSeriesData, TimeSeriesData strategyTimeSeriesData) {
+        SweepResult best = parameterSweepService.sweep(strategy, grid, optimizeBy, benchmarkTimeSeriesData,
+                strategyTimeSeriesData, window.inSampleFrom, window.outOfSampleFrom).getFirst();
+
+        Context outOfSample = backtestService.executeStrategyOnEnrichedData(new Context.Builder().build(),
+                strategy.withParameters(best.parameters), benchmarkTimeSeriesData, strategyTimeSeriesData,
+                window.outOfSampleFrom, window.outOfSampleTo);
+
+        WalkForwardWindow result = new WalkForwardWindow.Builder()
+                .inSampleStart(strategyTimeSeriesData.getDatetime(window.inSampleFrom))
+                .inSampleEnd(strategyTimeSeriesData.getDatetime(window.outOfSampleFrom - 1))
+                .outOfSampleStart(strategyTimeSeriesData.getDatetime(window.outOfSampleFrom))
+                .outOfSampleEnd(strategyTimeSeriesData.getDatetime(window.outOfSampleTo - 1))
+                .parameters(best.parameters)
+                .inSampleResult(best)
+                .outOfSampleAnalytics(outOfSample.analytics)
+                .build();
+
+        return new WindowRun(result, outOfSample.states);
+    }
+
+    /**
+     * Every window is run from the same initial capital so they can run concurrently, the stitched curve compounds them by
+     * scaling each window's equity by the capital carried over from the windows before it.
+     */
+    private WalkForwardResult stitch(List<WindowRun> runs, double initialCapital) {
+        WalkForwardResult.Builder builder = new WalkForwardResult.Builder()
+                .startingCapital(initialCapital);
+
+        double carriedCapital = initialCapital;
+        for (WindowRun run : runs) {
+            double scale = carriedCapital / initialCapital;
+
+            for (State state : run.states) {
+                double accountValue = state.currentAccountValue * scale;
+                builder.addState(new State.Builder()
+                        .currentTime(state.currentTime)
+                        .currentAccountValue(accountValue)
+                        .currentProfit(accountValue - initialCapital)
+                        .currentProfitPercentage((accountValue - initialCapital) / initialCapital * 100)
+                        .build());
+            }
+
+            carriedCapital = run.window.outOfSampleAnalytics.endingCapital * scale;
+            builder.addWindow(run.window);
+        }
+
+        return builder
+                .endingCapital(carriedCapital)
+                .build();
+    }
+
+    // Rolls forward by the out-of-sample size so the out-of-sample ranges are back to back, the last one may be shorter
+    private static List<Window> createWindows(int size, int inSampleBars, int outOfSampleBars) {
+        List<Window> windows = new ArrayList<>();
+        for (int from = 0; from + inSampleBars < size; from += outOfSampleBars) {
+            int outOfSampleFrom = from + inSampleBars;
+            windows.add(new Window(from, outOfSampleFrom, Math.min(outOfSampleFrom + outOfSampleBars, size)));
+        }
+        return windows;
+    }
+
+    private record Window(int inSampleFrom, int outOfSampleFrom, int outOfSampleTo) {
+    }
+
+    private record WindowRun(WalkForwardWindow window, List<State> states) {
+    }
+}
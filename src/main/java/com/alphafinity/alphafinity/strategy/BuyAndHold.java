@@ -4,6 +4,7 @@ import com.alphafinity.alphafinity.model.*;
 import com.alphafinity.alphafinity.model.enumerations.Quantity;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
 import com.alphafinity.alphafinity.service.BacktestTradeExecutor;
+import com.alphafinity.alphafinity.service.Portfolio;
 import com.alphafinity.alphafinity.service.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,22 @@ public class BuyAndHold extends Strategy {
         return context;
     }
 
+    @Override
+    public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+        if (portfolio.hasOpenPositions()) {
+            return;
+        }
+
+        Transaction order = new Transaction.Builder()
+                .type(TransactionType.LONG_OPEN)
+                .price(data.close[index])
+                .quantity(Quantity.MAX)
+                .time(data.getDatetime(index))
+                .build();
+
+        portfolio.update(tradeExecutor.buy(portfolio.getContext(), order));
+    }
+
 
     public String strategyName() {
         return "Buy and Hold strategy";
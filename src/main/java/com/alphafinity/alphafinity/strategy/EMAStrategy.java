@@ -1,24 +1,32 @@
 package com.alphafinity.alphafinity.strategy;
 
 import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
 import com.alphafinity.alphafinity.model.TimeSeriesEntry;
 import com.alphafinity.alphafinity.model.Transaction;
 import com.alphafinity.alphafinity.model.enumerations.Quantity;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
 import com.alphafinity.alphafinity.service.BacktestTradeExecutor;
+import com.alphafinity.alphafinity.service.Portfolio;
 import com.alphafinity.alphafinity.service.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.EMA_NAME;
 
 @Service
 public class EMAStrategy extends Strategy {
     private static final Logger LOGGER = LoggerFactory.getLogger(EMAStrategy.class);
 
+    public static final String EMA_THRESHOLD = "emaThreshold";
+
     private final BacktestTradeExecutor tradeExecutor;
-    private final double emaThreshold = 0.0; // Threshold for determining buy/sell signals
+    private double emaThreshold = 0.0; // Threshold for determining buy/sell signals
 
     public EMAStrategy(BacktestTradeExecutor tradeExecutor) {
         this.tradeExecutor = tradeExecutor;
@@ -26,48 +34,58 @@ public class EMAStrategy extends Strategy {
 
     @Override
     public Context execute(Context context, TimeSeriesEntry data) {
-        double currentPrice = data.close;
-        double ema = data.ema;
+        Portfolio portfolio = new Portfolio(context);
+        trade(portfolio, data.ema, data.close, TimeSeriesData.toEpochSecond(data.datetime));
+        return portfolio.getContext();
+    }
 
+    @Override
+    public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+        trade(portfolio, data.getIndicator(EMA_NAME)[index], data.close[index], data.timestamps[index]);
+    }
+
+    private void trade(Portfolio portfolio, double ema, double currentPrice, long timestamp) {
         if(ema == 0.00){
-            return context;
+            return;
         }
 
         if (currentPrice > ema + emaThreshold) {
-            if (context.getActiveTransactions().isEmpty()) {
-                return buy(context, data);
+            if (!portfolio.hasOpenPositions()) {
+                portfolio.update(tradeExecutor.buy(portfolio.getContext(), order(TransactionType.LONG_OPEN, currentPrice, timestamp)));
             }
         } else if (currentPrice < ema - emaThreshold) {
-            if (!context.getActiveTransactions().isEmpty()) {
-                return close(context, data, context.getActiveTransactions());
+            if (portfolio.hasOpenPositions()) {
+                portfolio.update(tradeExecutor.close(portfolio.getContext(), portfolio.getContext().getActiveTransactions(),
+                        order(TransactionType.LONG_CLOSE, currentPrice, timestamp)));
             }
         }
-
-        return context;
-    }
-
-    private Context buy(Context context, TimeSeriesEntry data) {
-        Transaction order = new Transaction.Builder()
-                .type(TransactionType.LONG_OPEN)
-                .price(data.close)
-                .quantity(Quantity.MAX)
-                .time(data.datetime)
-                .build();
-        return tradeExecutor.buy(context, order);
     }
 
-    private Context close(Context context, TimeSeriesEntry data, List<Transaction> transactions) {
-        Transaction order = new Transaction.Builder()
-                .type(TransactionType.LONG_CLOSE)
-                .price(data.close)
+    private Transaction order(TransactionType type, double close, long timestamp) {
+        return new Transaction.Builder()
+                .type(type)
+                .price(close)
                 .quantity(Quantity.MAX)
-                .time(data.datetime)
+                .time(LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC))
                 .build();
-        return tradeExecutor.close(context, transactions, order);
     }
 
     @Override
     public String strategyName() {
         return "EMA Strategy";
     }
+
+    @Override
+    public Map<String, Double> parameters() {
+        return Map.of(EMA_THRESHOLD, emaThreshold);
+    }
+
+    @Override
+    public Strategy withParameters(Map<String, Double> parameters) {
+        validateParameters(parameters);
+
+        EMAStrategy strategy = new EMAStrategy(tradeExecutor);
+        strategy.emaThreshold = parameters.getOrDefault(EMA_THRESHOLD, emaThreshold);
+        return strategy;
+    }
 }
@@ -0,0 +1,67 @@
+package com.alphafinity.alphafinity.strategy;
+
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import com.alphafinity.alphafinity.service.BacktestTradeExecutor;
+import com.alphafinity.alphafinity.service.MarketSnapshot;
+import com.alphafinity.alphafinity.service.MultiAssetPortfolio;
+import com.alphafinity.alphafinity.service.MultiAssetStrategy;
+import org.springframework.stereotype.Service;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
+
+/**
+ * RSI strategy over several assets sharing one pool of cash. Assets are sold when overbought, and oversold assets are
+ * bought with an equal share of the cash left for the assets not held yet.
+ */
+@Service
+public class RSIRotationStrategy extends MultiAssetStrategy {
+
+    private final BacktestTradeExecutor tradeExecutor;
+    private final double rsiBuyThreshold = 25;  // RSI value below which to buy
+    private final double rsiSellThreshold = 75; // RSI value above which to sell
+
+    public RSIRotationStrategy(BacktestTradeExecutor tradeExecutor) {
+        this.tradeExecutor = tradeExecutor;
+    }
+
+    @Override
+    public void onTimestamp(MultiAssetPortfolio portfolio, MarketSnapshot market) {
+        // Sells first so their cash is available to the buys of the same timestamp
+        for (int i = 0; i < market.updatedCount(); i++) {
+            int asset = market.updated(i);
+            double rsi = market.indicator(asset, RSI_NAME);
+            if (rsi != 0.00 && rsi > rsiSellThreshold && portfolio.hasOpenPositions(asset)) {
+                Transaction order = order(TransactionType.LONG_CLOSE, market, asset, 0);
+                portfolio.trade(asset, context -> tradeExecutor.close(context, context.getActiveTransactions(), order));
+            }
+        }
+
+        for (int i = 0; i < market.updatedCount(); i++) {
+            int asset = market.updated(i);
+            double rsi = market.indicator(asset, RSI_NAME);
+            if (rsi != 0.00 && rsi < rsiBuyThreshold && !portfolio.hasOpenPositions(asset)) {
+                double allocation = portfolio.getCash() / (market.size() - portfolio.getAssetsWithPositions());
+                int quantity = (int) Math.floor(allocation / market.close(asset));
+                if (quantity > 0) {
+                    Transaction order = order(TransactionType.LONG_OPEN, market, asset, quantity);
+                    portfolio.trade(asset, context -> tradeExecutor.buy(context, order));
+                }
+            }
+        }
+    }
+
+    private Transaction order(TransactionType type, MarketSnapshot market, int asset, int quantity) {
+        return new Transaction.Builder()
+                .type(type)
+                .price(market.close(asset))
+                .quantity(quantity)
+                .time(market.getDatetime())
+                .build();
+    }
+
+    @Override
+    public String strategyName() {
+        return "RSI Rotation Strategy";
+    }
+}
@@ -1,27 +1,37 @@
 package com.alphafinity.alphafinity.strategy;
 
 import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
 import com.alphafinity.alphafinity.model.TimeSeriesEntry;
 import com.alphafinity.alphafinity.model.Transaction;
 import com.alphafinity.alphafinity.model.enumerations.Quantity;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
 import com.alphafinity.alphafinity.service.BacktestTradeExecutor;
+import com.alphafinity.alphafinity.service.Portfolio;
 import com.alphafinity.alphafinity.service.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
 
 @Service
 public class RSIStrategy extends Strategy {
     private static final Logger LOGGER = LoggerFactory.getLogger(RSIStrategy.class);
 
+    public static final String RSI_BUY_THRESHOLD = "rsiBuyThreshold";
+    public static final String RSI_SELL_THRESHOLD = "rsiSellThreshold";
+    public static final String TAKE_PROFITS_THRESHOLD = "takeProfitsThreshold";
+
     private final BacktestTradeExecutor tradeExecutor;
-    private final double rsiBuyThreshold = 25;  // RSI value below which to buy
-    private final double rsiSellThreshold = 75; // RSI value above which to sell
-    private final double takeProfitsThreshold = 2.00; // Open profit percentage threshold to take profits
+    private double rsiBuyThreshold = 25;  // RSI value below which to buy
+    private double rsiSellThreshold = 75; // RSI value above which to sell
+    private double takeProfitsThreshold = 2.00; // Open profit percentage threshold to take profits
 
 
     public RSIStrategy(BacktestTradeExecutor tradeExecutor) {
@@ -30,54 +40,73 @@ public class RSIStrategy extends Strategy {
 
     @Override
     public Context execute(Context context, TimeSeriesEntry data) {
-        double rsi = data.rsi;
+        Portfolio portfolio = new Portfolio(context);
+        trade(portfolio, data.rsi, data.close, TimeSeriesData.toEpochSecond(data.datetime));
+        return portfolio.getContext();
+    }
+
+    @Override
+    public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+        trade(portfolio, data.getIndicator(RSI_NAME)[index], data.close[index], data.timestamps[index]);
+    }
 
+    // Orders are only created on the bars that trade, all other bars are checked without allocating
+    private void trade(Portfolio portfolio, double rsi, double close, long timestamp) {
         if (rsi == 0.00) {
-            return context;
+            return;
         }
 
         if (rsi < rsiBuyThreshold) {
-            if (context.getActiveTransactions().isEmpty()) {
-                return buy(context, data);
+            if (!portfolio.hasOpenPositions()) {
+                portfolio.update(tradeExecutor.buy(portfolio.getContext(), order(TransactionType.LONG_OPEN, close, timestamp)));
+                return;
             }
         } else if (rsi > rsiSellThreshold) {
-            if (!context.getActiveTransactions().isEmpty()) {
-                return close(context, data, context.getActiveTransactions());
+            if (portfolio.hasOpenPositions()) {
+                portfolio.update(tradeExecutor.close(portfolio.getContext(), portfolio.getContext().getActiveTransactions(),
+                        order(TransactionType.LONG_CLOSE, close, timestamp)));
+                return;
             }
         }
 
-        Transaction order = new Transaction.Builder()
-                .type(TransactionType.LONG_CLOSE)
-                .price(data.close)
-                .quantity(Quantity.MAX)
-                .time(data.datetime)
-                .build();
-
-        return tradeExecutor.takeProfits(context, data, takeProfitsThreshold, order);
-    }
-
-    private Context buy(Context context, TimeSeriesEntry data) {
-        Transaction order = new Transaction.Builder()
-                .type(TransactionType.LONG_OPEN)
-                .price(data.close)
-                .quantity(Quantity.MAX)
-                .time(data.datetime)
-                .build();
-        return tradeExecutor.buy(context, order);
+        // Take profits on any position that has reached the threshold
+        List<Transaction> positionsAtProfit = portfolio.openPositionsAtProfit(close, takeProfitsThreshold);
+        if (!positionsAtProfit.isEmpty()) {
+            portfolio.update(tradeExecutor.close(portfolio.getContext(), positionsAtProfit, order(TransactionType.LONG_CLOSE, close, timestamp)));
+        }
     }
 
-    private Context close(Context context, TimeSeriesEntry data, List<Transaction> transactions) {
-        Transaction order = new Transaction.Builder()
-                .type(TransactionType.LONG_CLOSE)
-                .price(data.close)
+    private Transaction order(TransactionType type, double close, long timestamp) {
+        return new Transaction.Builder()
+                .type(type)
+                .price(close)
                 .quantity(Quantity.MAX)
-                .time(data.datetime)
+                .time(LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC))
                 .build();
-        return tradeExecutor.close(context, transactions, order);
     }
 
     @Override
     public String strategyName() {
         return "RSI Strategy";
     }
+
+    @Override
+    public Map<String, Double> parameters() {
+        return Map.of(
+                RSI_BUY_THRESHOLD, rsiBuyThreshold,
+                RSI_SELL_THRESHOLD, rsiSellThreshold,
+                TAKE_PROFITS_THRESHOLD, takeProfitsThreshold
+        );
+    }
+
+    @Override
+    public Strategy withParameters(Map<String, Double> parameters) {
+        validateParameters(parameters);
+
+        RSIStrategy strategy = new RSIStrategy(tradeExecutor);
+        strategy.rsiBuyThreshold = parameters.getOrDefault(RSI_BUY_THRESHOLD, rsiBuyThreshold);
+        strategy.rsiSellThreshold = parameters.getOrDefault(RSI_SELL_THRESHOLD, rsiSellThreshold);
+        strategy.takeProfitsThreshold = parameters.getOrDefault(TAKE_PROFITS_THRESHOLD, takeProfitsThreshold);
+        return strategy;
+    }
 }
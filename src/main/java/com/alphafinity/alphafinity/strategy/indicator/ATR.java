@@ -0,0 +1,111 @@
+package com.alphafinity.alphafinity.strategy.indicator;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.utility.kernel.ColumnKernels;
+import com.alphafinity.alphafinity.utility.kernel.Kernels;
+
+import java.util.List;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.ATR_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CLOSE;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.HIGH;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.LOW;
+
+/**
+ * Average true range, the simple moving average of the true range over the period. The true range of the first bar is
+ * its high minus its low.
+ */
+public class ATR implements WindowIndicator<Double> {
+
+    public final Integer period;
+
+    // Ring buffer holding the last `period` true ranges, summed from the oldest one on every bar
+    private final double[] window;
+    private int count;
+    private double previousClose;
+    private double atr;
+
+    public ATR(Builder builder) {
+        if (builder.period == null || builder.period <= 0) {
+            throw new IllegalArgumentException("ATR needs a period of at least one bar");
+        }
+        this.period = builder.period;
+        this.window = new double[period];
+    }
+
+    @Override
+    public String name() {
+        return ATR_NAME;
+    }
+
+    @Override
+    public String key() {
+        return name() + "(" + period + ")";
+    }
+
+    @Override
+    public List<String> inputs() {
+        return List.of(HIGH, LOW, CLOSE);
+    }
+
+    @Override
+    public void update(TimeSeriesData data, int index) {
+        double high = data.high[index];
+        double low = data.low[index];
+        double trueRange = high - low;
+        if (count > 0) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        previousClose = data.close[index];
+
+        window[count % period] = trueRange;
+        count++;
+
+        if (count < period) {
+            atr = 0.0; // Return 0.00 if there's not enough historical data
+            return;
+        }
+
+        int oldest = count % period;
+        double sum = window[oldest];
+        for (int i = 1; i < period; i++) {
+            sum += window[(oldest + i) % period];
+        }
+        atr = sum / period;
+    }
+
+    // The oldest true range of the window reads the close of the bar before it
+    @Override
+    public int lookback() {
+        return period;
+    }
+
+    @Override
+    public void calculate(TimeSeriesData data, double[] column) {
+        ColumnKernels kernels = Kernels.get();
+        double[] trueRange = new double[data.size()];
+        kernels.trueRange(data.high, data.low, data.close, trueRange);
+        kernels.simpleMovingAverage(trueRange, period, column);
+    }
+
+    @Override
+    public Double value() {
+        return atr;
+    }
+
+    public static class Builder {
+        private Integer period;
+
+        public Builder() {
+        }
+
+        public Builder period(Integer period) {
+            this.period = period;
+            return this;
+        }
+
+        public ATR build() {
+            return new ATR(this);
+        }
+    }
+}
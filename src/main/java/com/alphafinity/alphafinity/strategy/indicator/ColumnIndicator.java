@@ -0,0 +1,14 @@
+package com.alphafinity.alphafinity.strategy.indicator;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+/**
+ * Indicator that can also be calculated for the whole time-series at once, with the column kernels of
+ * {@link com.alphafinity.alphafinity.utility.kernel.Kernels}. The column holds the same values {@link #value()} would
+ * return after every bar was passed to {@link #update(TimeSeriesData, int)}. The inputs of the indicator are complete when
+ * it is called.
+ */
+public interface ColumnIndicator<T> extends Indicator<T> {
+
+    void calculate(TimeSeriesData data, double[] column);
+}
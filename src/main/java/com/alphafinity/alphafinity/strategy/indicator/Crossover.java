@@ -0,0 +1,91 @@
+package com.alphafinity.alphafinity.strategy.indicator;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+import java.util.List;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CROSSOVER_NAME;
+
+/**
+ * Position of the fast EMA relative to the slow EMA of the close: 1.00 above, -1.00 at or below. A crossover is a bar where
+ * the value changes sign.
+ */
+public class Crossover implements Indicator<Double> {
+
+    public final Integer fastPeriod;
+    public final Integer slowPeriod;
+
+    private final String fastKey;
+    private final String slowKey;
+    private TimeSeriesData data;
+    private double[] fast;
+    private double[] slow;
+    private double position;
+
+    public Crossover(Builder builder) {
+        if (builder.fastPeriod == null || builder.slowPeriod == null || builder.fastPeriod <= 0 || builder.fastPeriod >= builder.slowPeriod) {
+            throw new IllegalArgumentException("Crossover needs a fast period shorter than the slow period");
+        }
+        this.fastPeriod = builder.fastPeriod;
+        this.slowPeriod = builder.slowPeriod;
+        this.fastKey = new EMA.Builder().period(fastPeriod).build().key();
+        this.slowKey = new EMA.Builder().period(slowPeriod).build().key();
+    }
+
+    @Override
+    public String name() {
+        return CROSSOVER_NAME;
+    }
+
+    @Override
+    public String key() {
+        return name() + "(" + fastPeriod + "," + slowPeriod + ")";
+    }
+
+    @Override
+    public List<String> inputs() {
+        return List.of(fastKey, slowKey);
+    }
+
+    @Override
+    public void update(TimeSeriesData data, int index) {
+        if (data != this.data) {
+            this.data = data;
+            this.fast = data.getIndicator(fastKey);
+            this.slow = data.getIndicator(slowKey);
+        }
+
+        if (fast[index] == 0.0 || slow[index] == 0.0) {
+            position = 0.0; // Return 0.00 until both EMAs have enough historical data
+            return;
+        }
+        position = fast[index] > slow[index] ? 1.0 : -1.0;
+    }
+
+    @Override
+    public Double value() {
+        return position;
+    }
+
+    public static class Builder {
+        private Integer fastPeriod;
+        private Integer slowPeriod;
+
+        public Builder() {
+        }
+
+        public Builder fastPeriod(Integer fastPeriod) {
+            this.fastPeriod = fastPeriod;
+            return this;
+        }
+
+        public Builder slowPeriod(Integer slowPeriod) {
+            this.slowPeriod = slowPeriod;
+            return this;
+        }
+
+        public Crossover build() {
+            return new Crossover(this);
+        }
+    }
+}
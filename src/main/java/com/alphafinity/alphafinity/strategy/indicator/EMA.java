@@ -1,19 +1,25 @@
 package com.alphafinity.alphafinity.strategy.indicator;
 
 import com.alphafinity.alphafinity.model.TimeSeriesData;
-import com.alphafinity.alphafinity.model.TimeSeriesEntry;
-
-import java.util.List;
+import com.alphafinity.alphafinity.utility.kernel.Kernels;
 
 import static com.alphafinity.alphafinity.utility.IndicatorConstants.EMA_NAME;
 
 
-public class EMA implements Indicator<Double> {
+public class EMA implements WindowIndicator<Double> {
 
     private final int period;
+    private final double smoothingFactor;
+
+    // Ring buffer holding the last `period` closes, the EMA is seeded from the oldest one on every bar
+    private final double[] window;
+    private int count;
+    private double ema;
 
     public EMA(Builder builder) {
         this.period = builder.period;
+        this.smoothingFactor = 2.0 / (period + 1);
+        this.window = new double[period];
     }
 
 
@@ -23,22 +29,44 @@ public class EMA implements Indicator<Double> {
     }
 
     @Override
-    public Double calculate(TimeSeriesData historicalData, TimeSeriesEntry currentEntry) {
-        List<TimeSeriesEntry> entries = historicalData.entries;
-        int currentIndex = entries.indexOf(currentEntry);
+    public String key() {
+        return name() + "(" + period + ")";
+    }
 
-        if (currentIndex < period) {
-            return 0.0; // Return 0.00 if there's not enough historical data
+    @Override
+    public void update(TimeSeriesData data, int index) {
+        window[count % period] = data.close[index];
+        count++;
+
+        if (count <= period) {
+            ema = 0.0; // Return 0.00 if there's not enough historical data
+            return;
         }
 
-        double smoothingFactor = 2.0 / (period + 1);
-        double ema = entries.get(currentIndex - period + 1).close; // Initial EMA value
+        int oldest = count % period;
+        double value = window[oldest]; // Initial EMA value
 
-        for (int i = currentIndex - period + 2; i <= currentIndex; i++) {
-            double close = entries.get(i).close;
-            ema = (close - ema) * smoothingFactor + ema;
+        for (int i = 1; i < period; i++) {
+            double close = window[(oldest + i) % period];
+            value = (close - value) * smoothingFactor + value;
         }
 
+        ema = value;
+    }
+
+    // Only bars with `period` bars before them have a value, so the first bar of a chunk needs that many in its halo
+    @Override
+    public int lookback() {
+        return period;
+    }
+
+    @Override
+    public void calculate(TimeSeriesData data, double[] column) {
+        Kernels.get().windowedExponentialMovingAverage(data.close, period, smoothingFactor, column);
+    }
+
+    @Override
+    public Double value() {
         return ema;
     }
 
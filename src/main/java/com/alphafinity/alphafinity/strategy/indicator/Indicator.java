@@ -1,10 +1,31 @@
 package com.alphafinity.alphafinity.strategy.indicator;
 
 import com.alphafinity.alphafinity.model.TimeSeriesData;
-import com.alphafinity.alphafinity.model.TimeSeriesEntry;
 
+import java.util.List;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CLOSE;
+
+/**
+ * Streaming indicator contract. Bars are fed in chronological order through {@link #update(TimeSeriesData, int)} and the
+ * indicator carries its running state forward, so {@link #value()} always reflects the most recently seen bar.
+ * <br>
+ * An indicator reads the columns named by {@link #inputs()}: price columns, or the keys of other indicators. Those are
+ * calculated first and are available through {@link TimeSeriesData#getIndicator} up to and including the bar being updated.
+ */
 public interface Indicator<T> {
 
     String name();
-    Double calculate(TimeSeriesData historicalData, TimeSeriesEntry currentEntry); // Generic method to calculate the indicator
+    String key(); // Name and parameters, two indicators with the same key produce the same values for the same data
+    void update(TimeSeriesData data, int index); // Advances the indicator by the bar at the given index
+    Double value(); // Indicator value as of the last bar passed to update, 0.00 until enough data has been seen
+
+    default List<String> inputs() {
+        return List.of(CLOSE);
+    }
+
+    // Column the values are written to in the enriched time-series, in addition to the key
+    default String output() {
+        return name();
+    }
 }
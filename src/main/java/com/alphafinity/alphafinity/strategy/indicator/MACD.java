@@ -0,0 +1,88 @@
+package com.alphafinity.alphafinity.strategy.indicator;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+import java.util.List;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.MACD_NAME;
+
+/**
+ * MACD line, the fast EMA minus the slow EMA of the close. Both EMAs are inputs, so they are shared with any other
+ * indicator or strategy using the same EMAs.
+ */
+public class MACD implements Indicator<Double> {
+
+    public final Integer fastPeriod;
+    public final Integer slowPeriod;
+
+    private final String fastKey;
+    private final String slowKey;
+    private TimeSeriesData data;
+    private double[] fast;
+    private double[] slow;
+    private double macd;
+
+    public MACD(Builder builder) {
+        if (builder.fastPeriod == null || builder.slowPeriod == null || builder.fastPeriod <= 0 || builder.fastPeriod >= builder.slowPeriod) {
+            throw new IllegalArgumentException("MACD needs a fast period shorter than the slow period");
+        }
+        this.fastPeriod = builder.fastPeriod;
+        this.slowPeriod = builder.slowPeriod;
+        this.fastKey = new EMA.Builder().period(fastPeriod).build().key();
+        this.slowKey = new EMA.Builder().period(slowPeriod).build().key();
+    }
+
+    @Override
+    public String name() {
+        return MACD_NAME;
+    }
+
+    @Override
+    public String key() {
+        return name() + "(" + fastPeriod + "," + slowPeriod + ")";
+    }
+
+    @Override
+    public List<String> inputs() {
+        return List.of(fastKey, slowKey);
+    }
+
+    @Override
+    public void update(TimeSeriesData data, int index) {
+        if (data != this.data) {
+            this.data = data;
+            this.fast = data.getIndicator(fastKey);
+            this.slow = data.getIndicator(slowKey);
+        }
+
+        // Return 0.00 until both EMAs have enough historical data
+        macd = fast[index] == 0.0 || slow[index] == 0.0 ? 0.0 : fast[index] - slow[index];
+    }
+
+    @Override
+    public Double value() {
+        return macd;
+    }
+
+    public static class Builder {
+        private Integer fastPeriod;
+        private Integer slowPeriod;
+
+        public Builder() {
+        }
+
+        public Builder fastPeriod(Integer fastPeriod) {
+            this.fastPeriod = fastPeriod;
+            return this;
+        }
+
+        public Builder slowPeriod(Integer slowPeriod) {
+            this.slowPeriod = slowPeriod;
+            return this;
+        }
+
+        public MACD build() {
+            return new MACD(this);
+        }
+    }
+}
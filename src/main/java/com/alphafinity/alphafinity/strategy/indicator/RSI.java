@@ -1,17 +1,21 @@
 package com.alphafinity.alphafinity.strategy.indicator;
 
 import com.alphafinity.alphafinity.model.TimeSeriesData;
-import com.alphafinity.alphafinity.model.TimeSeriesEntry;
-
-import java.util.List;
-import java.util.stream.IntStream;
+import com.alphafinity.alphafinity.utility.kernel.ColumnKernels;
+import com.alphafinity.alphafinity.utility.kernel.Kernels;
 
 import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
 
-public class RSI implements Indicator<Double> {
+public class RSI implements ColumnIndicator<Double> {
 
     public final Integer period;
 
+    private int bars; // Number of bars seen so far
+    private double previousClose;
+    private double averageGain;
+    private double averageLoss;
+    private double rsi;
+
     public RSI(Builder builder) {
         this.period = builder.period;
     }
@@ -22,51 +26,86 @@ public class RSI implements Indicator<Double> {
     }
 
     @Override
-    public Double calculate(TimeSeriesData historicalData, TimeSeriesEntry currentEntry) {
-        List<TimeSeriesEntry> entries = historicalData.entries;
-        int currentIndex = entries.indexOf(currentEntry);
+    public String key() {
+        return name() + "(" + period + ")";
+    }
 
-        if (currentIndex < period) {
-            return 0.0; // Return 0 if there's not enough historical data
+    @Override
+    public void update(TimeSeriesData data, int index) {
+        double close = data.close[index];
+        int changes = bars++; // Price changes available once this bar is included
+
+        if (changes == 0) {
+            previousClose = close;
+            return;
         }
 
-        // Calculate price changes
-        double[] priceChanges = IntStream.range(1, entries.size())
-                .mapToDouble(i -> entries.get(i).close - entries.get(i - 1).close)
-                .toArray();
-
-        // Separate gains and losses
-        double[] gains = new double[priceChanges.length];
-        double[] losses = new double[priceChanges.length];
-        for (int i = 0; i < priceChanges.length; i++) {
-            if (priceChanges[i] > 0) {
-                gains[i] = priceChanges[i];
-                losses[i] = 0;
-            } else {
-                gains[i] = 0;
-                losses[i] = -priceChanges[i];
+        // Separate the price change into gain and loss
+        double priceChange = close - previousClose;
+        double gain = priceChange > 0 ? priceChange : 0;
+        double loss = priceChange > 0 ? 0 : -priceChange;
+        previousClose = close;
+
+        if (changes <= period) {
+            // Accumulate the initial average gain and loss
+            averageGain += gain;
+            averageLoss += loss;
+
+            if (changes < period) {
+                rsi = 0.0; // Return 0 if there's not enough historical data
+                return;
             }
+
+            averageGain /= period;
+            averageLoss /= period;
+        } else {
+            // Apply Wilder's smoothing method
+            averageGain = (averageGain * (period - 1) + gain) / period;
+            averageLoss = (averageLoss * (period - 1) + loss) / period;
         }
 
-        // Calculate initial average gain and loss
+        // Calculate RS and RSI
+        double rs = (averageLoss == 0) ? 0.0 : averageGain / averageLoss;
+        rsi = 100.0 - (100.0 / (1 + rs));
+    }
+
+    @Override
+    public void calculate(TimeSeriesData data, double[] column) {
+        int size = data.size();
+        double[] gains = new double[size];
+        double[] losses = new double[size];
+
+        // Price changes split into gain and loss in bulk, only Wilder's smoothing runs bar by bar
+        ColumnKernels kernels = Kernels.get();
+        kernels.difference(data.close, gains);
+        kernels.splitGainsAndLosses(gains, gains, losses);
+
         double averageGain = 0.0;
         double averageLoss = 0.0;
-        for (int i = 0; i < period; i++) {
-            averageGain += gains[i];
-            averageLoss += losses[i];
-        }
-        averageGain /= period;
-        averageLoss /= period;
+        for (int i = 0; i < size; i++) {
+            if (i < period) {
+                averageGain += gains[i]; // No change on the first bar
+                averageLoss += losses[i];
+                column[i] = 0.0;
+                continue;
+            }
+
+            if (i == period) {
+                averageGain = (averageGain + gains[i]) / period;
+                averageLoss = (averageLoss + losses[i]) / period;
+            } else {
+                averageGain = (averageGain * (period - 1) + gains[i]) / period;
+                averageLoss = (averageLoss * (period - 1) + losses[i]) / period;
+            }
 
-        // Apply Wilder's smoothing method
-        for (int i = period; i < currentIndex; i++) {
-            averageGain = (averageGain * (period - 1) + gains[i]) / period;
-            averageLoss = (averageLoss * (period - 1) + losses[i]) / period;
+            double rs = (averageLoss == 0) ? 0.0 : averageGain / averageLoss;
+            column[i] = 100.0 - (100.0 / (1 + rs));
         }
+    }
 
-        // Calculate RS and RSI
-        double rs = (averageLoss == 0) ? 0.0 : averageGain / averageLoss;
-        return 100.0 - (100.0 / (1 + rs));
+    @Override
+    public Double value() {
+        return rsi;
     }
 
     public static class Builder {
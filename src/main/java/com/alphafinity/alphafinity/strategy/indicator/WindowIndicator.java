@@ -0,0 +1,16 @@
+package com.alphafinity.alphafinity.strategy.indicator;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+/**
+ * Column indicator whose value at any bar from {@link #lookback()} on only depends on that bar and the lookback bars before
+ * it, not on where the series starts. A long time-series can then be calculated in chunks, each chunk preceded by a halo
+ * of the lookback bars before it, with the same values as calculating it whole.
+ * <br>
+ * The chunks are calculated concurrently, so {@link #calculate(TimeSeriesData, double[])} must not touch the running
+ * state used by {@link #update(TimeSeriesData, int)}.
+ */
+public interface WindowIndicator<T> extends ColumnIndicator<T> {
+
+    int lookback();
+}
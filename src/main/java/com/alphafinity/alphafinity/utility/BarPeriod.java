@@ -0,0 +1,83 @@
+package com.alphafinity.alphafinity.utility;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Length of the bars a time-series is resampled to, e.g. {@code 15m}, {@code 4h}, {@code 1d} or {@code 1w}. Bars are
+ * aligned to the epoch in UTC: daily bars start at midnight and weekly bars on Monday at midnight. A bar is timestamped
+ * with its start.
+ */
+public class BarPeriod {
+
+    private static final Pattern PERIOD = Pattern.compile("(\\d+)([mhdw])");
+    private static final long MINUTE = 60;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long WEEK = 7 * DAY;
+    private static final long FIRST_MONDAY = 4 * DAY; // 1970-01-05, the epoch was a Thursday
+
+    public static final BarPeriod DAILY = new BarPeriod("1d", DAY, 0);
+    public static final BarPeriod WEEKLY = new BarPeriod("1w", WEEK, FIRST_MONDAY);
+
+    private final String name;
+    private final long seconds;
+    private final long offset;
+
+    private BarPeriod(String name, long seconds, long offset) {
+        this.name = name;
+        this.seconds = seconds;
+        this.offset = offset;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the period is not a positive number followed by m, h, d or w
+     */
+    public static BarPeriod parse(String period) {
+        Matcher matcher = PERIOD.matcher(period.strip());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Malformed bar period " + period + ", expected e.g. 15m, 4h, 1d or 1w");
+        }
+
+        long length;
+        try {
+            length = Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bar period " + period + " is too long");
+        }
+        if (length <= 0) {
+            throw new IllegalArgumentException("Bar period must be positive, got " + period);
+        }
+
+        long unit = switch (matcher.group(2)) {
+            case "m" -> MINUTE;
+            case "h" -> HOUR;
+            case "d" -> DAY;
+            default -> WEEK;
+        };
+        long offset = unit == WEEK ? FIRST_MONDAY : 0;
+
+        try {
+            return new BarPeriod(matcher.group(), Math.multiplyExact(length, unit), offset);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Bar period " + period + " is too long");
+        }
+    }
+
+    /**
+     * @param timestamp: epoch seconds UTC
+     * @return start of the bar the timestamp falls into, in epoch seconds UTC
+     */
+    public long barStart(long timestamp) {
+        return Math.floorDiv(timestamp - offset, seconds) * seconds + offset;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
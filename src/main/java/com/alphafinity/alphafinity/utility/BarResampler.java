@@ -0,0 +1,120 @@
+package com.alphafinity.alphafinity.utility;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates bars into coarser bars of a {@link BarPeriod} in a single pass: the open of the first bar, the highest high,
+ * the lowest low, the close of the last bar and the summed volume. Only the bar being aggregated is held, every completed
+ * bar is handed to the sink as soon as a bar of a later period arrives, so memory does not grow with the input.
+ * <br>
+ * Bars must be added in timestamp order, call {@link #finish()} after the last one to emit the last aggregated bar.
+ */
+public class BarResampler {
+
+    @FunctionalInterface
+    public interface BarSink {
+        void accept(long timestamp, double open, double high, double low, double close, double volume);
+    }
+
+    private final BarPeriod period;
+    private final BarSink sink;
+
+    private boolean aggregating; // Whether a bar has been started and not emitted yet
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long barStart;
+    private double barOpen;
+    private double barHigh;
+    private double barLow;
+    private double barClose;
+    private double barVolume;
+
+    public BarResampler(BarPeriod period, BarSink sink) {
+        this.period = period;
+        this.sink = sink;
+    }
+
+    /**
+     * Resamples a whole time-series, e.g. hourly bars to daily bars. Indicator columns are not carried over, they are
+     * calculated for the resampled bars.
+     */
+    public static TimeSeriesData resample(TimeSeriesData data, BarPeriod period) {
+        Columns columns = new Columns();
+        BarResampler resampler = new BarResampler(period, columns);
+        for (int i = 0; i < data.size(); i++) {
+            resampler.add(data.timestamps[i], data.open[i], data.high[i], data.low[i], data.close[i], data.volume[i]);
+        }
+        resampler.finish();
+
+        return columns.toTimeSeriesData();
+    }
+
+    /**
+     * @param timestamp: epoch seconds UTC
+     * @throws IllegalArgumentException if the bar is older than the previous bar
+     */
+    public void add(long timestamp, double open, double high, double low, double close, double volume) {
+        if (timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Bars must be added in timestamp order, got " + timestamp + " after " + lastTimestamp);
+        }
+        lastTimestamp = timestamp;
+
+        long start = period.barStart(timestamp);
+        if (aggregating && start == barStart) {
+            barHigh = Math.max(barHigh, high);
+            barLow = Math.min(barLow, low);
+            barClose = close;
+            barVolume += volume;
+            return;
+        }
+
+        finish();
+        aggregating = true;
+        barStart = start;
+        barOpen = open;
+        barHigh = high;
+        barLow = low;
+        barClose = close;
+        barVolume = volume;
+    }
+
+    // Emits the bar being aggregated, if any
+    public void finish() {
+        if (aggregating) {
+            sink.accept(barStart, barOpen, barHigh, barLow, barClose, barVolume);
+            aggregating = false;
+        }
+    }
+
+    // Columns of the resampled bars, grown as bars are emitted
+    private static class Columns implements BarSink {
+        private long[] timestamps = new long[16];
+        private double[][] values = new double[5][16];
+        private int size;
+
+        @Override
+        public void accept(long timestamp, double open, double high, double low, double close, double volume) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                for (int column = 0; column < values.length; column++) {
+                    values[column] = Arrays.copyOf(values[column], size * 2);
+                }
+            }
+
+            timestamps[size] = timestamp;
+            values[0][size] = open;
+            values[1][size] = high;
+            values[2][size] = low;
+            values[3][size] = close;
+            values[4][size] = volume;
+            size++;
+        }
+
+        private TimeSeriesData toTimeSeriesData() {
+            return new TimeSeriesData(Arrays.copyOf(timestamps, size), Arrays.copyOf(values[0], size),
+                    Arrays.copyOf(values[1], size), Arrays.copyOf(values[2], size), Arrays.copyOf(values[3], size),
+                    Arrays.copyOf(values[4], size));
+        }
+    }
+}
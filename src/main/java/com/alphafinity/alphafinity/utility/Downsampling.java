@@ -0,0 +1,91 @@
+package com.alphafinity.alphafinity.utility;
+
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of chart series. The first and last points are always kept, the points in
+ * between are split into equal buckets and the point of each bucket forming the largest triangle with the previously kept
+ * point and the average of the next bucket is kept. Peaks and troughs survive, flat stretches are thinned out.
+ */
+public class Downsampling {
+
+    public static final int MIN_POINTS = 3;
+
+    private Downsampling() {
+    }
+
+    /**
+     * @param x:      x coordinates, ascending
+     * @param y:      y coordinates
+     * @param points: maximum number of points to keep, at least {@link #MIN_POINTS}
+     * @return indices of the points to keep, ascending. All indices if there are no more points than the budget.
+     */
+    public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int points) {
+        if (points < MIN_POINTS) {
+            throw new IllegalArgumentException("Cannot downsample to fewer than " + MIN_POINTS + " points");
+        }
+
+        int size = x.length;
+        if (size <= points) {
+            return IntStream.range(0, size).toArray();
+        }
+
+        int[] selected = new int[points];
+        double bucketSize = (double) (size - 2) / (points - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            // Average of the next bucket, the last point for the last bucket
+            int nextFrom = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextTo - nextFrom;
+            averageY /= nextTo - nextFrom;
+
+            // Point of this bucket with the largest triangle, twice the area is enough to compare
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = nextFrom;
+            int largest = from;
+            double largestArea = -1;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous]) - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+            }
+
+            selected[bucket + 1] = largest;
+            previous = largest;
+        }
+
+        selected[points - 1] = size - 1;
+        return selected;
+    }
+
+    /**
+     * Downsamples states by account value over time.
+     */
+    public static List<State> states(List<State> states, int points) {
+        double[] x = new double[states.size()];
+        double[] y = new double[states.size()];
+        for (int i = 0; i < states.size(); i++) {
+            x[i] = TimeSeriesData.toEpochSecond(states.get(i).currentTime);
+            y[i] = states.get(i).currentAccountValue;
+        }
+        return select(states, largestTriangleThreeBuckets(x, y, points));
+    }
+
+    public static <T> List<T> select(List<T> values, int[] indices) {
+        return IntStream.of(indices).mapToObj(values::get).toList();
+    }
+}
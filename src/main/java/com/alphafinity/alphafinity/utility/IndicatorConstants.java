@@ -1,8 +1,21 @@
 package com.alphafinity.alphafinity.utility;
 
+import java.util.Set;
+
 public class IndicatorConstants {
 
     public static final String RSI_NAME = "rsi";
     public static final String EMA_NAME = "ema";
+    public static final String MACD_NAME = "macd";
+    public static final String CROSSOVER_NAME = "crossover";
+    public static final String ATR_NAME = "atr";
+
+    // Columns of the time-series itself, any other input of an indicator is the key of another indicator
+    public static final String OPEN = "open";
+    public static final String HIGH = "high";
+    public static final String LOW = "low";
+    public static final String CLOSE = "close";
+    public static final String VOLUME = "volume";
+    public static final Set<String> PRICE_COLUMNS = Set.of(OPEN, HIGH, LOW, CLOSE, VOLUME);
 
 }
@@ -0,0 +1,138 @@
+package com.alphafinity.alphafinity.utility;
+
+import java.util.Arrays;
+
+/**
+ * K-way merge of several ascending timestamp columns. Every call to {@link #next()} moves to the next distinct timestamp
+ * over all of the series and reports which series have a bar at it. The series are read in place through a binary heap of
+ * one cursor per series, so a step is O(k log n) for k series with a bar at the timestamp out of n series and the merged
+ * timeline is never materialized.
+ */
+public class TimestampMerge {
+
+    private final long[][] timestamps;
+    private final int[] cursors;       // Next bar of every series
+    private final int[] indices;       // Latest bar of every series at or before the current timestamp, -1 before its first
+    private final int[] heap;          // Series ordered by the timestamp of their next bar, then by series
+    private int heapSize;
+
+    private final int[] updated;       // Series with a bar at the current timestamp, in series order
+    private int updatedCount;
+    private long timestamp = Long.MIN_VALUE;
+
+    public TimestampMerge(long[]... timestamps) {
+        this.timestamps = timestamps;
+        this.cursors = new int[timestamps.length];
+        this.indices = new int[timestamps.length];
+        this.heap = new int[timestamps.length];
+        this.updated = new int[timestamps.length];
+        Arrays.fill(indices, -1);
+
+        for (int series = 0; series < timestamps.length; series++) {
+            if (timestamps[series].length > 0) {
+                push(series);
+            }
+        }
+    }
+
+    /**
+     * Moves to the next timestamp. A series with several bars at the same timestamp is moved to the last of them.
+     *
+     * @return false once every bar of every series has been merged
+     */
+    public boolean next() {
+        if (heapSize == 0) {
+            return false;
+        }
+
+        timestamp = timestamps[heap[0]][cursors[heap[0]]];
+        updatedCount = 0;
+        while (heapSize > 0 && timestamps[heap[0]][cursors[heap[0]]] == timestamp) {
+            int series = pop();
+            if (indices[series] < 0 || timestamps[series][indices[series]] != timestamp) {
+                updated[updatedCount++] = series;
+            }
+            indices[series] = cursors[series]++;
+            if (cursors[series] < timestamps[series].length) {
+                push(series);
+            }
+        }
+
+        // Ties pop in series order, except for a series that came back with another bar at the same timestamp
+        Arrays.sort(updated, 0, updatedCount);
+        return true;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public int series() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return latest bar of the series at or before the current timestamp, -1 if the series has not started yet
+     */
+    public int index(int series) {
+        return indices[series];
+    }
+
+    public int updatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * @return the i-th series with a bar at the current timestamp, for i in [0, {@link #updatedCount()})
+     */
+    public int updated(int i) {
+        return updated[i];
+    }
+
+    private long key(int series) {
+        return timestamps[series][cursors[series]];
+    }
+
+    private boolean before(int a, int b) {
+        long keyA = key(a);
+        long keyB = key(b);
+        return keyA < keyB || (keyA == keyB && a < b);
+    }
+
+    private void push(int series) {
+        int child = heapSize++;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!before(series, heap[parent])) {
+                break;
+            }
+            heap[child] = heap[parent];
+            child = parent;
+        }
+        heap[child] = series;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], last)) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        if (heapSize > 0) {
+            heap[parent] = last;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.utility.kernel;
+
+/**
+ * Whole-column operations behind the indicators and the dashboard. Every implementation produces bit-for-bit the same
+ * output: values are combined in the same order with the same operations, only the number of bars processed per
+ * instruction differs. Output arrays have the length of the input and may not alias it.
+ */
+public interface ColumnKernels {
+
+    /**
+     * out[i] = values[i] - values[i - 1], 0.00 for the first bar.
+     */
+    void difference(double[] values, double[] out);
+
+    /**
+     * gains[i] = changes[i] if it is positive, 0.00 otherwise. losses[i] = 0.00 if changes[i] is positive, -changes[i]
+     * otherwise.
+     */
+    void splitGainsAndLosses(double[] changes, double[] gains, double[] losses);
+
+    /**
+     * out[i] = sum of values[i - window + 1 .. i], added oldest first. 0.00 for the first window - 1 bars.
+     */
+    void rollingSum(double[] values, int window, double[] out);
+
+    /**
+     * out[i] = {@link #rollingSum} / window, 0.00 for the first window - 1 bars.
+     */
+    void simpleMovingAverage(double[] values, int window, double[] out);
+
+    /**
+     * EMA over the trailing window only: seeded with values[i - window + 1] and smoothed over the rest of the window up to
+     * values[i]. 0.00 for the first window bars.
+     */
+    void windowedExponentialMovingAverage(double[] values, int window, double smoothingFactor, double[] out);
+
+    /**
+     * out[i] = max(high - low, |high - previous close|, |low - previous close|), high - low for the first bar.
+     */
+    void trueRange(double[] high, double[] low, double[] close, double[] out);
+
+    /**
+     * out[i] = ((values[i] / base) - 1) * 100.
+     */
+    void percentChange(double[] values, double base, double[] out);
+}
@@ -0,0 +1,43 @@
+package com.alphafinity.alphafinity.utility.kernel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks the column kernels once per JVM: {@link VectorKernels} when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, {@link ScalarKernels} otherwise or when {@code -Dalphafinity.kernels=scalar}
+ * is set. Both produce the same output.
+ */
+public class Kernels {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Kernels.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final ColumnKernels KERNELS = select();
+
+    private Kernels() {
+    }
+
+    public static ColumnKernels get() {
+        return KERNELS;
+    }
+
+    private static ColumnKernels select() {
+        if ("scalar".equals(System.getProperty("alphafinity.kernels"))) {
+            LOGGER.info("[Kernels] Using scalar kernels, as configured");
+            return new ScalarKernels();
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            LOGGER.info("[Kernels] Using scalar kernels, start the JVM with --add-modules " + VECTOR_MODULE + " for the vector kernels");
+            return new ScalarKernels();
+        }
+
+        try {
+            ColumnKernels kernels = new VectorKernels();
+            LOGGER.info("[Kernels] Using vector kernels");
+            return kernels;
+        } catch (LinkageError e) {
+            LOGGER.warn("[Kernels] Vector kernels are not available, using scalar kernels", e);
+            return new ScalarKernels();
+        }
+    }
+}
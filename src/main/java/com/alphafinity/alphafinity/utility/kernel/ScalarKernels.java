@@ -0,0 +1,123 @@
+package com.alphafinity.alphafinity.utility.kernel;
+
+/**
+ * One bar at a time, the reference for {@link VectorKernels} and the fallback when the Vector API is not available. The
+ * loops over a range of bars are shared with the vector kernels for the bars left over after the last full vector.
+ */
+public class ScalarKernels implements ColumnKernels {
+
+    @Override
+    public void difference(double[] values, double[] out) {
+        if (values.length > 0) {
+            out[0] = 0.0;
+            difference(values, out, 1, values.length);
+        }
+    }
+
+    @Override
+    public void splitGainsAndLosses(double[] changes, double[] gains, double[] losses) {
+        splitGainsAndLosses(changes, gains, losses, 0, changes.length);
+    }
+
+    @Override
+    public void rollingSum(double[] values, int window, double[] out) {
+        int first = firstFullWindow(values, window, out);
+        rollingSum(values, window, out, first, values.length);
+    }
+
+    @Override
+    public void simpleMovingAverage(double[] values, int window, double[] out) {
+        int first = firstFullWindow(values, window, out);
+        rollingSum(values, window, out, first, values.length);
+        divide(out, window, first, values.length);
+    }
+
+    @Override
+    public void windowedExponentialMovingAverage(double[] values, int window, double smoothingFactor, double[] out) {
+        int first = firstFullWindow(values, window + 1, out);
+        windowedExponentialMovingAverage(values, window, smoothingFactor, out, first, values.length);
+    }
+
+    @Override
+    public void trueRange(double[] high, double[] low, double[] close, double[] out) {
+        if (high.length > 0) {
+            out[0] = high[0] - low[0];
+            trueRange(high, low, close, out, 1, high.length);
+        }
+    }
+
+    @Override
+    public void percentChange(double[] values, double base, double[] out) {
+        percentChange(values, base, out, 0, values.length);
+    }
+
+    // Zeroes the bars before the first full window and returns the index of the first full window
+    static int firstFullWindow(double[] values, int window, double[] out) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be at least one bar");
+        }
+        int first = Math.min(window - 1, values.length);
+        for (int i = 0; i < first; i++) {
+            out[i] = 0.0;
+        }
+        return first;
+    }
+
+    static void difference(double[] values, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = values[i] - values[i - 1];
+        }
+    }
+
+    static void splitGainsAndLosses(double[] changes, double[] gains, double[] losses, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double change = changes[i];
+            gains[i] = change > 0 ? change : 0;
+            losses[i] = change > 0 ? 0 : -change;
+        }
+    }
+
+    static void rollingSum(double[] values, int window, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int start = i - window + 1;
+            double sum = values[start];
+            for (int k = 1; k < window; k++) {
+                sum += values[start + k];
+            }
+            out[i] = sum;
+        }
+    }
+
+    static void divide(double[] values, double divisor, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = values[i] / divisor;
+        }
+    }
+
+    static void windowedExponentialMovingAverage(double[] values, int window, double smoothingFactor, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int start = i - window + 1;
+            double ema = values[start];
+            for (int k = 1; k < window; k++) {
+                ema = (values[start + k] - ema) * smoothingFactor + ema;
+            }
+            out[i] = ema;
+        }
+    }
+
+    static void trueRange(double[] high, double[] low, double[] close, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double previousClose = close[i - 1];
+            double highLow = high[i] - low[i];
+            double highClose = Math.abs(high[i] - previousClose);
+            double lowClose = Math.abs(low[i] - previousClose);
+            out[i] = Math.max(highLow, Math.max(highClose, lowClose));
+        }
+    }
+
+    static void percentChange(double[] values, double base, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = ((values[i] / base) - 1) * 100;
+        }
+    }
+}
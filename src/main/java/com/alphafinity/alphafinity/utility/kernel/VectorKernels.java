@@ -0,0 +1,128 @@
+package com.alphafinity.alphafinity.utility.kernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnKernels} on the Vector API, processing as many consecutive bars per instruction as the preferred vector
+ * shape of the CPU holds (e.g. 4 doubles with AVX2, 8 with AVX-512). Each lane performs exactly the operations of the
+ * scalar loop in the same order, and the bars left over after the last full vector go through the scalar loop, so the
+ * output is identical to {@link ScalarKernels}. Requires {@code --add-modules jdk.incubator.vector}.
+ */
+public class VectorKernels implements ColumnKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void difference(double[] values, double[] out) {
+        if (values.length == 0) {
+            return;
+        }
+        out[0] = 0.0;
+
+        int i = 1;
+        for (int bound = 1 + SPECIES.loopBound(values.length - 1); i < bound; i += SPECIES.length()) {
+            DoubleVector current = DoubleVector.fromArray(SPECIES, values, i);
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, values, i - 1);
+            current.sub(previous).intoArray(out, i);
+        }
+        ScalarKernels.difference(values, out, i, values.length);
+    }
+
+    @Override
+    public void splitGainsAndLosses(double[] changes, double[] gains, double[] losses) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+
+        int i = 0;
+        for (int bound = SPECIES.loopBound(changes.length); i < bound; i += SPECIES.length()) {
+            DoubleVector change = DoubleVector.fromArray(SPECIES, changes, i);
+            VectorMask<Double> positive = change.compare(VectorOperators.GT, 0.0);
+            zero.blend(change, positive).intoArray(gains, i);
+            change.neg().blend(zero, positive).intoArray(losses, i);
+        }
+        ScalarKernels.splitGainsAndLosses(changes, gains, losses, i, changes.length);
+    }
+
+    @Override
+    public void rollingSum(double[] values, int window, double[] out) {
+        int first = ScalarKernels.firstFullWindow(values, window, out);
+        int i = rollingSum(values, window, out, first);
+        ScalarKernels.rollingSum(values, window, out, i, values.length);
+    }
+
+    @Override
+    public void simpleMovingAverage(double[] values, int window, double[] out) {
+        int first = ScalarKernels.firstFullWindow(values, window, out);
+        int i = rollingSum(values, window, out, first);
+        ScalarKernels.rollingSum(values, window, out, i, values.length);
+
+        i = first;
+        for (int bound = first + SPECIES.loopBound(values.length - first); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, out, i).div(window).intoArray(out, i);
+        }
+        ScalarKernels.divide(out, window, i, values.length);
+    }
+
+    // Window sums of the bars from `first` on in full vectors, returns the first bar left to the scalar loop
+    private static int rollingSum(double[] values, int window, double[] out, int first) {
+        int i = first;
+        for (int bound = first + SPECIES.loopBound(values.length - first); i < bound; i += SPECIES.length()) {
+            int start = i - window + 1;
+            DoubleVector sum = DoubleVector.fromArray(SPECIES, values, start);
+            for (int k = 1; k < window; k++) {
+                sum = sum.add(DoubleVector.fromArray(SPECIES, values, start + k));
+            }
+            sum.intoArray(out, i);
+        }
+        return i;
+    }
+
+    @Override
+    public void windowedExponentialMovingAverage(double[] values, int window, double smoothingFactor, double[] out) {
+        int first = ScalarKernels.firstFullWindow(values, window + 1, out);
+
+        int i = first;
+        for (int bound = first + SPECIES.loopBound(values.length - first); i < bound; i += SPECIES.length()) {
+            int start = i - window + 1;
+            DoubleVector ema = DoubleVector.fromArray(SPECIES, values, start);
+            for (int k = 1; k < window; k++) {
+                DoubleVector value = DoubleVector.fromArray(SPECIES, values, start + k);
+                ema = value.sub(ema).mul(smoothingFactor).add(ema);
+            }
+            ema.intoArray(out, i);
+        }
+        ScalarKernels.windowedExponentialMovingAverage(values, window, smoothingFactor, out, i, values.length);
+    }
+
+    @Override
+    public void trueRange(double[] high, double[] low, double[] close, double[] out) {
+        if (high.length == 0) {
+            return;
+        }
+        out[0] = high[0] - low[0];
+
+        int i = 1;
+        for (int bound = 1 + SPECIES.loopBound(high.length - 1); i < bound; i += SPECIES.length()) {
+            DoubleVector highs = DoubleVector.fromArray(SPECIES, high, i);
+            DoubleVector lows = DoubleVector.fromArray(SPECIES, low, i);
+            DoubleVector previousCloses = DoubleVector.fromArray(SPECIES, close, i - 1);
+
+            DoubleVector highLow = highs.sub(lows);
+            DoubleVector highClose = highs.sub(previousCloses).abs();
+            DoubleVector lowClose = lows.sub(previousCloses).abs();
+            highLow.max(highClose.max(lowClose)).intoArray(out, i);
+        }
+        ScalarKernels.trueRange(high, low, close, out, i, high.length);
+    }
+
+    @Override
+    public void percentChange(double[] values, double base, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(values.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, values, i).div(base).sub(1).mul(100).intoArray(out, i);
+        }
+        ScalarKernels.percentChange(values, base, out, i, values.length);
+    }
+}
@@ -0,0 +1,89 @@
+package com.alphafinity.alphafinity.benchmark;
+
+import com.alphafinity.alphafinity.utility.kernel.ColumnKernels;
+import com.alphafinity.alphafinity.utility.kernel.ScalarKernels;
+import com.alphafinity.alphafinity.utility.kernel.VectorKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API column kernels on a synthetic series, per kernel the indicators use.
+ * <br>
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ColumnKernelsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ColumnKernelsBenchmark {
+
+    @Param({"1000000", "4000000"})
+    public int bars;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private ColumnKernels columnKernels;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] out;
+    private double[] losses;
+
+    @Setup
+    public void setUp() {
+        columnKernels = kernels.equals("vector") ? new VectorKernels() : new ScalarKernels();
+
+        Random random = new Random(42);
+        high = new double[bars];
+        low = new double[bars];
+        close = new double[bars];
+        out = new double[bars];
+        losses = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            close[i] = i == 0 ? 100 : close[i - 1] + random.nextGaussian();
+            high[i] = close[i] + random.nextDouble();
+            low[i] = close[i] - random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double[] difference() {
+        columnKernels.difference(close, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] splitGainsAndLosses() {
+        columnKernels.splitGainsAndLosses(close, out, losses);
+        return out;
+    }
+
+    @Benchmark
+    public double[] simpleMovingAverage() {
+        columnKernels.simpleMovingAverage(close, 14, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] exponentialMovingAverage() {
+        columnKernels.windowedExponentialMovingAverage(close, 100, 2.0 / 101, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] trueRange() {
+        columnKernels.trueRange(high, low, close, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] percentChange() {
+        columnKernels.percentChange(close, close[0], out);
+        return out;
+    }
+}
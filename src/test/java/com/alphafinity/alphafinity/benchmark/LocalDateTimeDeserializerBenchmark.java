@@ -0,0 +1,129 @@
+package com.alphafinity.alphafinity.benchmark;
+
+import com.alphafinity.alphafinity.model.deserializer.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LocalDateTimeDeserializer} with the previous stream and exception based implementation, parsing a JSON
+ * array of dates in both supported shapes.
+ * <br>
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=LocalDateTimeDeserializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateTimeDeserializerBenchmark {
+
+    private static final int DATES = 10_000;
+
+    @Param({"dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy"})
+    public String shape;
+
+    private final JsonFactory factory = new JsonFactory();
+    private final JsonDeserializer<LocalDateTime> current = new LocalDateTimeDeserializer();
+    private final JsonDeserializer<LocalDateTime> previous = new PreviousLocalDateTimeDeserializer();
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(shape);
+        LocalDateTime start = LocalDateTime.of(2010, 1, 1, 9, 30);
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < DATES; i++) {
+            builder.append(i == 0 ? "" : ",").append('"').append(start.plusHours(i).format(formatter)).append('"');
+        }
+        json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public void current(Blackhole blackhole) throws IOException {
+        deserializeAll(current, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public void previous(Blackhole blackhole) throws IOException {
+        deserializeAll(previous, blackhole);
+    }
+
+    private void deserializeAll(JsonDeserializer<LocalDateTime> deserializer, Blackhole blackhole) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                blackhole.consume(deserializer.deserialize(parser, null));
+            }
+        }
+    }
+
+    /**
+     * The implementation of LocalDateTimeDeserializer before the hand written fast path, kept as the baseline.
+     */
+    private static class PreviousLocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
+
+        private static final List<DateTimeFormatter> FORMATTERS = Arrays.asList(
+                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"),
+                DateTimeFormatter.ofPattern("dd/MM/yyyy")
+        );
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String date = p.getText();
+
+            Optional<LocalDateTime> parsedDateTime = FORMATTERS.stream()
+                    .filter(formatter -> formatter.toString().contains("HH:mm:ss"))
+                    .map(formatter -> {
+                        try {
+                            return LocalDateTime.parse(date, formatter);
+                        } catch (Exception e) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .findFirst();
+
+            if (parsedDateTime.isPresent()) {
+                return parsedDateTime.get();
+            }
+
+            Optional<LocalDate> parsedDate = FORMATTERS.stream()
+                    .filter(formatter -> !formatter.toString().contains("HH:mm:ss"))
+                    .map(formatter -> {
+                        try {
+                            return LocalDate.parse(date, formatter);
+                        } catch (Exception e) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .findFirst();
+
+            if (parsedDate.isPresent()) {
+                return parsedDate.get().atStartOfDay();
+            }
+
+            throw new IOException("Unable to parse date: " + date);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.alphafinity.alphafinity.controller;
+
+import com.alphafinity.alphafinity.model.BacktestJob;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.alphafinity.alphafinity.model.enumerations.JobStatus;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import com.alphafinity.alphafinity.service.AnalyticsService;
+import com.alphafinity.alphafinity.service.BacktestJobService;
+import com.alphafinity.alphafinity.service.BacktestService;
+import com.alphafinity.alphafinity.service.BacktestTradeExecutor;
+import com.alphafinity.alphafinity.service.BacktestValidationService;
+import com.alphafinity.alphafinity.service.IndicatorCache;
+import com.alphafinity.alphafinity.service.IndicatorRegistry;
+import com.alphafinity.alphafinity.service.IndicatorService;
+import com.alphafinity.alphafinity.service.MonteCarloService;
+import com.alphafinity.alphafinity.service.Portfolio;
+import com.alphafinity.alphafinity.service.Strategy;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SseJobListenerTest {
+
+    public ForkJoinPool pool;
+    public ThreadPoolExecutor executor;
+    public BacktestTradeExecutor tradeExecutor;
+    public BacktestJobService jobService;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10));
+        tradeExecutor = new BacktestTradeExecutor();
+        BacktestService backtestService = new BacktestService(tradeExecutor, new AnalyticsService(), new BacktestValidationService(),
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+        jobService = new BacktestJobService(backtestService, new MonteCarloService(pool, 100, 0.95), executor, 60);
+        data = sineWave(2_500); // States are streamed in batches of 1000
+    }
+
+    @AfterAll
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testStream_SendsBatchesThenFinishedAndCompletes() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(-1);
+        SseJobListener listener = new SseJobListener(emitter);
+
+        BacktestJob job = jobService.submit(new RSIStrategy(tradeExecutor), data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.cancelOnDisconnect(jobService, job.id);
+        emitter.awaitEnd();
+
+        Assertions.assertEquals(List.of("progress", "states", "progress", "states", "progress", "states", "finished", "complete"),
+                emitter.events);
+        int streamedStates = emitter.data.stream()
+                .filter(List.class::isInstance)
+                .mapToInt(states -> ((List<?>) states).size())
+                .sum();
+        Assertions.assertEquals(data.size(), streamedStates);
+        Assertions.assertEquals(JobStatus.COMPLETED, ((BacktestJob) emitter.data.get(emitter.data.size() - 1)).status);
+
+        // The container completes the stream afterwards, which leaves the finished job alone
+        emitter.completionCallback.run();
+        Assertions.assertEquals(JobStatus.COMPLETED, jobService.getJob(job.id).status);
+        Assertions.assertTrue(jobService.getResult(job.id).states.isEmpty()); // The states were only streamed
+    }
+
+    @Test
+    public void testStream_ClientGoneCancelsJob() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(0); // The first send fails, as it does once the client went away
+        SseJobListener listener = new SseJobListener(emitter);
+
+        BacktestJob job = jobService.submit(new RSIStrategy(tradeExecutor), data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.cancelOnDisconnect(jobService, job.id);
+        BacktestJob finished = awaitFinished(job.id);
+
+        Assertions.assertEquals(JobStatus.CANCELLED, finished.status);
+        Assertions.assertTrue(finished.barsProcessed < data.size());
+        Assertions.assertEquals(List.of(), emitter.events); // Nothing more is sent to a detached listener
+    }
+
+    @Test
+    public void testStream_DisconnectCallbackCancelsRunningJob() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(-1);
+        SseJobListener listener = new SseJobListener(emitter);
+        BlockingStrategy strategy = new BlockingStrategy();
+
+        BacktestJob job = jobService.submit(strategy, data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.cancelOnDisconnect(jobService, job.id);
+        strategy.started.await(10, TimeUnit.SECONDS);
+
+        emitter.errorCallback.accept(new IOException("Broken pipe"));
+        strategy.release.countDown();
+        emitter.awaitEnd();
+
+        // The state of the one bar that ran is still sent before the end of the stream
+        Assertions.assertEquals(List.of("progress", "states", "finished", "complete"), emitter.events);
+        Assertions.assertEquals(JobStatus.CANCELLED, ((BacktestJob) emitter.data.get(emitter.data.size() - 1)).status);
+        Assertions.assertEquals(1, jobService.getJob(job.id).barsProcessed);
+    }
+
+    private BacktestJob awaitFinished(String id) throws InterruptedException {
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            BacktestJob job = jobService.getJob(id);
+            if (job.status.isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job did not finish");
+    }
+
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+
+    /**
+     * Emitter standing in for the servlet container: records the event names and their data in order, can fail sends as
+     * a closed connection does, and keeps the callbacks so the test can invoke them as the container would.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        private final List<Object> data = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final int failFrom;
+        private Runnable completionCallback;
+        private Consumer<Throwable> errorCallback;
+
+        // Sends from the given index on fail, -1 to never fail
+        private RecordingEmitter(int failFrom) {
+            super(0L);
+            this.failFrom = failFrom;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failFrom >= 0 && events.size() >= failFrom) {
+                throw new IOException("Broken pipe");
+            }
+            List<DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String header = (String) parts.get(0).getData();
+            events.add(header.substring(header.indexOf("event:") + 6, header.indexOf('\n')));
+            parts.stream()
+                    .filter(part -> MediaType.APPLICATION_JSON.equals(part.getMediaType()))
+                    .forEach(part -> data.add(part.getData()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            events.add("complete");
+            completed.countDown();
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            errorCallback = callback;
+        }
+
+        private void awaitEnd() throws InterruptedException {
+            Assertions.assertTrue(completed.await(10, TimeUnit.SECONDS), "Stream was not completed");
+        }
+    }
+
+    // Holds the worker on its first bar until released
+    private static class BlockingStrategy extends Strategy {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public Context execute(Context context, TimeSeriesEntry data) {
+            return context;
+        }
+
+        @Override
+        public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String strategyName() {
+            return "blocking";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.alphafinity.alphafinity.model;
+
+import com.alphafinity.alphafinity.model.enumerations.LotMatching;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PositionBookTest {
+
+    @Test
+    public void testMatch_FifoAndLifo() {
+        PositionBook book = new PositionBook();
+        Transaction first = lot(10.00, 2);
+        Transaction second = lot(11.00, 3);
+        Transaction third = lot(12.00, 4);
+        book.addAll(List.of(first, second, third));
+
+        Assertions.assertEquals(List.of(first, second), book.match(4, LotMatching.FIFO));
+        Assertions.assertEquals(List.of(third), book.match(4, LotMatching.LIFO));
+        Assertions.assertEquals(List.of(third, second, first), book.match(100, LotMatching.LIFO));
+    }
+
+    @Test
+    public void testRemoveAndReplace_KeepOrderAndOpenQuantity() {
+        PositionBook book = new PositionBook();
+        Transaction first = lot(10.00, 2);
+        Transaction second = lot(11.00, 3);
+        Transaction third = lot(12.00, 4);
+        book.addAll(List.of(first, second, third));
+
+        Assertions.assertTrue(book.remove(second));
+        Assertions.assertFalse(book.remove(second));
+        Assertions.assertEquals(6, book.getOpenQuantity());
+        Assertions.assertEquals(60.00, book.marketValue(10.00));
+
+        Transaction remainder = lot(10.00, 1);
+        book.replace(first, remainder);
+
+        Assertions.assertEquals(List.of(remainder, third), book.lots());
+        Assertions.assertEquals(5, book.getOpenQuantity());
+    }
+
+    @Test
+    public void testAdd_RejectsClosedTransactions() {
+        Transaction closed = new Transaction.Builder()
+                .type(TransactionType.LONG_CLOSE)
+                .status(TransactionOperation.CLOSE)
+                .price(10.00)
+                .quantity(1)
+                .build();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PositionBook().add(closed));
+    }
+
+    private static Transaction lot(double price, int quantity) {
+        return new Transaction.Builder()
+                .type(TransactionType.LONG_OPEN)
+                .status(TransactionOperation.OPEN)
+                .time(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .price(price)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.alphafinity.alphafinity.model.deserializer;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LocalDateTimeDeserializerTest {
+
+    public ObjectMapper mapper;
+
+    @BeforeAll
+    public void setUp() {
+        mapper = new JacksonConfiguration().objectMapper();
+    }
+
+    @Test
+    public void testDeserialize_DateTime() throws IOException {
+        Assertions.assertEquals(LocalDateTime.of(2022, 5, 27, 8, 30, 15), parse("27/05/2022 08:30:15"));
+        Assertions.assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 59), parse("29/02/2024 23:59:59"));
+    }
+
+    @Test
+    public void testDeserialize_Date() throws IOException {
+        Assertions.assertEquals(LocalDateTime.of(2024, 10, 5, 0, 0), parse("05/10/2024"));
+        Assertions.assertEquals(LocalDateTime.of(1969, 12, 31, 0, 0), parse("31/12/1969"));
+    }
+
+    @Test
+    public void testDeserialize_InvalidDate() {
+        Assertions.assertThrows(JsonMappingException.class, () -> parse("04/30/2024"));
+        Assertions.assertThrows(JsonMappingException.class, () -> parse("2024-04-30"));
+        Assertions.assertThrows(JsonMappingException.class, () -> parse("27/05/2022 25:00:00"));
+    }
+
+    private LocalDateTime parse(String date) throws IOException {
+        return mapper.readValue("\"" + date + "\"", LocalDateTime.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.alphafinity.alphafinity.model.deserializer;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TimeSeriesDataDeserializerTest {
+
+    public ObjectMapper mapper;
+
+    @BeforeAll
+    public void setUp() {
+        mapper = new JacksonConfiguration().objectMapper();
+    }
+
+    @Test
+    public void testDeserialize_ReversedData() throws IOException {
+        assertMatchesEntries(new File("src/test/resources/sample-data/sample01.json"));
+    }
+
+    @Test
+    public void testDeserialize_SortedData() throws IOException {
+        assertMatchesEntries(new File("src/main/resources/spy_hourly.json"));
+    }
+
+    @Test
+    public void testDeserialize_UnsortedData() throws IOException {
+        String json = """
+                [
+                  {"date": "03/01/2024", "close": 3, "open": 3, "high": 3, "low": 3, "volume": 30},
+                  {"date": "01/01/2024", "close": 1, "open": 1, "high": 1, "low": 1, "volume": 10},
+                  {"date": "02/01/2024", "close": 2, "open": 2, "high": 2, "low": 2, "volume": 20, "unknown": {"a": [1]}},
+                  {"date": "01/01/2024", "close": 4, "open": 4, "high": 4, "low": 4}
+                ]
+                """;
+
+        TimeSeriesData response = mapper.readValue(json, TimeSeriesData.class);
+
+        Assertions.assertEquals(4, response.size());
+        Assertions.assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), response.getFirstEntry().datetime);
+        Assertions.assertEquals(LocalDateTime.of(2024, 1, 3, 0, 0), response.getLastEntry().datetime);
+        Assertions.assertArrayEquals(new double[]{1, 4, 2, 3}, response.close);
+        Assertions.assertNull(response.entries.get(1).volume);
+    }
+
+    private void assertMatchesEntries(File file) throws IOException {
+        List<TimeSeriesEntry> entries = mapper.readValue(file, new TypeReference<>() {});
+        TimeSeriesData expected = new TimeSeriesData(entries);
+
+        TimeSeriesData response = mapper.readValue(file, TimeSeriesData.class);
+
+        Assertions.assertArrayEquals(expected.timestamps, response.timestamps);
+        Assertions.assertArrayEquals(expected.open, response.open);
+        Assertions.assertArrayEquals(expected.high, response.high);
+        Assertions.assertArrayEquals(expected.low, response.low);
+        Assertions.assertArrayEquals(expected.close, response.close);
+        Assertions.assertArrayEquals(expected.volume, response.volume);
+    }
+}
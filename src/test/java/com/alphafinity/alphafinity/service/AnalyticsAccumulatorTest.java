@@ -0,0 +1,172 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Account;
+import com.alphafinity.alphafinity.model.Analytics;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Checks the single pass accumulator against the original stream based calculations, which are kept below as the
+ * reference. Results must be identical, not just close.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AnalyticsAccumulatorTest {
+
+    private static final double INITIAL_CAPITAL = 1000.00;
+
+    public AnalyticsService analyticsService;
+    public Context context;
+
+    @BeforeAll
+    public void setUp() {
+        analyticsService = new AnalyticsService();
+        context = contextWithTrades(2_000, new Random(42));
+    }
+
+    @Test
+    public void testAccumulator_MatchesStreamCalculations() {
+        AnalyticsAccumulator accumulator = AnalyticsAccumulator.of(INITIAL_CAPITAL, context.analytics.transactions);
+        List<Transaction> closedTrades = context.getClosedTransactions();
+
+        Assertions.assertEquals(context.analytics.transactions.size(), accumulator.getTotalTrades());
+        Assertions.assertEquals(context.analytics.transactions.size() - closedTrades.size(), accumulator.getTotalOpeningTrades());
+        Assertions.assertEquals(closedTrades.size(), accumulator.getTotalClosingTrades());
+        Assertions.assertEquals(expectedWinRate(closedTrades), accumulator.getWinRate());
+        Assertions.assertEquals(closedTrades.stream().mapToDouble(t -> t.profit).sum() / closedTrades.size(), accumulator.getAverageReturn());
+        Assertions.assertEquals(expectedAverage(closedTrades, 1), accumulator.getAverageProfit());
+        Assertions.assertEquals(expectedAverage(closedTrades, -1), accumulator.getAverageLoss());
+        Assertions.assertEquals(expectedMaxDrawdown(expectedEquityCurve(closedTrades)), accumulator.getMaxDrawdown());
+        Assertions.assertEquals(expectedSharpeRatio(closedTrades), accumulator.getSharpeRatio());
+    }
+
+    @Test
+    public void testEquityCurve_MatchesPrefixSums() {
+        Assertions.assertEquals(expectedEquityCurve(context.getClosedTransactions()), analyticsService.getEquityCurve(context));
+    }
+
+    @Test
+    public void testAccumulator_NoTrades() {
+        AnalyticsAccumulator accumulator = AnalyticsAccumulator.of(INITIAL_CAPITAL, List.of());
+
+        Assertions.assertEquals(0, accumulator.getTotalTrades());
+        Assertions.assertEquals(0.0, accumulator.getWinRate());
+        Assertions.assertEquals(0.0, accumulator.getAverageReturn());
+        Assertions.assertEquals(0.0, accumulator.getMaxDrawdown());
+        Assertions.assertEquals(0.0, accumulator.getSharpeRatio());
+    }
+
+    @Test
+    public void testSharpeRatio_SingleTradeHasNoVariation() {
+        AnalyticsAccumulator accumulator = AnalyticsAccumulator.of(INITIAL_CAPITAL, contextWithTrades(1, new Random(1)).analytics.transactions);
+
+        Assertions.assertEquals(0.0, accumulator.getSharpeRatio());
+    }
+
+    @Test
+    public void testAccumulator_HundredThousandTrades() {
+        Context largeContext = contextWithTrades(100_000, new Random(7));
+
+        AnalyticsAccumulator accumulator = AnalyticsAccumulator.of(INITIAL_CAPITAL, largeContext.analytics.transactions);
+
+        Assertions.assertEquals(200_000, accumulator.getTotalTrades());
+        Assertions.assertEquals(100_000, accumulator.getTotalClosingTrades());
+    }
+
+    private static Context contextWithTrades(int trades, Random random) {
+        Analytics.Builder analytics = new Analytics.Builder();
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (int i = 0; i < trades; i++) {
+            analytics.addTransaction(new Transaction.Builder()
+                    .type(TransactionType.LONG_OPEN)
+                    .status(TransactionOperation.OPEN)
+                    .time(time.plusHours(2L * i))
+                    .price(100.00)
+                    .quantity(1)
+                    .profit(0.00)
+                    .build());
+            // Large first win keeps the equity curve positive, includes break-even trades which are neither winners nor losers
+            double profit = i == 0 ? 10_000.00 : random.nextInt(10) == 0 ? 0.00 : random.nextGaussian() * 25 + 2;
+            analytics.addTransaction(new Transaction.Builder()
+                    .type(TransactionType.LONG_CLOSE)
+                    .status(TransactionOperation.CLOSE)
+                    .time(time.plusHours(2L * i + 1))
+                    .price(100.00)
+                    .quantity(1)
+                    .profit(profit)
+                    .build());
+        }
+
+        return new Context.Builder()
+                .account(new Account.Builder()
+                        .initialCapital(INITIAL_CAPITAL)
+                        .currentCapital(INITIAL_CAPITAL)
+                        .build())
+                .analytics(analytics.build())
+                .build();
+    }
+
+    // Reference implementations, as AnalyticsService calculated them before the accumulator
+
+    private static List<Double> expectedEquityCurve(List<Transaction> closedTrades) {
+        return IntStream.range(0, closedTrades.size())
+                .mapToObj(i -> closedTrades.subList(0, i + 1)
+                        .stream()
+                        .mapToDouble(transaction -> transaction.profit)
+                        .sum())
+                .collect(Collectors.toList());
+    }
+
+    private static double expectedMaxDrawdown(List<Double> equityCurve) {
+        return IntStream.range(0, equityCurve.size())
+                .mapToDouble(i -> {
+                    double peak = equityCurve.subList(0, i + 1).stream().max(Double::compare).orElse(0.0);
+                    return (peak - equityCurve.get(i)) / peak;
+                })
+                .max()
+                .orElse(0.0);
+    }
+
+    // Per-trade Sharpe ratio of the returns relative to the realised capital, the reference for the corrected calculation
+    private static double expectedSharpeRatio(List<Transaction> closedTrades) {
+        List<Double> returns = new ArrayList<>();
+        double capital = INITIAL_CAPITAL;
+        for (Transaction transaction : closedTrades) {
+            returns.add(transaction.profit / capital);
+            capital += transaction.profit;
+        }
+
+        double mean = returns.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = returns.stream().mapToDouble(r -> Math.pow(r - mean, 2)).average().orElse(0);
+
+        return mean / Math.sqrt(variance);
+    }
+
+    private static double expectedWinRate(List<Transaction> closedTrades) {
+        long winningTrades = closedTrades.stream().filter(transaction -> transaction.profit > 0).count();
+        return ((double) winningTrades / closedTrades.size()) * 100;
+    }
+
+    // Average of the winning (sign 1) or losing (sign -1) trades
+    private static double expectedAverage(List<Transaction> closedTrades, int sign) {
+        double total = closedTrades.stream()
+                .mapToDouble(transaction -> transaction.profit)
+                .filter(profit -> Math.signum(profit) == sign)
+                .sum();
+        long count = closedTrades.stream().filter(transaction -> Math.signum(transaction.profit) == sign).count();
+        return total / count;
+    }
+}
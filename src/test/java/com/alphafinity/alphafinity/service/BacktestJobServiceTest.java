@@ -0,0 +1,205 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.BacktestJob;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.alphafinity.alphafinity.model.enumerations.JobStatus;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BacktestJobServiceTest {
+
+    public ForkJoinPool pool;
+    public ThreadPoolExecutor executor;
+    public BacktestService backtestService;
+    public MonteCarloService monteCarloService;
+    public BacktestTradeExecutor tradeExecutor;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        // A single worker, so a job submitted while another runs stays queued
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10));
+        tradeExecutor = new BacktestTradeExecutor();
+        backtestService = new BacktestService(tradeExecutor, new AnalyticsService(), new BacktestValidationService(),
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+        monteCarloService = new MonteCarloService(pool, 100, 0.95);
+        data = sineWave(500);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSubmit_CompletesWithResult() throws InterruptedException {
+        BacktestJobService jobService = new BacktestJobService(backtestService, monteCarloService, executor, 60);
+        FinishedListener listener = new FinishedListener();
+
+        BacktestJob job = jobService.submit(new RSIStrategy(tradeExecutor), data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.await();
+
+        BacktestJob finished = jobService.getJob(job.id);
+        Assertions.assertEquals(JobStatus.COMPLETED, finished.status);
+        Assertions.assertEquals(data.size(), finished.barsProcessed);
+        Assertions.assertEquals(JobStatus.COMPLETED, listener.finished.status);
+
+        Context result = jobService.getResult(job.id);
+        Assertions.assertNotNull(result.analytics.totalTrades);
+        Assertions.assertNotNull(result.monteCarlo);
+    }
+
+    @Test
+    public void testCancel_QueuedAndRunningJobs() throws InterruptedException {
+        BacktestJobService jobService = new BacktestJobService(backtestService, monteCarloService, executor, 60);
+        BlockingStrategy blocking = new BlockingStrategy();
+        FinishedListener runningListener = new FinishedListener();
+        FinishedListener queuedListener = new FinishedListener();
+
+        BacktestJob running = jobService.submit(blocking, data, data, ResamplingMethod.BOOTSTRAP, 42L, runningListener);
+        blocking.started.await(10, TimeUnit.SECONDS);
+        BacktestJob queued = jobService.submit(new RSIStrategy(tradeExecutor), data, data, ResamplingMethod.BOOTSTRAP, 42L, queuedListener);
+        Assertions.assertEquals(JobStatus.QUEUED, jobService.getJob(queued.id).status);
+
+        // A queued job is cancelled straight away
+        Assertions.assertEquals(JobStatus.CANCELLED, jobService.cancel(queued.id).status);
+        queuedListener.await();
+        Assertions.assertNull(jobService.getResult(queued.id));
+
+        // A running job stops at its next bar
+        Assertions.assertEquals(JobStatus.RUNNING, jobService.cancel(running.id).status);
+        blocking.release.countDown();
+        runningListener.await();
+
+        BacktestJob cancelled = jobService.getJob(running.id);
+        Assertions.assertEquals(JobStatus.CANCELLED, cancelled.status);
+        Assertions.assertTrue(cancelled.barsProcessed < data.size());
+        Assertions.assertNull(jobService.getResult(running.id));
+    }
+
+    @Test
+    public void testRun_ErrorMarksJobFailed() throws InterruptedException {
+        BacktestJobService jobService = new BacktestJobService(backtestService, monteCarloService, executor, 60);
+        FinishedListener listener = new FinishedListener();
+
+        BacktestJob job = jobService.submit(new FailingStrategy(), data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.await();
+
+        BacktestJob failed = jobService.getJob(job.id);
+        Assertions.assertEquals(JobStatus.FAILED, failed.status);
+        Assertions.assertEquals("Strategy failed", failed.error);
+        Assertions.assertNotNull(failed.finishedAt);
+    }
+
+    @Test
+    public void testPurgeFinishedJobs_DropsJobsPastRetention() throws InterruptedException {
+        BacktestJobService jobService = new BacktestJobService(backtestService, monteCarloService, executor, 0);
+        FinishedListener listener = new FinishedListener();
+
+        BacktestJob job = jobService.submit(new RSIStrategy(tradeExecutor), data, data, ResamplingMethod.BOOTSTRAP, 42L, listener);
+        listener.await();
+        Thread.sleep(5);
+
+        jobService.purgeFinishedJobs();
+
+        Assertions.assertThrows(NoSuchElementException.class, () -> jobService.getJob(job.id));
+        Assertions.assertThrows(NoSuchElementException.class, () -> jobService.cancel(job.id));
+    }
+
+    // Rising and falling prices, so the RSI crosses both thresholds
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+
+    private static class FinishedListener implements BacktestJobListener {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile BacktestJob finished;
+
+        @Override
+        public void onProgress(BacktestJob job, List<State> states) {
+        }
+
+        @Override
+        public void onFinished(BacktestJob job) {
+            finished = job;
+            latch.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS), "Job did not finish");
+        }
+    }
+
+    // Holds the worker on its first bar until released
+    private static class BlockingStrategy extends Strategy {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public Context execute(Context context, TimeSeriesEntry data) {
+            return context;
+        }
+
+        @Override
+        public void onBar(Portfolio portfolio, TimeSeriesData data, int index) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String strategyName() {
+            return "blocking";
+        }
+    }
+
+    // Throws an Error rather than an exception
+    private static class FailingStrategy extends Strategy {
+
+        @Override
+        public Context execute(Context context, TimeSeriesEntry data) {
+            throw new AssertionError("Strategy failed");
+        }
+
+        @Override
+        public String strategyName() {
+            return "failing";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.StrategyComparison;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.strategy.BuyAndHold;
+import com.alphafinity.alphafinity.strategy.EMAStrategy;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BacktestServiceStrategiesTest {
+
+    public ForkJoinPool pool;
+    public BacktestTradeExecutor tradeExecutor;
+    public BacktestService backtestService;
+    public ObjectMapper mapper;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        tradeExecutor = new BacktestTradeExecutor();
+        backtestService = new BacktestService(tradeExecutor, new AnalyticsService(), new BacktestValidationService(),
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        data = sineWave(1_000);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testExecuteStrategies_SameAsSeparateRuns() throws JsonProcessingException {
+        List<Context> together = backtestService.executeStrategies(new Context.Builder().build(), strategies(), data, data);
+
+        List<Strategy> strategies = strategies();
+        Assertions.assertEquals(strategies.size(), together.size());
+        for (int i = 0; i < strategies.size(); i++) {
+            Context separate = backtestService.executeStrategy(new Context.Builder().build(), strategies.get(i), data, data);
+
+            Assertions.assertEquals(mapper.writeValueAsString(separate.analytics), mapper.writeValueAsString(together.get(i).analytics),
+                    strategies.get(i).strategyName());
+            Assertions.assertEquals(mapper.writeValueAsString(separate.states), mapper.writeValueAsString(together.get(i).states),
+                    strategies.get(i).strategyName());
+            Assertions.assertEquals(data.size(), together.get(i).states.size());
+        }
+
+        // The strategies trade on this data, so the comparison is not between empty ledgers
+        Assertions.assertTrue(together.get(0).analytics.totalClosingTrades > 1);
+    }
+
+    @Test
+    public void testCompareStrategies_SameAnalyticsWithoutStates() throws JsonProcessingException {
+        List<Context> withStates = backtestService.executeStrategies(new Context.Builder().build(), strategies(), data, data);
+        List<Context> withoutStates = backtestService.executeStrategies(new Context.Builder().build(), strategies(), data, data, false);
+        List<StrategyComparison> comparisons = backtestService.compareStrategies(strategies(), data, data);
+
+        for (int i = 0; i < withStates.size(); i++) {
+            String analytics = mapper.writeValueAsString(withStates.get(i).analytics);
+            Assertions.assertEquals(analytics, mapper.writeValueAsString(withoutStates.get(i).analytics));
+            Assertions.assertEquals(analytics, mapper.writeValueAsString(comparisons.get(i).analytics));
+            Assertions.assertTrue(withoutStates.get(i).states.isEmpty());
+        }
+    }
+
+    // Fresh instances for every run, so no run sees the state another one left in a strategy
+    private List<Strategy> strategies() {
+        return List.of(new RSIStrategy(tradeExecutor), new EMAStrategy(tradeExecutor), new BuyAndHold(tradeExecutor));
+    }
+
+    // Rising and falling prices, so the RSI crosses both thresholds
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+}
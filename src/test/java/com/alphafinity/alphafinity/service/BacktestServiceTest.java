@@ -18,7 +18,6 @@ import java.io.IOException;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.MockitoAnnotations.openMocks;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -60,7 +59,7 @@ public class BacktestServiceTest {
                 .build();
 
         Analytics updatedAnalytics = new Analytics.Builder()
-                .addTransaction(new Transaction.Builder().quantity(10).price(20.0).status(TransactionOperation.CLOSE).build())
+                .addTransaction(new Transaction.Builder().quantity(10).price(20.0).profit(10.0).status(TransactionOperation.CLOSE).build())
                 .build();
 
         Account updatedAccount = new Account.Builder(context)
@@ -76,7 +75,7 @@ public class BacktestServiceTest {
         TimeSeriesData strategyData = new TimeSeriesData(strategyEntries);
 
         Mockito.doNothing().when(validationService).validateTimeframes(any(TimeSeriesData.class), any(TimeSeriesData.class));
-        Mockito.when(indicatorService.populateDataWithIndicators(any(TimeSeriesData.class), anyList()))
+        Mockito.when(indicatorService.populateDataWithIndicators(any(TimeSeriesData.class), any(String[].class)))
                         .thenReturn(strategyData);
         Mockito.when(tradeExecutor.buy(any(Context.class), any(Transaction.class)))
                 .thenReturn(new Context.Builder(context).build());
@@ -90,6 +89,10 @@ public class BacktestServiceTest {
         Assertions.assertEquals(0, response.account.activeTrades.size());
         Assertions.assertEquals(0, response.getActiveTransactions().size());
         Assertions.assertEquals(1, response.getClosedTransactions().size());
+        // Trade statistics are accumulated from the ledger returned by the close out
+        Assertions.assertEquals(1, response.analytics.totalClosingTrades);
+        Assertions.assertEquals(100.0, response.analytics.winRate);
+        Assertions.assertEquals(10.0, response.analytics.averageReturn);
     }
 
     @Test
@@ -107,7 +110,7 @@ public class BacktestServiceTest {
                 .build();
 
         Analytics updatedAnalytics = new Analytics.Builder()
-                .addTransaction(new Transaction.Builder().quantity(10).price(20.0).status(TransactionOperation.CLOSE).build())
+                .addTransaction(new Transaction.Builder().quantity(10).price(20.0).profit(10.0).status(TransactionOperation.CLOSE).build())
                 .build();
 
         Account updatedAccount = new Account.Builder(context)
@@ -123,7 +126,7 @@ public class BacktestServiceTest {
         TimeSeriesData strategyData = new TimeSeriesData(strategyEntries);
 
         Mockito.doNothing().when(validationService).validateTimeframes(any(TimeSeriesData.class), any(TimeSeriesData.class));
-        Mockito.when(indicatorService.populateDataWithIndicators(any(TimeSeriesData.class), anyList()))
+        Mockito.when(indicatorService.populateDataWithIndicators(any(TimeSeriesData.class), any(String[].class)))
                 .thenReturn(strategyData);
         Mockito.when(tradeExecutor.buy(any(Context.class), any(Transaction.class)))
                 .thenReturn(new Context.Builder(context).build());
@@ -137,5 +140,9 @@ public class BacktestServiceTest {
         Assertions.assertEquals(0, response.account.activeTrades.size());
         Assertions.assertEquals(0, response.getActiveTransactions().size());
         Assertions.assertEquals(1, response.getClosedTransactions().size());
+        // Trade statistics are accumulated from the ledger returned by the close out
+        Assertions.assertEquals(1, response.analytics.totalClosingTrades);
+        Assertions.assertEquals(100.0, response.analytics.winRate);
+        Assertions.assertEquals(10.0, response.analytics.averageReturn);
     }
 }
@@ -4,6 +4,7 @@ import com.alphafinity.alphafinity.model.Account;
 import com.alphafinity.alphafinity.model.Analytics;
 import com.alphafinity.alphafinity.model.Context;
 import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.LotMatching;
 import com.alphafinity.alphafinity.model.enumerations.Quantity;
 import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
 import com.alphafinity.alphafinity.model.enumerations.TransactionType;
@@ -171,4 +172,54 @@ public class BacktestTradeExecutorTest {
         Assertions.assertEquals(TransactionOperation.CLOSE, response.getClosedTransactions().getFirst().operation);
         Assertions.assertEquals(TransactionOperation.CLOSE, response.getClosedTransactions().getLast().operation);
     }
+
+    @Test
+    public void testCloseLifo_PartiallyClosesLastMatchedLot(){
+        Transaction older = new Transaction.Builder()
+                .type(TransactionType.LONG_OPEN)
+                .status(TransactionOperation.OPEN)
+                .time(LocalDateTime.of(2020, 1, 8, 1, 1, 1))
+                .price(10.00)
+                .quantity(5)
+                .build();
+
+        Transaction newer = new Transaction.Builder()
+                .type(TransactionType.LONG_OPEN)
+                .status(TransactionOperation.OPEN)
+                .time(LocalDateTime.of(2020, 1, 9, 1, 1, 1))
+                .price(12.00)
+                .quantity(3)
+                .build();
+
+        Account account = new Account.Builder()
+                .initialCapital(100.00)
+                .currentCapital(0.00)
+                .addTrades(List.of(older, newer))
+                .build();
+
+        Context context = new Context.Builder()
+                .account(account)
+                .analytics(new Analytics.Builder().build())
+                .build();
+
+        Transaction order = new Transaction.Builder()
+                .time(LocalDateTime.of(2020, 1, 10, 1, 1, 1))
+                .price(20.00)
+                .quantity(4)
+                .build();
+
+        Context response = backtestTradeExecutor.close(context, order, LotMatching.LIFO);
+
+        // The newer lot is closed in full, one share of the older lot is closed and four stay open
+        Assertions.assertEquals(2, response.getClosedTransactions().size());
+        Assertions.assertEquals(3, response.getClosedTransactions().getFirst().quantity);
+        Assertions.assertEquals(24, response.getClosedTransactions().getFirst().profit);
+        Assertions.assertEquals(1, response.getClosedTransactions().getLast().quantity);
+        Assertions.assertEquals(10, response.getClosedTransactions().getLast().profit);
+
+        Assertions.assertEquals(1, response.getActiveTransactions().size());
+        Assertions.assertEquals(4, response.getActiveTransactions().getFirst().quantity);
+        Assertions.assertEquals(4, response.account.activeTrades.getOpenQuantity());
+        Assertions.assertEquals(80, response.account.currentCapital);
+    }
 }
@@ -0,0 +1,86 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BarFileServiceTest {
+
+    public Path directory;
+    public BarFileService barFileService;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bar-files");
+        barFileService = new BarFileService(new JacksonConfiguration().objectMapper(), directory);
+        data = new TimeSeriesData(
+                new long[]{1_700_000_000L, 1_700_003_600L, 1_700_007_200L},
+                new double[]{10.0, 11.0, 12.0},
+                new double[]{10.5, 11.5, 12.5},
+                new double[]{9.5, 10.5, Double.NaN},
+                new double[]{10.25, 11.25, 12.25},
+                new double[]{100.0, 200.0, 300.0});
+    }
+
+    @Test
+    public void testWrite_RoundTripsThroughFileAndBytes() throws IOException {
+        Path path = directory.resolve("round-trip.bars");
+        barFileService.write(data, path);
+
+        assertSameBars(data, barFileService.read(path));
+        assertSameBars(data, barFileService.read(Files.readAllBytes(path)));
+        assertSameBars(data, barFileService.parse(new ByteArrayInputStream(Files.readAllBytes(path))));
+    }
+
+    @Test
+    public void testRead_RejectsTruncatedFile() throws IOException {
+        Path path = directory.resolve("truncated.bars");
+        barFileService.write(data, path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(path));
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void testRead_RejectsBadMagicAndBarCount() throws IOException {
+        Path path = directory.resolve("header.bars");
+        barFileService.write(data, path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] ^= 1;
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(badMagic));
+
+        byte[] negativeCount = bytes.clone();
+        ByteBuffer.wrap(negativeCount).order(ByteOrder.LITTLE_ENDIAN).putLong(8, -1L);
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(negativeCount));
+        Files.write(path, negativeCount);
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(path));
+
+        Assertions.assertThrows(IOException.class, () -> barFileService.read(new byte[4]));
+    }
+
+    private static void assertSameBars(TimeSeriesData expected, TimeSeriesData actual) {
+        Assertions.assertArrayEquals(expected.timestamps, actual.timestamps);
+        Assertions.assertArrayEquals(expected.open, actual.open);
+        Assertions.assertArrayEquals(expected.high, actual.high);
+        Assertions.assertArrayEquals(expected.low, actual.low);
+        Assertions.assertArrayEquals(expected.close, actual.close);
+        Assertions.assertArrayEquals(expected.volume, actual.volume);
+    }
+}
@@ -0,0 +1,182 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.Dashboard;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.alphafinity.alphafinity.strategy.RSIStrategy.RSI_BUY_THRESHOLD;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DashboardServiceTest {
+
+    private static final int POINTS = 200;
+
+    public ForkJoinPool pool;
+    public ObjectMapper mapper;
+    public BacktestTradeExecutor tradeExecutor;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        mapper = new JacksonConfiguration().objectMapper();
+        tradeExecutor = new BacktestTradeExecutor();
+        data = sineWave(1_000);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testGetDashboard_BuiltOnceAndServedFromCache() throws IOException {
+        CountingBacktestService backtestService = backtestService();
+        CountingBarFileService barFileService = new CountingBarFileService(mapper, data);
+        DashboardService dashboardService = new DashboardService(backtestService, barFileService, new RSIStrategy(tradeExecutor), mapper, POINTS);
+
+        Dashboard first = dashboardService.getDashboard();
+        Dashboard second = dashboardService.getDashboard();
+        Dashboard smaller = dashboardService.getDashboard(50);
+
+        Assertions.assertEquals(1, backtestService.runs.get());
+        Assertions.assertEquals(1, barFileService.loads.get());
+        Assertions.assertSame(first, second);
+
+        // Another point budget is rendered from the cached series, without running the backtest again
+        Assertions.assertNotSame(first, smaller);
+        Assertions.assertSame(first.context, smaller.context);
+        Assertions.assertTrue(mapper.readTree(smaller.statesJson).size() <= 50);
+        Assertions.assertTrue(mapper.readTree(first.statesJson).size() <= POINTS);
+    }
+
+    @Test
+    public void testGetDashboard_RebuiltWhenParametersChange() throws IOException {
+        CountingBacktestService backtestService = backtestService();
+        CountingBarFileService barFileService = new CountingBarFileService(mapper, data);
+        RSIStrategy strategy = new RSIStrategy(tradeExecutor);
+        DashboardService dashboardService = new DashboardService(backtestService, barFileService, strategy, mapper, POINTS);
+
+        Dashboard original = dashboardService.getDashboard(strategy, POINTS);
+
+        Strategy changed = strategy.withParameters(Map.of(RSI_BUY_THRESHOLD, 35.0));
+        Dashboard rebuilt = dashboardService.getDashboard(changed, POINTS);
+        Assertions.assertEquals(2, backtestService.runs.get());
+        Assertions.assertNotSame(original.context, rebuilt.context);
+
+        // Another instance with the same parameters is the same dashboard
+        Dashboard same = dashboardService.getDashboard(strategy.withParameters(Map.of(RSI_BUY_THRESHOLD, 35.0)), POINTS);
+        Assertions.assertEquals(2, backtestService.runs.get());
+        Assertions.assertSame(rebuilt, same);
+
+        // Only the latest configuration is kept, going back builds it again
+        dashboardService.getDashboard(strategy, POINTS);
+        Assertions.assertEquals(3, backtestService.runs.get());
+
+        // The bundled data is loaded once whatever the strategy
+        Assertions.assertEquals(1, barFileService.loads.get());
+    }
+
+    @Test
+    public void testGetDashboard_ConcurrentFirstViewsBuildOnce() throws InterruptedException, ExecutionException {
+        CountingBacktestService backtestService = backtestService();
+        CountingBarFileService barFileService = new CountingBarFileService(mapper, data);
+        DashboardService dashboardService = new DashboardService(backtestService, barFileService, new RSIStrategy(tradeExecutor), mapper, POINTS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Dashboard>> views = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                views.add(dashboardService::getDashboard);
+            }
+
+            List<Future<Dashboard>> dashboards = executor.invokeAll(views);
+            for (Future<Dashboard> dashboard : dashboards) {
+                Assertions.assertSame(dashboards.getFirst().get(), dashboard.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, backtestService.runs.get());
+        Assertions.assertEquals(1, barFileService.loads.get());
+    }
+
+    private CountingBacktestService backtestService() {
+        return new CountingBacktestService(tradeExecutor,
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+    }
+
+    // Rising and falling prices, so the RSI crosses both thresholds
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+
+    // Counts the backtests the dashboard runs
+    private static class CountingBacktestService extends BacktestService {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        private CountingBacktestService(BacktestTradeExecutor tradeExecutor, IndicatorService indicatorService) {
+            super(tradeExecutor, new AnalyticsService(), new BacktestValidationService(), indicatorService);
+        }
+
+        @Override
+        public Context executeStrategy(Context context, Strategy strategy, TimeSeriesData benchmarkTimeSeriesData,
+                                       TimeSeriesData rawStrategyTimeSeriesData) {
+            runs.incrementAndGet();
+            return super.executeStrategy(context, strategy, benchmarkTimeSeriesData, rawStrategyTimeSeriesData);
+        }
+    }
+
+    // Serves the given data in place of the bundled dataset and counts the loads
+    private static class CountingBarFileService extends BarFileService {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final TimeSeriesData data;
+
+        private CountingBarFileService(ObjectMapper mapper, TimeSeriesData data) {
+            super(mapper, Path.of("data"));
+            this.data = data;
+        }
+
+        @Override
+        public TimeSeriesData loadResource(String resource) {
+            loads.incrementAndGet();
+            return data;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.alphafinity.alphafinity.model.Dataset;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DatasetServiceTest {
+
+    public Path directory;
+    public BarFileService barFileService;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("datasets");
+        barFileService = new BarFileService(new JacksonConfiguration().objectMapper(), directory);
+    }
+
+    @Test
+    public void testGetData_ReloadsEvictedDatasetFromBarFile() throws IOException {
+        // Room for one three-bar dataset only
+        DatasetService datasetService = new DatasetService(barFileService, directory, 3 * 6 * Long.BYTES);
+
+        Dataset first = datasetService.register(upload(bars(10.0)));
+        TimeSeriesData firstData = datasetService.getData(first.id);
+        Dataset second = datasetService.register(upload(bars(20.0)));
+        TimeSeriesData secondData = datasetService.getData(second.id);
+
+        Assertions.assertSame(secondData, datasetService.getData(second.id));
+
+        TimeSeriesData reloaded = datasetService.getData(first.id);
+        Assertions.assertNotSame(firstData, reloaded);
+        Assertions.assertArrayEquals(firstData.close, reloaded.close);
+        Assertions.assertEquals(first.id, datasetService.register(upload(bars(10.0))).id);
+    }
+
+    @Test
+    public void testDelete_RemovesDatasetAndBarFile() throws IOException {
+        DatasetService datasetService = new DatasetService(barFileService, directory, 1L << 20);
+        Dataset dataset = datasetService.register(upload(bars(30.0)));
+
+        datasetService.delete(dataset.id);
+
+        Assertions.assertThrows(NoSuchElementException.class, () -> datasetService.getData(dataset.id));
+        Assertions.assertThrows(NoSuchElementException.class, () -> datasetService.delete(dataset.id));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> datasetService.delete("../bars"));
+    }
+
+    private ByteArrayInputStream upload(TimeSeriesData data) throws IOException {
+        Path path = Files.createTempFile(directory, "upload", ".bars");
+        barFileService.write(data, path);
+        return new ByteArrayInputStream(Files.readAllBytes(path));
+    }
+
+    private static TimeSeriesData bars(double price) {
+        return new TimeSeriesData(
+                new long[]{1_700_000_000L, 1_700_003_600L, 1_700_007_200L},
+                new double[]{price, price + 1, price + 2},
+                new double[]{price + 0.5, price + 1.5, price + 2.5},
+                new double[]{price - 0.5, price + 0.5, price + 1.5},
+                new double[]{price + 0.25, price + 1.25, price + 2.25},
+                new double[]{100.0, 200.0, 300.0});
+    }
+}
@@ -0,0 +1,75 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.strategy.indicator.EMA;
+import com.alphafinity.alphafinity.strategy.indicator.RSI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.EMA_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.RSI_NAME;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class IndicatorCacheTest {
+
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        data = timeSeries(100.00);
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_SecondRunIsServedFromCache() {
+        IndicatorCache cache = new IndicatorCache(1024 * 1024);
+        IndicatorService indicatorService = new IndicatorService(cache, new IndicatorRegistry(), new ForkJoinPool(4), 65_536);
+
+        TimeSeriesData first = indicatorService.populateDataWithIndicators(data, List.of(
+                new RSI.Builder().period(14).build(), new EMA.Builder().period(20).build()));
+        // Same bars loaded separately, only the content is compared
+        TimeSeriesData second = indicatorService.populateDataWithIndicators(timeSeries(100.00), List.of(
+                new RSI.Builder().period(14).build(), new EMA.Builder().period(20).build()));
+
+        Assertions.assertTrue(first.getIndicator(RSI_NAME) == second.getIndicator(RSI_NAME));
+        Assertions.assertTrue(first.getIndicator(EMA_NAME) == second.getIndicator(EMA_NAME));
+        Assertions.assertEquals(2L, cache.getStatistics().hits());
+        Assertions.assertEquals(2L, cache.getStatistics().misses());
+
+        // A different period or different bars are calculated again
+        indicatorService.populateDataWithIndicators(data, List.of(new EMA.Builder().period(50).build()));
+        indicatorService.populateDataWithIndicators(timeSeries(101.00), List.of(new EMA.Builder().period(20).build()));
+
+        Assertions.assertEquals(4L, cache.getStatistics().misses());
+        Assertions.assertEquals(4, cache.getStatistics().entries());
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsed() {
+        double[] column = new double[128];
+        IndicatorCache cache = new IndicatorCache(3L * column.length * Double.BYTES);
+
+        cache.put("a", "EMA(20)", column);
+        cache.put("b", "EMA(20)", column);
+        cache.put("c", "EMA(20)", column);
+        cache.get("a", "EMA(20)"); // "b" is now the least recently used
+        cache.put("d", "EMA(20)", column);
+
+        Assertions.assertNull(cache.get("b", "EMA(20)"));
+        Assertions.assertTrue(cache.get("a", "EMA(20)") != null);
+        Assertions.assertEquals(1L, cache.getStatistics().evictions());
+        Assertions.assertEquals(3L * column.length * Double.BYTES, cache.getStatistics().bytes());
+    }
+
+    private static TimeSeriesData timeSeries(double firstClose) {
+        int size = 300;
+        long[] timestamps = IntStream.range(0, size).mapToLong(i -> 1_704_067_200L + i * 3600L).toArray();
+        double[] close = IntStream.range(0, size).mapToDouble(i -> firstClose + Math.sin(i / 10.0) * 5).toArray();
+        return new TimeSeriesData(timestamps, close.clone(), close.clone(), close.clone(), close, new double[size]);
+    }
+}
@@ -0,0 +1,172 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.TimeSeriesEntry;
+import com.alphafinity.alphafinity.strategy.indicator.ATR;
+import com.alphafinity.alphafinity.strategy.indicator.EMA;
+import com.alphafinity.alphafinity.strategy.indicator.Indicator;
+import com.alphafinity.alphafinity.strategy.indicator.RSI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.CROSSOVER_NAME;
+import static com.alphafinity.alphafinity.utility.IndicatorConstants.MACD_NAME;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class IndicatorServiceTest {
+
+    private static final int RSI_PERIOD = 14;
+    private static final int EMA_PERIOD = 20;
+    private static final int CHUNK_SIZE = 64; // Well below the length of the data, so window indicators are chunked
+
+    public IndicatorService indicatorService;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        indicatorService = new IndicatorService(new IndicatorCache(64L * 1024 * 1024), new IndicatorRegistry(), new ForkJoinPool(4), CHUNK_SIZE);
+
+        Random random = new Random(42);
+        List<TimeSeriesEntry> entries = new ArrayList<>();
+        double close = 100.00;
+        for (int i = 0; i < 500; i++) {
+            close += random.nextInt(5) - 2; // Includes unchanged closes so zero price changes are covered
+            entries.add(new TimeSeriesEntry.Builder()
+                    .datetime(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i))
+                    .open(close)
+                    .close(close)
+                    .high(close)
+                    .low(close)
+                    .volume(1000.00)
+                    .build());
+        }
+        data = new TimeSeriesData(entries);
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_MatchesFullRecalculation() {
+        TimeSeriesData response = indicatorService.populateDataWithIndicators(data, List.of(
+                new RSI.Builder().period(RSI_PERIOD).build(),
+                new EMA.Builder().period(EMA_PERIOD).build()));
+
+        Assertions.assertEquals(data.entries.size(), response.entries.size());
+
+        for (int i = 0; i < response.entries.size(); i++) {
+            Assertions.assertEquals(expectedRsi(data.entries, i), response.entries.get(i).rsi, "RSI at index " + i);
+            Assertions.assertEquals(expectedEma(data.entries, i), response.entries.get(i).ema, "EMA at index " + i);
+        }
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_NotEnoughData() {
+        TimeSeriesData response = indicatorService.populateDataWithIndicators(data, List.of(
+                new RSI.Builder().period(RSI_PERIOD).build(),
+                new EMA.Builder().period(EMA_PERIOD).build()));
+
+        Assertions.assertEquals(0.00, response.entries.get(RSI_PERIOD - 1).rsi);
+        Assertions.assertNotEquals(0.00, response.entries.get(RSI_PERIOD).rsi);
+        Assertions.assertEquals(0.00, response.entries.get(EMA_PERIOD - 1).ema);
+        Assertions.assertNotEquals(0.00, response.entries.get(EMA_PERIOD).ema);
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_SharedInputsCalculatedOnce() {
+        IndicatorCache cache = new IndicatorCache(64L * 1024 * 1024);
+        TimeSeriesData response = new IndicatorService(cache, new IndicatorRegistry(), new ForkJoinPool(4), CHUNK_SIZE)
+                .populateDataWithIndicators(data, "macd(12,26)", "crossover(12,26)");
+
+        // macd(12,26), ema(12), ema(26) and crossover(12,26), the EMAs are looked up and calculated once
+        Assertions.assertEquals(4L, cache.getStatistics().misses());
+        Assertions.assertEquals(4, cache.getStatistics().entries());
+
+        double[] fast = response.getIndicator("ema(12)");
+        double[] slow = response.getIndicator("ema(26)");
+        double[] macd = response.getIndicator(MACD_NAME);
+        double[] crossover = response.getIndicator(CROSSOVER_NAME);
+        for (int i = 26; i < data.size(); i++) {
+            Assertions.assertEquals(fast[i] - slow[i], macd[i], "MACD at index " + i);
+            Assertions.assertEquals(fast[i] > slow[i] ? 1.0 : -1.0, crossover[i], "Crossover at index " + i);
+        }
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_ChunksMatchSequentialCalculation() {
+        // EMAs with lookbacks shorter and longer than a chunk, calculated alongside the ATR before the MACD reading them
+        TimeSeriesData response = indicatorService.populateDataWithIndicators(data, "macd(" + EMA_PERIOD + ",100)", "atr(" + RSI_PERIOD + ")");
+
+        List<Indicator<?>> indicators = List.of(
+                new EMA.Builder().period(EMA_PERIOD).build(),
+                new EMA.Builder().period(100).build(),
+                new ATR.Builder().period(RSI_PERIOD).build());
+        for (Indicator<?> indicator : indicators) {
+            double[] column = response.getIndicator(indicator.key());
+            for (int i = 0; i < data.size(); i++) {
+                indicator.update(data, i);
+                Assertions.assertEquals(indicator.value(), column[i], indicator.key() + " at index " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testPopulateDataWithIndicators_RejectsCycles() {
+        IndicatorRegistry registry = new IndicatorRegistry();
+        registry.register("loop", 0, parameters -> new Indicator<Double>() {
+            public String name() { return "loop"; }
+            public String key() { return "loop()"; }
+            public List<String> inputs() { return List.of("loop()"); }
+            public void update(TimeSeriesData data, int index) { }
+            public Double value() { return 0.0; }
+        });
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IndicatorService(new IndicatorCache(1024), registry, new ForkJoinPool(4), CHUNK_SIZE)
+                .populateDataWithIndicators(data, "loop()"));
+    }
+
+    // Reference implementation recomputing the RSI from the start of the series for the given index
+    private double expectedRsi(List<TimeSeriesEntry> entries, int index) {
+        if (index < RSI_PERIOD) {
+            return 0.0;
+        }
+
+        double averageGain = 0.0;
+        double averageLoss = 0.0;
+        for (int i = 1; i <= RSI_PERIOD; i++) {
+            double change = entries.get(i).close - entries.get(i - 1).close;
+            averageGain += change > 0 ? change : 0;
+            averageLoss += change > 0 ? 0 : -change;
+        }
+        averageGain /= RSI_PERIOD;
+        averageLoss /= RSI_PERIOD;
+
+        for (int i = RSI_PERIOD + 1; i <= index; i++) {
+            double change = entries.get(i).close - entries.get(i - 1).close;
+            averageGain = (averageGain * (RSI_PERIOD - 1) + (change > 0 ? change : 0)) / RSI_PERIOD;
+            averageLoss = (averageLoss * (RSI_PERIOD - 1) + (change > 0 ? 0 : -change)) / RSI_PERIOD;
+        }
+
+        double rs = (averageLoss == 0) ? 0.0 : averageGain / averageLoss;
+        return 100.0 - (100.0 / (1 + rs));
+    }
+
+    // Reference implementation recomputing the EMA over the trailing window for the given index
+    private double expectedEma(List<TimeSeriesEntry> entries, int index) {
+        if (index < EMA_PERIOD) {
+            return 0.0;
+        }
+
+        double smoothingFactor = 2.0 / (EMA_PERIOD + 1);
+        double ema = entries.get(index - EMA_PERIOD + 1).close;
+        for (int i = index - EMA_PERIOD + 2; i <= index; i++) {
+            ema = (entries.get(i).close - ema) * smoothingFactor + ema;
+        }
+        return ema;
+    }
+}
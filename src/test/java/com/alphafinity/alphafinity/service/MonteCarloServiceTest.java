@@ -0,0 +1,80 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Account;
+import com.alphafinity.alphafinity.model.Analytics;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.MonteCarloResult;
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.ResamplingMethod;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MonteCarloServiceTest {
+
+    private static final int SIMULATIONS = 10_000;
+
+    public MonteCarloService monteCarloService;
+    public Context context;
+
+    @BeforeAll
+    public void setUp() {
+        monteCarloService = new MonteCarloService(new ForkJoinPool(4), SIMULATIONS, 0.95);
+
+        Analytics.Builder analytics = new Analytics.Builder();
+        List.of(100.00, -50.00, 25.00, -75.00, 150.00).forEach(profit -> analytics.addTransaction(new Transaction.Builder()
+                .type(TransactionType.LONG_CLOSE)
+                .status(TransactionOperation.CLOSE)
+                .time(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .price(10.00)
+                .quantity(1)
+                .profit(profit)
+                .build()));
+
+        context = new Context.Builder()
+                .account(new Account.Builder()
+                        .initialCapital(1000.00)
+                        .currentCapital(1150.00)
+                        .build())
+                .analytics(analytics.build())
+                .build();
+    }
+
+    @Test
+    public void testSimulate_SameSeedGivesSameResult() {
+        MonteCarloResult first = monteCarloService.simulate(context, ResamplingMethod.BOOTSTRAP, 42);
+        MonteCarloResult second = monteCarloService.simulate(context, ResamplingMethod.BOOTSTRAP, 42);
+
+        Assertions.assertEquals(5, first.trades);
+        Assertions.assertEquals(first.totalReturnAsPercentage.lower, second.totalReturnAsPercentage.lower);
+        Assertions.assertEquals(first.totalReturnAsPercentage.upper, second.totalReturnAsPercentage.upper);
+        Assertions.assertEquals(first.maxDrawdown.upper, second.maxDrawdown.upper);
+        Assertions.assertEquals(first.sharpeRatio.median, second.sharpeRatio.median);
+    }
+
+    @Test
+    public void testSimulate_ShuffleKeepsTotalReturn() {
+        MonteCarloResult result = monteCarloService.simulate(context, ResamplingMethod.SHUFFLE, 42);
+
+        // Reordering the trades compounds to the same ending capital, only the path (and so the drawdown) changes
+        Assertions.assertEquals(15.0, result.totalReturnAsPercentage.lower, 1e-9);
+        Assertions.assertEquals(15.0, result.totalReturnAsPercentage.upper, 1e-9);
+        Assertions.assertTrue(result.maxDrawdown.lower <= result.maxDrawdown.upper);
+    }
+
+    @Test
+    public void testSimulate_NoClosedTrades() {
+        MonteCarloResult result = monteCarloService.simulate(new Context.Builder().build(), ResamplingMethod.BOOTSTRAP, 42);
+
+        Assertions.assertEquals(0, result.trades);
+        Assertions.assertNull(result.totalReturnAsPercentage);
+    }
+}
@@ -0,0 +1,99 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MultiAssetPortfolioTest {
+
+    private static final double DELTA = 1e-9;
+
+    public BacktestTradeExecutor tradeExecutor;
+
+    @BeforeAll
+    public void setUp() {
+        tradeExecutor = new BacktestTradeExecutor();
+    }
+
+    @Test
+    public void testTrade_InterleavedAssetsShareCash() {
+        MultiAssetPortfolio portfolio = new MultiAssetPortfolio(1000.00, 2);
+
+        Transaction buyFirst = order(TransactionType.LONG_OPEN, 10.00, 10, 1);
+        portfolio.trade(0, context -> tradeExecutor.buy(context, buyFirst));
+        portfolio.markToMarket(0, 12.00);
+        Assertions.assertEquals(900.00, portfolio.getCash(), DELTA);
+        Assertions.assertEquals(1020.00, portfolio.getAccountValue(), DELTA);
+
+        // The second asset is funded with what the first one left
+        Transaction buySecond = order(TransactionType.LONG_OPEN, 20.00, 5, 2);
+        portfolio.trade(1, context -> tradeExecutor.buy(context, buySecond));
+        portfolio.markToMarket(1, 18.00);
+        Assertions.assertEquals(800.00, portfolio.getCash(), DELTA);
+        Assertions.assertEquals(1010.00, portfolio.getAccountValue(), DELTA);
+        Assertions.assertEquals(2, portfolio.getAssetsWithPositions());
+
+        Transaction closeFirst = order(TransactionType.LONG_CLOSE, 12.00, 0, 3);
+        portfolio.trade(0, context -> tradeExecutor.close(context, context.getActiveTransactions(), closeFirst));
+        Assertions.assertEquals(920.00, portfolio.getCash(), DELTA);
+        Assertions.assertEquals(1010.00, portfolio.getAccountValue(), DELTA);
+        Assertions.assertEquals(0.00, portfolio.getOpenPositionValue(0), DELTA);
+        Assertions.assertEquals(90.00, portfolio.getOpenPositionValue(1), DELTA);
+        Assertions.assertEquals(1, portfolio.getAssetsWithPositions());
+
+        Transaction closeSecond = order(TransactionType.LONG_CLOSE, 18.00, 0, 4);
+        portfolio.trade(1, context -> tradeExecutor.close(context, context.getActiveTransactions(), closeSecond));
+        Assertions.assertEquals(1010.00, portfolio.getCash(), DELTA);
+        Assertions.assertEquals(1010.00, portfolio.getAccountValue(), DELTA);
+        Assertions.assertEquals(0, portfolio.getAssetsWithPositions());
+
+        // One ledger in execution order, the assets' contexts append to it and only index their own rows
+        List<Transaction> ledger = portfolio.getLedger();
+        Assertions.assertEquals(4, ledger.size());
+        Assertions.assertEquals(List.of(1, 2, 3, 4), ledger.stream().map(transaction -> transaction.time.getHour()).toList());
+        Assertions.assertEquals(List.of(TransactionOperation.OPEN, TransactionOperation.OPEN, TransactionOperation.CLOSE, TransactionOperation.CLOSE),
+                ledger.stream().map(transaction -> transaction.operation).toList());
+        Assertions.assertSame(ledger, portfolio.getContext(0).analytics.transactions);
+        Assertions.assertSame(ledger, portfolio.getContext(1).analytics.transactions);
+
+        Assertions.assertEquals(List.of(ledger.get(0), ledger.get(2)), portfolio.getTransactions(0));
+        Assertions.assertEquals(List.of(ledger.get(1), ledger.get(3)), portfolio.getTransactions(1));
+        Assertions.assertEquals(20.00, portfolio.getTransactions(0).get(1).profit, DELTA);
+        Assertions.assertEquals(-10.00, portfolio.getTransactions(1).get(1).profit, DELTA);
+    }
+
+    @Test
+    public void testTrade_RejectedOrderLeavesCashAndLedger() {
+        MultiAssetPortfolio portfolio = new MultiAssetPortfolio(100.00, 2);
+
+        Transaction buyFirst = order(TransactionType.LONG_OPEN, 10.00, 8, 1);
+        portfolio.trade(0, context -> tradeExecutor.buy(context, buyFirst));
+
+        // Each asset's account would still hold the full initial capital, the shared cash does not
+        Transaction buySecond = order(TransactionType.LONG_OPEN, 10.00, 5, 2);
+        portfolio.trade(1, context -> tradeExecutor.buy(context, buySecond));
+
+        Assertions.assertEquals(20.00, portfolio.getCash(), DELTA);
+        Assertions.assertEquals(1, portfolio.getLedger().size());
+        Assertions.assertTrue(portfolio.getTransactions(1).isEmpty());
+        Assertions.assertFalse(portfolio.hasOpenPositions(1));
+    }
+
+    private static Transaction order(TransactionType type, double price, int quantity, int hour) {
+        return new Transaction.Builder()
+                .type(type)
+                .status(TransactionType.LONG_OPEN.equals(type) ? TransactionOperation.OPEN : TransactionOperation.CLOSE)
+                .time(LocalDateTime.of(2024, 1, 2, hour, 0))
+                .price(price)
+                .quantity(quantity)
+                .build();
+    }
+}
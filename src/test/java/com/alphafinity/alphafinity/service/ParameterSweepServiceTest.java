@@ -0,0 +1,152 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.SweepResult;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.enumerations.SweepMetric;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.alphafinity.alphafinity.strategy.RSIStrategy.RSI_BUY_THRESHOLD;
+import static com.alphafinity.alphafinity.strategy.RSIStrategy.TAKE_PROFITS_THRESHOLD;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ParameterSweepServiceTest {
+
+    public ForkJoinPool pool;
+    public BacktestService backtestService;
+    public ParameterSweepService sweepService;
+    public RSIStrategy strategy;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        BacktestTradeExecutor tradeExecutor = new BacktestTradeExecutor();
+        backtestService = new BacktestService(tradeExecutor, new AnalyticsService(), new BacktestValidationService(),
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+        sweepService = new ParameterSweepService(backtestService, new BacktestValidationService(), pool, 8);
+        strategy = new RSIStrategy(tradeExecutor);
+        data = sineWave(1_000);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSweep_RunsEveryCombinationOfTheGrid() {
+        Map<String, List<Double>> grid = new LinkedHashMap<>();
+        grid.put(RSI_BUY_THRESHOLD, List.of(20.0, 25.0, 30.0));
+        grid.put(TAKE_PROFITS_THRESHOLD, List.of(1.0, 2.0));
+
+        List<SweepResult> results = sweepService.sweep(strategy, grid, SweepMetric.TOTAL_RETURN, data, data);
+
+        Assertions.assertEquals(6, results.size());
+        Set<Map<String, Double>> combinations = results.stream().map(result -> result.parameters).collect(Collectors.toSet());
+        for (double buyThreshold : List.of(20.0, 25.0, 30.0)) {
+            for (double takeProfitsThreshold : List.of(1.0, 2.0)) {
+                Assertions.assertTrue(combinations.contains(Map.of(RSI_BUY_THRESHOLD, buyThreshold, TAKE_PROFITS_THRESHOLD, takeProfitsThreshold)));
+            }
+        }
+        Assertions.assertEquals(List.of(1, 2, 3, 4, 5, 6), results.stream().map(result -> result.rank).toList());
+
+        // Every combination is the same run as the strategy with those parameters on its own
+        for (SweepResult result : results) {
+            Context separate = backtestService.executeStrategy(new Context.Builder().build(), strategy.withParameters(result.parameters), data, data);
+            Assertions.assertEquals(separate.analytics.endingCapital, result.endingCapital);
+            Assertions.assertEquals(separate.analytics.totalClosingTrades, result.totalClosingTrades);
+            Assertions.assertFalse(result.stoppedEarly);
+        }
+    }
+
+    @Test
+    public void testSweep_RanksByMetric() {
+        Map<String, List<Double>> grid = Map.of(RSI_BUY_THRESHOLD, List.of(15.0, 20.0, 25.0, 30.0), TAKE_PROFITS_THRESHOLD, List.of(0.5, 3.0));
+
+        assertRanked(sweepService.sweep(strategy, grid, SweepMetric.TOTAL_RETURN, data, data), result -> result.totalReturn, true);
+        assertRanked(sweepService.sweep(strategy, grid, SweepMetric.SHARPE_RATIO, data, data), result -> result.sharpeRatio, true);
+        assertRanked(sweepService.sweep(strategy, grid, SweepMetric.WIN_RATE, data, data), result -> result.winRate, true);
+        assertRanked(sweepService.sweep(strategy, grid, SweepMetric.MAX_DRAWDOWN, data, data), result -> result.maxDrawdown, false);
+    }
+
+    @Test
+    public void testSweep_MaxDrawdownStopsRunsAndRanksThemLast() {
+        // A buy threshold of 0 never trades, so that run has no drawdown to stop it
+        Map<String, List<Double>> grid = Map.of(RSI_BUY_THRESHOLD, List.of(25.0, 0.0));
+
+        List<SweepResult> unlimited = sweepService.sweep(strategy, grid, SweepMetric.TOTAL_RETURN, data, data);
+        Assertions.assertTrue(unlimited.stream().noneMatch(result -> result.stoppedEarly));
+
+        List<SweepResult> results = sweepService.sweep(strategy, grid, SweepMetric.TOTAL_RETURN, 0.001, data, data);
+
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals(0.0, results.get(0).parameters.get(RSI_BUY_THRESHOLD));
+        Assertions.assertFalse(results.get(0).stoppedEarly);
+        Assertions.assertEquals(1, results.get(0).rank);
+
+        SweepResult stopped = results.get(1);
+        Assertions.assertEquals(25.0, stopped.parameters.get(RSI_BUY_THRESHOLD));
+        Assertions.assertTrue(stopped.stoppedEarly);
+        Assertions.assertEquals(2, stopped.rank);
+
+        // The stopped run was closed out early, so it made fewer trades than the full run
+        SweepResult full = unlimited.stream().filter(result -> result.parameters.get(RSI_BUY_THRESHOLD) == 25.0).findFirst().orElseThrow();
+        Assertions.assertTrue(stopped.totalClosingTrades < full.totalClosingTrades);
+    }
+
+    @Test
+    public void testValidateGrid_RejectsInvalidGrids() {
+        // 3 x 3 combinations is over the limit of 8
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sweepService.validateGrid(strategy,
+                Map.of(RSI_BUY_THRESHOLD, List.of(20.0, 25.0, 30.0), TAKE_PROFITS_THRESHOLD, List.of(1.0, 2.0, 3.0))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sweepService.validateGrid(strategy,
+                Map.of("unknownParameter", List.of(1.0))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sweepService.validateGrid(strategy,
+                Map.of(RSI_BUY_THRESHOLD, List.of())));
+
+        // An empty grid is a single run with the current parameters
+        Assertions.assertEquals(List.of(Map.of()), sweepService.validateGrid(strategy, Map.of()));
+    }
+
+    private static void assertRanked(List<SweepResult> results, Function<SweepResult, Double> metric, boolean highestFirst) {
+        Comparator<Double> order = highestFirst ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        List<Double> values = results.stream().map(metric).toList();
+
+        Assertions.assertEquals(values.stream().sorted(order).toList(), values);
+        Assertions.assertTrue(values.stream().distinct().count() > 1); // The grid gives the metric something to rank
+    }
+
+    // Rising and falling prices, so the RSI crosses both thresholds
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+}
@@ -0,0 +1,150 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.configuration.JacksonConfiguration;
+import com.alphafinity.alphafinity.model.Analytics;
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.State;
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReportEncodingServiceTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 1, 2, 10, 0);
+    private static final LocalDateTime SECOND = LocalDateTime.of(2024, 1, 2, 11, 0);
+
+    public ObjectMapper mapper;
+    public ReportEncodingService reportEncodingService;
+    public Context context;
+
+    @BeforeAll
+    public void setUp() {
+        mapper = new JacksonConfiguration().objectMapper();
+        reportEncodingService = new ReportEncodingService(mapper);
+
+        // The open has no time and no profit, the close has no type, so every sentinel is written
+        Analytics analytics = new Analytics.Builder()
+                .addTransaction(new Transaction.Builder().quantity(10).price(20.0)
+                        .type(TransactionType.LONG_OPEN).status(TransactionOperation.OPEN).build())
+                .addTransaction(new Transaction.Builder().time(SECOND).quantity(10).price(21.0).profit(10.0)
+                        .status(TransactionOperation.CLOSE).build())
+                .build();
+
+        context = new Context.Builder()
+                .analytics(analytics)
+                .states(List.of(
+                        new State.Builder().currentTime(FIRST).currentAccountValue(1000.0).currentProfit(null).currentProfitPercentage(0.0).build(),
+                        new State.Builder().currentTime(SECOND).currentAccountValue(1010.0).currentProfit(10.0).currentProfitPercentage(1.0).build()))
+                .build();
+    }
+
+    @Test
+    public void testEncodeBinary_WritesStateAndTransactionColumns() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(reportEncodingService.encodeBinary(context, ReportEncodingService.FIELDS))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        JsonNode header = readHeader(buffer);
+        Assertions.assertTrue(header.has(ReportEncodingService.ACCOUNT));
+        Assertions.assertFalse(header.get(ReportEncodingService.ANALYTICS).has("transactions"));
+        Assertions.assertFalse(header.has(ReportEncodingService.STATES));
+
+        Assertions.assertEquals(2, buffer.getInt());
+        Assertions.assertArrayEquals(new long[]{epochSecond(FIRST), epochSecond(SECOND)}, getLongs(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{1000.0, 1010.0}, getDoubles(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{Double.NaN, 10.0}, getDoubles(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{0.0, 1.0}, getDoubles(buffer, 2));
+
+        Assertions.assertEquals(2, buffer.getInt());
+        Assertions.assertArrayEquals(new long[]{Long.MIN_VALUE, epochSecond(SECOND)}, getLongs(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{20.0, 21.0}, getDoubles(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{200.0, 210.0}, getDoubles(buffer, 2));
+        Assertions.assertArrayEquals(new double[]{Double.NaN, 10.0}, getDoubles(buffer, 2));
+        Assertions.assertArrayEquals(new int[]{10, 10}, new int[]{buffer.getInt(), buffer.getInt()});
+        Assertions.assertArrayEquals(new int[]{TransactionType.LONG_OPEN.ordinal(), -1}, new int[]{buffer.get(), buffer.get()});
+        Assertions.assertArrayEquals(new int[]{TransactionOperation.OPEN.ordinal(), TransactionOperation.CLOSE.ordinal()},
+                new int[]{buffer.get(), buffer.get()});
+        Assertions.assertArrayEquals(new int[]{0, 0}, new int[]{buffer.get(), buffer.get()}); // Quantity.NOT_SET
+
+        Assertions.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testEncodeBinary_WritesMinusOneForUnselectedColumns() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(reportEncodingService.encodeBinary(context, Set.of(ReportEncodingService.ANALYTICS)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        JsonNode header = readHeader(buffer);
+        Assertions.assertTrue(header.has(ReportEncodingService.ANALYTICS));
+        Assertions.assertFalse(header.has(ReportEncodingService.ACCOUNT));
+        Assertions.assertFalse(header.get(ReportEncodingService.ANALYTICS).has("transactions"));
+
+        Assertions.assertEquals(-1, buffer.getInt());
+        Assertions.assertEquals(-1, buffer.getInt());
+        Assertions.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testEncodeColumnarJson_WritesLedgerOnlyAsColumns() throws IOException {
+        JsonNode report = mapper.readTree(reportEncodingService.encodeColumnarJson(context,
+                Set.of(ReportEncodingService.ANALYTICS, ReportEncodingService.STATES)));
+
+        Assertions.assertFalse(report.get(ReportEncodingService.ANALYTICS).has("transactions"));
+        Assertions.assertFalse(report.has(ReportEncodingService.TRANSACTIONS));
+
+        JsonNode states = report.get(ReportEncodingService.STATES);
+        Assertions.assertEquals(epochSecond(FIRST), states.get("currentTime").get(0).asLong());
+        Assertions.assertTrue(states.get("currentProfit").get(0).isNull());
+        Assertions.assertEquals(10.0, states.get("currentProfit").get(1).asDouble());
+
+        JsonNode withLedger = mapper.readTree(reportEncodingService.encodeColumnarJson(context, ReportEncodingService.FIELDS));
+        Assertions.assertFalse(withLedger.get(ReportEncodingService.ANALYTICS).has("transactions"));
+
+        JsonNode transactions = withLedger.get(ReportEncodingService.TRANSACTIONS);
+        Assertions.assertEquals(2, transactions.get("time").size());
+        Assertions.assertEquals(2, transactions.get("operation").size());
+        Assertions.assertTrue(transactions.get("time").get(0).isNull());
+        Assertions.assertTrue(transactions.get("profit").get(0).isNull());
+        Assertions.assertEquals("CLOSE", transactions.get("operation").get(1).asText());
+        Assertions.assertTrue(transactions.get("type").get(1).isNull());
+    }
+
+    private JsonNode readHeader(ByteBuffer buffer) throws IOException {
+        Assertions.assertEquals(ReportEncodingService.MAGIC, buffer.getInt());
+        Assertions.assertEquals(1, buffer.getInt());
+        byte[] header = new byte[buffer.getInt()];
+        buffer.get(header);
+        return mapper.readTree(header);
+    }
+
+    private static long[] getLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        Arrays.setAll(values, i -> buffer.getLong());
+        return values;
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        Arrays.setAll(values, i -> buffer.getDouble());
+        return values;
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
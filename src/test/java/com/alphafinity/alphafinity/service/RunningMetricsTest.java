@@ -0,0 +1,108 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Transaction;
+import com.alphafinity.alphafinity.model.enumerations.TransactionOperation;
+import com.alphafinity.alphafinity.model.enumerations.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RunningMetricsTest {
+
+    public double[] accountValues;
+
+    @BeforeAll
+    public void setUp() {
+        Random random = new Random(42);
+        accountValues = new double[10_000];
+        accountValues[0] = 1000.00;
+        for (int i = 1; i < accountValues.length; i++) {
+            accountValues[i] = accountValues[i - 1] * (1 + random.nextGaussian() * 0.01);
+        }
+    }
+
+    @Test
+    public void testOnBar_MatchesTwoPassCalculations() {
+        RunningMetrics metrics = new RunningMetrics(1000.00);
+        for (int i = 0; i < accountValues.length; i++) {
+            metrics.onBar(accountValues[i], i % 4 == 0);
+        }
+
+        double[] returns = IntStream.range(1, accountValues.length)
+                .mapToDouble(i -> accountValues[i] / accountValues[i - 1] - 1)
+                .toArray();
+        double mean = IntStream.range(0, returns.length).mapToDouble(i -> returns[i]).average().orElse(0);
+        double variance = IntStream.range(0, returns.length).mapToDouble(i -> Math.pow(returns[i] - mean, 2)).average().orElse(0);
+
+        double peak = Double.NEGATIVE_INFINITY;
+        double maxDrawdown = 0.0;
+        for (double accountValue : accountValues) {
+            peak = Math.max(peak, accountValue);
+            maxDrawdown = Math.max(maxDrawdown, (peak - accountValue) / peak);
+        }
+
+        Assertions.assertEquals(accountValues.length, metrics.getBars());
+        Assertions.assertEquals(mean, metrics.getMeanReturn(), 1e-12);
+        Assertions.assertEquals(Math.sqrt(variance), metrics.getReturnStandardDeviation(), 1e-12);
+        Assertions.assertEquals(maxDrawdown, metrics.getMaxDrawdown());
+        Assertions.assertEquals(25.0, metrics.getExposure());
+    }
+
+    @Test
+    public void testOnBar_NoDrawdownWithoutPositivePeak() {
+        RunningMetrics metrics = new RunningMetrics(0.00);
+        metrics.onBar(0.00, false);
+        metrics.onBar(0.00, false);
+
+        Assertions.assertEquals(0.0, metrics.getCurrentDrawdown());
+        Assertions.assertEquals(0.0, metrics.getMaxDrawdown());
+        Assertions.assertEquals(0.0, metrics.getMeanReturn());
+
+        metrics.onBar(100.00, true);
+        metrics.onBar(50.00, true);
+
+        Assertions.assertEquals(0.5, metrics.getCurrentDrawdown());
+        Assertions.assertEquals(0.5, metrics.getMaxDrawdown());
+    }
+
+    @Test
+    public void testOnLedger_OnlyConsumesNewTransactions() {
+        RunningMetrics metrics = new RunningMetrics(1000.00);
+        List<Transaction> ledger = new ArrayList<>();
+
+        ledger.add(transaction(TransactionOperation.OPEN, 0.00));
+        metrics.onLedger(ledger);
+        ledger.add(transaction(TransactionOperation.CLOSE, 50.00));
+        metrics.onLedger(ledger);
+        metrics.onLedger(ledger);
+
+        Assertions.assertEquals(2, metrics.getTrades().getTotalTrades());
+        Assertions.assertEquals(1, metrics.getTrades().getTotalClosingTrades());
+        Assertions.assertEquals(100.0, metrics.getTrades().getWinRate());
+
+        // A ledger replaced by the trade executor is read again from the start
+        metrics.onLedger(List.of(transaction(TransactionOperation.CLOSE, -10.00)));
+
+        Assertions.assertEquals(1, metrics.getTrades().getTotalTrades());
+        Assertions.assertEquals(0.0, metrics.getTrades().getWinRate());
+    }
+
+    private static Transaction transaction(TransactionOperation operation, double profit) {
+        return new Transaction.Builder()
+                .type(operation == TransactionOperation.OPEN ? TransactionType.LONG_OPEN : TransactionType.LONG_CLOSE)
+                .status(operation)
+                .time(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .price(100.00)
+                .quantity(1)
+                .profit(profit)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.alphafinity.alphafinity.service;
+
+import com.alphafinity.alphafinity.model.Context;
+import com.alphafinity.alphafinity.model.SweepResult;
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import com.alphafinity.alphafinity.model.WalkForwardResult;
+import com.alphafinity.alphafinity.model.WalkForwardWindow;
+import com.alphafinity.alphafinity.model.enumerations.SweepMetric;
+import com.alphafinity.alphafinity.strategy.RSIStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.alphafinity.alphafinity.strategy.RSIStrategy.RSI_BUY_THRESHOLD;
+import static com.alphafinity.alphafinity.strategy.RSIStrategy.TAKE_PROFITS_THRESHOLD;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class WalkForwardServiceTest {
+
+    private static final Map<String, List<Double>> GRID = Map.of(
+            RSI_BUY_THRESHOLD, List.of(15.0, 25.0, 35.0),
+            TAKE_PROFITS_THRESHOLD, List.of(0.5, 3.0));
+
+    public ForkJoinPool pool;
+    public BacktestService backtestService;
+    public ParameterSweepService sweepService;
+    public WalkForwardService walkForwardService;
+    public RSIStrategy strategy;
+    public TimeSeriesData data;
+
+    @BeforeAll
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        BacktestTradeExecutor tradeExecutor = new BacktestTradeExecutor();
+        backtestService = new BacktestService(tradeExecutor, new AnalyticsService(), new BacktestValidationService(),
+                new IndicatorService(new IndicatorCache(1L << 20), new IndicatorRegistry(), pool, 65536));
+        sweepService = new ParameterSweepService(backtestService, new BacktestValidationService(), pool, 100);
+        walkForwardService = new WalkForwardService(backtestService, new BacktestValidationService(), sweepService, pool);
+        strategy = new RSIStrategy(tradeExecutor);
+        data = sineWave(1_000);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testWalkForward_WindowsRollByOutOfSampleBars() {
+        WalkForwardResult result = walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 300, 250, data, data);
+
+        // Windows start at bars 0, 250 and 500, the last out-of-sample range only has the 200 bars that remain
+        Assertions.assertEquals(3, result.windows.size());
+        assertWindow(result.windows.get(0), 0, 300, 550);
+        assertWindow(result.windows.get(1), 250, 550, 800);
+        assertWindow(result.windows.get(2), 500, 800, 1_000);
+
+        // The out-of-sample ranges are back to back, so the stitched curve has one state per bar after the first in-sample range
+        Assertions.assertEquals(700, result.equityCurve.size());
+        Assertions.assertEquals(data.getDatetime(300), result.equityCurve.getFirst().currentTime);
+        Assertions.assertEquals(data.getDatetime(999), result.equityCurve.getLast().currentTime);
+    }
+
+    @Test
+    public void testWalkForward_OutOfSampleLongerThanRemainingBars() {
+        WalkForwardResult result = walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 300, 5_000, data, data);
+
+        Assertions.assertEquals(1, result.windows.size());
+        assertWindow(result.windows.getFirst(), 0, 300, 1_000);
+        Assertions.assertEquals(700, result.equityCurve.size());
+        Assertions.assertEquals(result.windows.getFirst().outOfSampleAnalytics.endingCapital, result.endingCapital);
+    }
+
+    @Test
+    public void testWalkForward_OutOfSampleUsesInSampleParameters() {
+        WalkForwardResult result = walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 300, 250, data, data);
+        TimeSeriesData enriched = backtestService.enrichData(data);
+        int[][] ranges = {{0, 300, 550}, {250, 550, 800}, {500, 800, 1_000}};
+
+        for (int i = 0; i < ranges.length; i++) {
+            WalkForwardWindow window = result.windows.get(i);
+
+            // The best parameters of the in-sample range only
+            SweepResult best = sweepService.sweep(strategy, GRID, SweepMetric.TOTAL_RETURN, data, enriched, ranges[i][0], ranges[i][1]).getFirst();
+            Assertions.assertEquals(best.parameters, window.parameters);
+            Assertions.assertEquals(best.parameters, window.inSampleResult.parameters);
+            Assertions.assertEquals(best.endingCapital, window.inSampleResult.endingCapital);
+
+            // Applied unchanged to the out-of-sample range
+            Context outOfSample = backtestService.executeStrategyOnEnrichedData(new Context.Builder().build(),
+                    strategy.withParameters(window.parameters), data, enriched, ranges[i][1], ranges[i][2]);
+            Assertions.assertEquals(outOfSample.analytics.endingCapital, window.outOfSampleAnalytics.endingCapital);
+            Assertions.assertEquals(outOfSample.analytics.totalClosingTrades, window.outOfSampleAnalytics.totalClosingTrades);
+        }
+    }
+
+    @Test
+    public void testWalkForward_RejectsWindowsWithoutBars() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 0, 250, data, data));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 300, 0, data, data));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> walkForwardService.walkForward(strategy, GRID, SweepMetric.TOTAL_RETURN, 1_000, 250, data, data));
+    }
+
+    private void assertWindow(WalkForwardWindow window, int inSampleFrom, int outOfSampleFrom, int outOfSampleTo) {
+        Assertions.assertEquals(data.getDatetime(inSampleFrom), window.inSampleStart);
+        Assertions.assertEquals(data.getDatetime(outOfSampleFrom - 1), window.inSampleEnd);
+        Assertions.assertEquals(data.getDatetime(outOfSampleFrom), window.outOfSampleStart);
+        Assertions.assertEquals(data.getDatetime(outOfSampleTo - 1), window.outOfSampleEnd);
+    }
+
+    // Rising and falling prices, so the RSI crosses both thresholds
+    private static TimeSeriesData sineWave(int bars) {
+        long[] timestamps = new long[bars];
+        double[] open = new double[bars];
+        double[] high = new double[bars];
+        double[] low = new double[bars];
+        double[] close = new double[bars];
+        double[] volume = new double[bars];
+        for (int i = 0; i < bars; i++) {
+            timestamps[i] = 1_700_000_000L + i * 3600L;
+            close[i] = 100 + 10 * Math.sin(i / 10.0);
+            open[i] = i == 0 ? close[i] : close[i - 1];
+            high[i] = Math.max(open[i], close[i]) + 0.5;
+            low[i] = Math.min(open[i], close[i]) - 0.5;
+            volume[i] = 1000;
+        }
+        return new TimeSeriesData(timestamps, open, high, low, close, volume);
+    }
+}
@@ -0,0 +1,57 @@
+package com.alphafinity.alphafinity.utility;
+
+import com.alphafinity.alphafinity.model.TimeSeriesData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BarResamplerTest {
+
+    @Test
+    public void testResample_AggregatesBarsOfTheSamePeriod() {
+        TimeSeriesData hourly = new TimeSeriesData(
+                new long[]{time(2024, 5, 9, 14), time(2024, 5, 9, 15), time(2024, 5, 9, 16), time(2024, 5, 10, 9), time(2024, 5, 13, 9)},
+                new double[]{10, 11, 12, 20, 30},
+                new double[]{12, 15, 13, 21, 31},
+                new double[]{9, 10, 8, 19, 29},
+                new double[]{11, 12, 10, 20, 30},
+                new double[]{100, 200, 300, 400, 500});
+
+        TimeSeriesData daily = BarResampler.resample(hourly, BarPeriod.DAILY);
+        Assertions.assertArrayEquals(new long[]{time(2024, 5, 9, 0), time(2024, 5, 10, 0), time(2024, 5, 13, 0)}, daily.timestamps);
+        Assertions.assertArrayEquals(new double[]{10, 20, 30}, daily.open);
+        Assertions.assertArrayEquals(new double[]{15, 21, 31}, daily.high);
+        Assertions.assertArrayEquals(new double[]{8, 19, 29}, daily.low);
+        Assertions.assertArrayEquals(new double[]{10, 20, 30}, daily.close);
+        Assertions.assertArrayEquals(new double[]{600, 400, 500}, daily.volume);
+
+        // Thursday and Friday fall in the week starting Monday the 6th, the 13th is the next Monday
+        TimeSeriesData weekly = BarResampler.resample(hourly, BarPeriod.parse("1w"));
+        Assertions.assertArrayEquals(new long[]{time(2024, 5, 6, 0), time(2024, 5, 13, 0)}, weekly.timestamps);
+        Assertions.assertArrayEquals(new double[]{1000, 500}, weekly.volume);
+    }
+
+    @Test
+    public void testAdd_RejectsBarsOutOfOrder() {
+        BarResampler resampler = new BarResampler(BarPeriod.parse("4h"), (timestamp, open, high, low, close, volume) -> { });
+        resampler.add(time(2024, 5, 9, 14), 1, 1, 1, 1, 1);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> resampler.add(time(2024, 5, 9, 13), 1, 1, 1, 1, 1));
+    }
+
+    @Test
+    public void testParse_RejectsMalformedPeriods() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("0d"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("1y"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("999999999999999w"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BarPeriod.parse("99999999999999999999m"));
+    }
+
+    private static long time(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+}
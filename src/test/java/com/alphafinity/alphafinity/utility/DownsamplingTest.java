@@ -0,0 +1,48 @@
+package com.alphafinity.alphafinity.utility;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DownsamplingTest {
+
+    public double[] x;
+    public double[] y;
+
+    @BeforeAll
+    public void setUp() {
+        Random random = new Random(42);
+        x = IntStream.range(0, 100_000).mapToDouble(i -> i * 3600.0).toArray();
+        y = new double[x.length];
+        for (int i = 1; i < y.length; i++) {
+            y[i] = y[i - 1] + random.nextGaussian();
+        }
+        y[54_321] = 10_000; // Spike that has to survive
+    }
+
+    @Test
+    public void testLargestTriangleThreeBuckets_KeepsEndsAndExtremes() {
+        int[] selected = Downsampling.largestTriangleThreeBuckets(x, y, 500);
+
+        Assertions.assertEquals(500, selected.length);
+        Assertions.assertEquals(0, selected[0]);
+        Assertions.assertEquals(x.length - 1, selected[selected.length - 1]);
+        Assertions.assertTrue(IntStream.range(1, selected.length).allMatch(i -> selected[i] > selected[i - 1]));
+        Assertions.assertTrue(IntStream.of(selected).anyMatch(i -> i == 54_321));
+    }
+
+    @Test
+    public void testLargestTriangleThreeBuckets_WithinBudget() {
+        double[] shortX = {0, 1, 2, 3};
+        double[] shortY = {1, 5, 2, 4};
+
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3}, Downsampling.largestTriangleThreeBuckets(shortX, shortY, 4));
+        Assertions.assertArrayEquals(new int[]{0, 1, 3}, Downsampling.largestTriangleThreeBuckets(shortX, shortY, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Downsampling.largestTriangleThreeBuckets(shortX, shortY, 2));
+    }
+}
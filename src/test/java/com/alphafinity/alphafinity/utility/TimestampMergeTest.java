@@ -0,0 +1,44 @@
+package com.alphafinity.alphafinity.utility;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TimestampMergeTest {
+
+    @Test
+    public void testNext_MergesSeriesInTimestampOrder() {
+        TimestampMerge merge = new TimestampMerge(
+                new long[]{10, 20, 30, 40},
+                new long[]{15, 30, 30, 50},
+                new long[]{},
+                new long[]{5, 40});
+
+        List<Long> timestamps = new ArrayList<>();
+        List<List<Integer>> updated = new ArrayList<>();
+        while (merge.next()) {
+            timestamps.add(merge.timestamp());
+            List<Integer> series = new ArrayList<>();
+            for (int i = 0; i < merge.updatedCount(); i++) {
+                series.add(merge.updated(i));
+            }
+            updated.add(series);
+
+            if (merge.timestamp() == 30) {
+                // Latest bar of every series, the second series has two bars at 30
+                Assertions.assertEquals(2, merge.index(0));
+                Assertions.assertEquals(2, merge.index(1));
+                Assertions.assertEquals(-1, merge.index(2));
+                Assertions.assertEquals(0, merge.index(3));
+            }
+        }
+
+        Assertions.assertEquals(List.of(5L, 10L, 15L, 20L, 30L, 40L, 50L), timestamps);
+        Assertions.assertEquals(List.of(List.of(3), List.of(0), List.of(1), List.of(0), List.of(0, 1), List.of(0, 3), List.of(1)), updated);
+        Assertions.assertFalse(merge.next());
+    }
+}
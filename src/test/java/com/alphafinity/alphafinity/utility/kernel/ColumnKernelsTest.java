@@ -0,0 +1,58 @@
+package com.alphafinity.alphafinity.utility.kernel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Random;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ColumnKernelsTest {
+
+    // Not a multiple of any vector length, so the scalar tail is exercised as well
+    private static final int SIZE = 1_003;
+
+    private final ColumnKernels scalar = new ScalarKernels();
+    private final ColumnKernels vector = new VectorKernels();
+
+    @Test
+    public void testVectorKernels_IdenticalToScalarKernels() {
+        Random random = new Random(42);
+        double[] close = new double[SIZE];
+        double[] high = new double[SIZE];
+        double[] low = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            close[i] = i == 0 ? 100 : close[i - 1] + random.nextGaussian();
+            high[i] = close[i] + random.nextDouble();
+            low[i] = close[i] - random.nextDouble();
+        }
+
+        Assertions.assertArrayEquals(apply(scalar, close, high, low, 14), apply(vector, close, high, low, 14));
+        Assertions.assertArrayEquals(apply(scalar, close, high, low, 1), apply(vector, close, high, low, 1));
+        Assertions.assertArrayEquals(apply(scalar, close, high, low, SIZE + 5), apply(vector, close, high, low, SIZE + 5));
+    }
+
+    @Test
+    public void testRollingSum_RejectsEmptyWindow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scalar.rollingSum(new double[4], 0, new double[4]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> vector.rollingSum(new double[4], 0, new double[4]));
+    }
+
+    // Every kernel's output, one after the other
+    private double[] apply(ColumnKernels kernels, double[] close, double[] high, double[] low, int window) {
+        double[][] out = new double[8][SIZE];
+        kernels.difference(close, out[0]);
+        kernels.splitGainsAndLosses(out[0], out[1], out[2]);
+        kernels.rollingSum(close, window, out[3]);
+        kernels.simpleMovingAverage(close, window, out[4]);
+        kernels.windowedExponentialMovingAverage(close, window, 2.0 / (window + 1), out[5]);
+        kernels.trueRange(high, low, close, out[6]);
+        kernels.percentChange(close, close[0], out[7]);
+
+        double[] all = new double[8 * SIZE];
+        for (int i = 0; i < out.length; i++) {
+            System.arraycopy(out[i], 0, all, i * SIZE, SIZE);
+        }
+        return all;
+    }
+}